@@ -3,31 +3,80 @@ package com.example.productdataetl.config;
 import com.example.productdataetl.dto.SalesReport;
 import com.example.productdataetl.exception.InvalidCsvRecordException;
 import com.example.productdataetl.exception.TransientDatabaseException;
+import com.example.productdataetl.listener.ChunkStallWatchdog;
 import com.example.productdataetl.listener.DetailedJobExecutionListener;
 import com.example.productdataetl.listener.DetailedStepExecutionListener;
+import com.example.productdataetl.listener.QueryPlanListener;
+import com.example.productdataetl.listener.TuningFeedbackListener;
+import com.example.productdataetl.metrics.ConnectionPoolMetrics;
+import com.example.productdataetl.metrics.PersistenceMetrics;
+import com.example.productdataetl.metrics.PrometheusTextfileExporter;
 import com.example.productdataetl.model.Product;
+import com.example.productdataetl.processor.ChunkItemProcessor;
 import com.example.productdataetl.processor.ProductProcessor;
 import com.example.productdataetl.processor.SalesReportProcessor;
+import com.example.productdataetl.reader.ProductReader;
+import com.example.productdataetl.tasklet.H2BulkLoadTasklet;
+import com.example.productdataetl.tasklet.SecondaryIndexTasklet;
+import com.example.productdataetl.tasklet.SqlReportExportTasklet;
+import com.example.productdataetl.tasklet.StagingTableTasklet;
+import com.example.productdataetl.tuning.BatchTuning;
+import com.example.productdataetl.tuning.ConnectionPoolSizing;
+import com.example.productdataetl.tuning.TuningAdvisor;
+import com.example.productdataetl.writer.ProductDescriptionWriter;
+import com.example.productdataetl.writer.ProductStagingWriter;
+import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.FlowJobBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.builder.SimpleJobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilderHelper;
+import org.springframework.batch.core.step.builder.TaskletStepBuilder;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.database.JpaPagingItemReader;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.FlatFileItemWriter;
 import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.SynchronizedItemStreamReader;
+import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder;
+import org.springframework.batch.item.support.builder.SynchronizedItemStreamReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.retry.RetryListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Spring Batch configuration class for the Product ETL pipeline.
  * Defines job and step configurations with proper chunk-oriented processing,
@@ -37,25 +86,121 @@ import org.springframework.transaction.PlatformTransactionManager;
 public class BatchConfiguration {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchConfiguration.class);
-    
-    @Value("${batch.chunk.size:10}")
-    private int chunkSize;
+    private static final String H2_BULK_MODE = "h2-bulk";
+    private static final String SQL_EXPORT_MODE = "sql-export";
+    private static final String COVERING_INDEX_READER = "covering-index";
+    private static final String REPORT_INDEX = "idx_products_price";
+    private static final String SIDE_TABLE_LAYOUT = "side-table";
+    private static final String CHECKPOINT_REPOSITORY_MODE = "checkpoint";
+    private static final String CHUNK_PROCESSOR_MODE = "chunk";
     
     @Value("${batch.skip.limit:5}")
     private int skipLimit;
     
     @Value("${batch.retry.limit:3}")
     private int retryLimit;
+    
+    @Value("${batch.step1.mode:chunk}")
+    private String step1Mode;
+    
+    @Value("${batch.step2.mode:chunk}")
+    private String step2Mode;
+    
+    @Value("${batch.step2.reader:jpa}")
+    private String step2Reader;
+
+    @Value("${batch.reports:}")
+    private String reports = "";
+    
+    @Value("${batch.processor.mode:item}")
+    private String processorMode;
+    
+    @Value("${batch.output.file:file:sales_report.csv}")
+    private Resource outputFile;
+    
+    @Value("${batch.watchdog.enabled:false}")
+    private boolean watchdogEnabled;
+    
+    @Value("${batch.watchdog.stall.multiplier:10}")
+    private double watchdogStallMultiplier;
+    
+    @Value("${batch.watchdog.min.stall.ms:30000}")
+    private long watchdogMinStallMillis;
+    
+    @Value("${batch.watchdog.check.interval.ms:1000}")
+    private long watchdogCheckIntervalMillis;
+    
+    @Value("${batch.watchdog.dump.dir:stall-dumps}")
+    private String watchdogDumpDirectory;
+    
+    @Value("${batch.watchdog.stop.on.stall:false}")
+    private boolean watchdogStopOnStall;
+    
+    @Value("${batch.metrics.textfile.enabled:false}")
+    private boolean textfileEnabled;
+    
+    @Value("${batch.metrics.textfile.dir:metrics}")
+    private String textfileDirectory;
+    
+    @Value("${batch.metrics.textfile.name:product_etl.prom}")
+    private String textfileName;
+    
+    @Value("${batch.description.layout:inline}")
+    private String descriptionLayout;
+    
+    @Value("${batch.datasource.pool.headroom:2}")
+    private int poolHeadroom;
+    
+    @Value("${batch.repository.mode:standard}")
+    private String repositoryMode;
+    
+    @Value("${batch.repository.checkpoint.chunks:10}")
+    private int checkpointChunks;
+    
+    @Value("${batch.repository.checkpoint.interval.ms:5000}")
+    private long checkpointIntervalMillis;
+    
+    @Value("${batch.step1.staging.enabled:false}")
+    private boolean stagingEnabled;
+    
+    @Value("${batch.index.deferral.enabled:false}")
+    private boolean indexDeferralEnabled;
+    
+    @Value("${batch.index.deferral.min.rows:100000}")
+    private long indexDeferralMinRows;
+    
+    @Value("${batch.index.deferral.ratio:0.5}")
+    private double indexDeferralRatio;
 
     @Autowired
     private JobRepository jobRepository;
 
+    private CheckpointingJobRepository checkpointingJobRepository;
+
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BatchTuning batchTuning;
+
+    @Autowired
+    private Resource productInputFile;
+
+    @Autowired(required = false)
+    private PersistenceMetrics persistenceMetrics;
+
+    @Autowired(required = false)
+    private TuningFeedbackListener tuningFeedbackListener;
+
+    @Autowired(required = false)
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
     // Step 1 components
     @Autowired
-    private FlatFileItemReader<Product> productCsvItemReader;
+    private ItemStreamReader<Product> productCsvItemReader;
 
     @Autowired
     private ProductProcessor productProcessor;
@@ -63,15 +208,21 @@ public class BatchConfiguration {
     @Autowired
     private JpaItemWriter<Product> productJpaItemWriter;
 
+    @Autowired
+    private ProductStagingWriter productStagingItemWriter;
+
     // Step 2 components
     @Autowired
     private JpaPagingItemReader<Product> productDatabaseReader;
 
+    @Autowired
+    private JdbcCursorItemReader<Product> productCoveringIndexReader;
+
     @Autowired
     private SalesReportProcessor salesReportProcessor;
 
     @Autowired
-    private FlatFileItemWriter<SalesReport> salesReportCsvWriter;
+    private ItemStreamWriter<SalesReport> salesReportCsvWriter;
    
     /**
      * Creates a custom skip policy bean for handling different types of exceptions.
@@ -97,17 +248,40 @@ public class BatchConfiguration {
      * Defines Step 1: Load CSV data to database.
      * Configures chunk-oriented processing with reader, processor, and writer.
      * Includes enhanced skip policy, retry logic, and detailed step execution listeners.
+     * When more than one thread is configured, chunks are processed concurrently and
+     * the CSV reader is synchronized. With {@code batch.step1.mode=h2-bulk} and an H2
+     * datasource, the file is loaded by a single SQL statement instead. With staging
+     * enabled, the chunk-oriented step writes to PRODUCTS_STAGING rather than PRODUCTS.
+     * In the description side-table layout, descriptions are written to PRODUCT_DESCRIPTIONS
+     * in the same chunk transaction as the products.
+     * With {@code batch.processor.mode=chunk} the processor sees each chunk as a whole.
      * 
      * @return Step bean for step1_loadCsvToDb
      */
     @Bean
     public Step step1LoadCsvToDb() {
-        return new StepBuilder("step1_loadCsvToDb", jobRepository)
-                .<Product, Product>chunk(chunkSize, transactionManager)
-                .reader(productCsvItemReader)
+        boolean sideTable = SIDE_TABLE_LAYOUT.equals(descriptionLayout);
+        if (sideTable && (usesStaging() || H2_BULK_MODE.equals(step1Mode))) {
+            throw new IllegalStateException("batch.description.layout=" + descriptionLayout
+                    + " requires the chunk-oriented Step 1 without staging");
+        }
+        if (usesH2BulkLoad()) {
+            return h2BulkLoadStep();
+        }
+        
+        ItemWriter<Product> writer = usesStaging() ? productStagingItemWriter : productJpaItemWriter;
+        if (sideTable) {
+            writer = new CompositeItemWriterBuilder<Product>()
+                    .delegates(productJpaItemWriter, new ProductDescriptionWriter(new JdbcTemplate(dataSource)))
+                    .build();
+        }
+        DetailedStepExecutionListener stepListener = new DetailedStepExecutionListener(persistenceMetrics, connectionPoolMetrics);
+        SimpleStepBuilder<Product, Product> chunkStep = new StepBuilder("step1_loadCsvToDb", chunkStepRepository())
+                .<Product, Product>chunk(batchTuning.getChunkSize(), transactionManager)
+                .reader(batchTuning.getThreads() > 1 ? synchronizedReader(productCsvItemReader) : productCsvItemReader)
                 .processor(productProcessor)
-                .writer(productJpaItemWriter)
-                .faultTolerant()
+                .writer(writer);
+        SimpleStepBuilder<Product, Product> builder = faultTolerant(chunkStep, productProcessor)
                 .skipPolicy(customSkipPolicy())
                 .skip(FlatFileParseException.class)
                 .skip(InvalidCsvRecordException.class)
@@ -118,7 +292,141 @@ public class BatchConfiguration {
                 .retry(TransientDatabaseException.class)
                 .noRetry(FlatFileParseException.class)
                 .noRetry(InvalidCsvRecordException.class)
-                .listener(new DetailedStepExecutionListener())
+                .listener((ChunkListener) productProcessor)
+                .listener((RetryListener) stepListener)
+                .listener((StepExecutionListener) stepListener);
+        addMonitoringListeners(builder);
+        if (batchTuning.getThreads() > 1) {
+            int threads = batchTuning.getThreads();
+            if (threads > TuningAdvisor.MAX_CONCURRENT_CHUNKS) {
+                logger.warn("Step 1 runs at most {} chunks at a time, using {} threads rather than the {} configured",
+                        TuningAdvisor.MAX_CONCURRENT_CHUNKS, TuningAdvisor.MAX_CONCURRENT_CHUNKS, threads);
+                threads = TuningAdvisor.MAX_CONCURRENT_CHUNKS;
+            }
+            checkConnectionPool(threads);
+            builder.taskExecutor(step1TaskExecutor(threads));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Pool running the chunks of Step 1. The repeat template of the step runs at most
+     * {@link TuningAdvisor#MAX_CONCURRENT_CHUNKS} chunks at a time, its throttle limit being
+     * deprecated for removal rather than raised, so the thread count is capped at that.
+     * 
+     * @param threads the number of Step 1 threads
+     * @return the initialized executor
+     */
+    private ThreadPoolTaskExecutor step1TaskExecutor(int threads) {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("step1-");
+        taskExecutor.setCorePoolSize(threads);
+        taskExecutor.setMaxPoolSize(threads);
+        // Idle threads end once the step is over, as the executor is not a managed bean
+        taskExecutor.setAllowCoreThreadTimeOut(true);
+        taskExecutor.setDaemon(true);
+        taskExecutor.initialize();
+        return taskExecutor;
+    }
+
+    /**
+     * Step 1 as a single tasklet that loads the CSV file inside H2.
+     * 
+     * @return Step loading the file with CSVREAD
+     */
+    private Step h2BulkLoadStep() {
+        logger.info("Step 1 uses the H2 bulk load mode");
+        TaskletStepBuilder builder = new StepBuilder("step1_loadCsvToDb", jobRepository)
+                .tasklet(new H2BulkLoadTasklet(new JdbcTemplate(dataSource), productInputFile, skipLimit), transactionManager)
+                .listener((StepExecutionListener) new DetailedStepExecutionListener(persistenceMetrics, connectionPoolMetrics));
+        addMonitoringListeners(builder);
+        return builder.build();
+    }
+
+    /**
+     * Step 2 as a single tasklet that filters, orders and exports the report in SQL.
+     * 
+     * @return Step writing the report with CSVWRITE on H2, or by streaming JDBC rows otherwise
+     */
+    private Step sqlExportStep() {
+        boolean h2 = isH2(dataSource);
+        logger.info("Step 2 uses the SQL export mode ({})", h2 ? "CSVWRITE" : "JDBC streaming");
+        try {
+            TaskletStepBuilder builder = new StepBuilder("step2_generateReportFromDb", jobRepository)
+                    .tasklet(new SqlReportExportTasklet(new JdbcTemplate(dataSource), outputFile.getFile().toPath(),
+                            salesReportProcessor.getPriceThreshold(), h2), transactionManager)
+                    .listener((StepExecutionListener) new DetailedStepExecutionListener(persistenceMetrics, connectionPoolMetrics))
+                    .listener(reportQueryPlanListener());
+            addMonitoringListeners(builder);
+            return builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot resolve batch.output.file " + outputFile, e);
+        }
+    }
+
+    /**
+     * Fails at startup when the workers cannot all hold a connection next to the job repository,
+     * rather than letting them block in getConnection until the pool times out.
+     */
+    private void checkConnectionPool(int workerThreads) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                ConnectionPoolSizing.check(workerThreads, poolHeadroom,
+                        dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not determine connection pool size: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Job repository of the chunk-oriented steps. In checkpoint mode their running state is
+     * written every {@code batch.repository.checkpoint.chunks} chunks or
+     * {@code batch.repository.checkpoint.interval.ms} instead of after every chunk.
+     */
+    private JobRepository chunkStepRepository() {
+        if (!CHECKPOINT_REPOSITORY_MODE.equals(repositoryMode)) {
+            return jobRepository;
+        }
+        if (checkpointingJobRepository == null) {
+            checkpointingJobRepository = new CheckpointingJobRepository(jobRepository, checkpointChunks,
+                    checkpointIntervalMillis);
+        }
+        return checkpointingJobRepository;
+    }
+
+    private boolean usesH2BulkLoad() {
+        if (!H2_BULK_MODE.equals(step1Mode)) {
+            return false;
+        }
+        if (!isH2(dataSource)) {
+            logger.warn("batch.step1.mode={} requires an H2 datasource, using the chunk-oriented Step 1", step1Mode);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The H2 bulk load already publishes the file with a single MERGE, so staging
+     * only applies to the chunk-oriented Step 1.
+     */
+    private boolean usesStaging() {
+        return stagingEnabled && !(H2_BULK_MODE.equals(step1Mode) && isH2(dataSource));
+    }
+
+    private static boolean isH2(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "H2".equals(product);
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not determine the database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private <T> SynchronizedItemStreamReader<T> synchronizedReader(ItemStreamReader<T> delegate) {
+        return new SynchronizedItemStreamReaderBuilder<T>()
+                .delegate(delegate)
                 .build();
     }
   
@@ -126,40 +434,166 @@ public class BatchConfiguration {
      * Defines Step 2: Generate report from database data.
      * Configures chunk-oriented processing with reader, processor, and writer.
      * Includes enhanced error handling policies and detailed step execution listeners for progress tracking.
+     * With {@code batch.step2.mode=sql-export} the report is produced by one query in the database instead.
+     * With report definitions in {@code batch.reports} every report is written in the same pass,
+     * by the chunk-oriented step whatever the mode.
+     * With {@code batch.step2.reader=covering-index} only the report rows and columns are read,
+     * from the covering index on price, and the query plan is logged when the step starts.
+     * With {@code batch.processor.mode=chunk} the processor filters each chunk as a whole.
      * 
      * @return Step bean for step2_generateReportFromDb
      */
     @Bean
     public Step step2GenerateReportFromDb() {
-        return new StepBuilder("step2_generateReportFromDb", jobRepository)
-                .<Product, SalesReport>chunk(chunkSize, transactionManager)
-                .reader(productDatabaseReader)
+        if (SQL_EXPORT_MODE.equals(step2Mode)) {
+            if (!reports.isBlank()) {
+                logger.warn("batch.step2.mode={} writes a single report, using the chunk-oriented Step 2 for batch.reports",
+                        step2Mode);
+            } else if (outputFile.isFile()) {
+                return sqlExportStep();
+            } else {
+                logger.warn("batch.step2.mode={} requires a file system batch.output.file, using the chunk-oriented Step 2",
+                        step2Mode);
+            }
+        }
+        
+        boolean coveringIndex = COVERING_INDEX_READER.equals(step2Reader);
+        ItemReader<Product> reader = coveringIndex ? productCoveringIndexReader : productDatabaseReader;
+        DetailedStepExecutionListener stepListener = new DetailedStepExecutionListener(persistenceMetrics, connectionPoolMetrics);
+        SimpleStepBuilder<Product, SalesReport> chunkStep = new StepBuilder("step2_generateReportFromDb", chunkStepRepository())
+                .<Product, SalesReport>chunk(batchTuning.getChunkSize(), transactionManager)
+                .reader(reader)
                 .processor(salesReportProcessor)
-                .writer(salesReportCsvWriter)
-                .faultTolerant()
+                .writer(salesReportCsvWriter);
+        SimpleStepBuilder<Product, SalesReport> builder = faultTolerant(chunkStep, salesReportProcessor)
                 .skipPolicy(customSkipPolicy())
                 .skip(DataAccessException.class)
                 .noSkip(TransientDatabaseException.class)
                 .retryPolicy(customRetryPolicy())
                 .retry(TransientDataAccessException.class)
                 .retry(TransientDatabaseException.class)
-                .listener(new DetailedStepExecutionListener())
-                .build();
+                .listener((RetryListener) stepListener)
+                .listener((StepExecutionListener) stepListener);
+        if (coveringIndex) {
+            builder.listener(reportQueryPlanListener());
+        }
+        addMonitoringListeners(builder);
+        return builder.build();
+    }
+
+    /**
+     * Makes a chunk-oriented step fault tolerant, handing each chunk to the chunk processor
+     * first with {@code batch.processor.mode=chunk}.
+     */
+    private <I, O> FaultTolerantStepBuilder<I, O> faultTolerant(SimpleStepBuilder<I, O> builder,
+                                                                ChunkItemProcessor<I, O> chunkProcessor) {
+        if (CHUNK_PROCESSOR_MODE.equals(processorMode)) {
+            return new ChunkProcessingStepBuilder<>(builder, chunkProcessor);
+        }
+        return builder.faultTolerant();
+    }
+
+    private QueryPlanListener reportQueryPlanListener() {
+        return new QueryPlanListener(new JdbcTemplate(dataSource), ProductReader.COVERING_REPORT_QUERY, REPORT_INDEX,
+                salesReportProcessor.getPriceThreshold());
+    }
+
+    /**
+     * Registers the optional monitoring listeners that are enabled through configuration.
+     * Each step gets its own listener instances because they keep per-step state.
+     * 
+     * @param builder the step builder to register the listeners with
+     */
+    private void addMonitoringListeners(StepBuilderHelper<?> builder) {
+        if (watchdogEnabled) {
+            builder.listener((StepExecutionListener) new ChunkStallWatchdog(
+                    dataSource,
+                    Paths.get(watchdogDumpDirectory),
+                    watchdogStallMultiplier,
+                    watchdogMinStallMillis,
+                    watchdogCheckIntervalMillis,
+                    watchdogStopOnStall));
+        }
     }
 
     /**
      * Defines the main ETL Job that executes step1 followed by step2.
      * Configures job flow with proper step sequencing and enhanced job execution listeners
      * for comprehensive job monitoring and error reporting.
+     * With staging enabled, step1 is surrounded by steps clearing PRODUCTS_STAGING and
+     * publishing it to PRODUCTS, so step2 only reads published data.
+     * With index deferral enabled, the secondary indexes are dropped before loading when the
+     * load is large enough and rebuilt once it is published. If a load step fails they are
+     * restored before the job ends as FAILED. All index steps rerun on restart.
      * 
      * @return Job bean for productEtlJob
      */
     @Bean
     public Job productEtlJob() {
-        return new JobBuilder("productEtlJob", jobRepository)
-                .start(step1LoadCsvToDb())
+        JobBuilder builder = new JobBuilder("productEtlJob", jobRepository);
+        builder.listener(new DetailedJobExecutionListener(textfileEnabled
+                ? new PrometheusTextfileExporter(Paths.get(textfileDirectory), textfileName)
+                : null));
+        if (tuningFeedbackListener != null) {
+            builder.listener(tuningFeedbackListener);
+        }
+
+        List<Step> loadSteps = new ArrayList<>();
+        if (usesStaging()) {
+            loadSteps.add(stagingStep("prepareStaging", StagingTableTasklet.prepare(new JdbcTemplate(dataSource))));
+        }
+        loadSteps.add(step1LoadCsvToDb());
+        if (usesStaging()) {
+            loadSteps.add(stagingStep("publishStaging",
+                    StagingTableTasklet.publish(new JdbcTemplate(dataSource), isH2(dataSource))));
+        }
+
+        if (indexDeferralEnabled) {
+            loadSteps.add(0, indexStep("dropSecondaryIndexes", SecondaryIndexTasklet.drop(
+                    new JdbcTemplate(dataSource), productInputFile, indexDeferralMinRows, indexDeferralRatio)));
+            loadSteps.add(indexStep("rebuildSecondaryIndexes", SecondaryIndexTasklet.rebuild(new JdbcTemplate(dataSource))));
+            Step restore = indexStep("restoreSecondaryIndexes", SecondaryIndexTasklet.rebuild(new JdbcTemplate(dataSource)));
+            FlowBuilder<FlowJobBuilder> flow = builder.flow(loadSteps.get(0));
+            for (int i = 0; i < loadSteps.size() - 1; i++) {
+                flow.from(loadSteps.get(i)).on(ExitStatus.FAILED.getExitCode()).to(restore).on("*").fail()
+                        .from(loadSteps.get(i)).on("*").to(loadSteps.get(i + 1));
+            }
+            return flow
+                    .from(loadSteps.get(loadSteps.size() - 1))
+                    .next(step2GenerateReportFromDb())
+                    .end()
+                    .build();
+        }
+
+        SimpleJobBuilder job = builder.start(loadSteps.get(0));
+        for (Step step : loadSteps.subList(1, loadSteps.size())) {
+            job.next(step);
+        }
+        return job
                 .next(step2GenerateReportFromDb())
-                .listener(new DetailedJobExecutionListener())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Index maintenance steps are idempotent and always rerun on restart, so the
+     * indexes match the state of the load whatever point the previous run reached.
+     */
+    private Step indexStep(String name, SecondaryIndexTasklet tasklet) {
+        return new StepBuilder(name, jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * Staging steps do not rerun once complete: a restarted step1 resumes from its
+     * checkpoint and needs the rows already staged by the failed run.
+     */
+    private Step stagingStep(String name, Tasklet tasklet) {
+        TaskletStepBuilder builder = new StepBuilder(name, jobRepository)
+                .tasklet(tasklet, transactionManager)
+                .listener((StepExecutionListener) new DetailedStepExecutionListener(persistenceMetrics, connectionPoolMetrics));
+        addMonitoringListeners(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.listener.TuningFeedbackListener;
+import com.example.productdataetl.tuning.BatchTuning;
+import com.example.productdataetl.tuning.HillClimbingTuner;
+import com.example.productdataetl.tuning.TuningAdvisor;
+import com.example.productdataetl.tuning.TuningStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Configuration of the chunk size, page size and Step 1 thread count.
+ * By default the values come from {@code batch.chunk.size}, {@code batch.page.size} and
+ * {@code batch.thread.pool.size}. With {@code batch.tuning.auto.enabled=true} they are
+ * derived at launch from the cores, heap, input file size and connection pool size,
+ * and refined between runs by hill climbing over the throughput recorded per feed.
+ */
+@Configuration
+public class BatchTuningConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTuningConfiguration.class);
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Value("${batch.chunk.size:10}")
+    private int chunkSize;
+
+    @Value("${batch.page.size:100}")
+    private int pageSize;
+
+    @Value("${batch.thread.pool.size:1}")
+    private int threads;
+
+    @Value("${batch.datasource.pool.headroom:2}")
+    private int poolHeadroom;
+
+    @Value("${batch.tuning.auto.enabled:false}")
+    private boolean autoTuning;
+
+    @Value("${batch.tuning.store:tuning/batch-tuning.properties}")
+    private String tuningStoreFile;
+
+    @Value("${batch.input.file:classpath:products.csv}")
+    private Resource inputFile;
+
+    /**
+     * Creates the store of measured throughput per feed and settings.
+     *
+     * @return TuningStore backed by {@code batch.tuning.store}
+     */
+    @Bean
+    public TuningStore tuningStore() {
+        return new TuningStore(Paths.get(tuningStoreFile));
+    }
+
+    /**
+     * Resolves the settings for this run.
+     *
+     * @param dataSource the application datasource, whose pool size bounds the thread count
+     * @return BatchTuning used by the step definitions and readers
+     */
+    @Bean
+    public BatchTuning batchTuning(DataSource dataSource) {
+        if (!autoTuning) {
+            return new BatchTuning(chunkSize, pageSize, threads);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        int poolSize = connectionPoolSize(dataSource);
+        long inputBytes = inputFileSize();
+        TuningAdvisor advisor = new TuningAdvisor(runtime.availableProcessors(), runtime.maxMemory(), poolSize,
+                poolHeadroom);
+        BatchTuning baseline = advisor.advise(inputBytes);
+
+        String feed = feedName();
+        Map<BatchTuning, Double> history = tuningStore().history(feed);
+        HillClimbingTuner tuner = new HillClimbingTuner(advisor.maxThreads());
+        BatchTuning tuning = tuner.next(baseline, history);
+
+        logger.info("Auto-tuning feed '{}': {} cores, {} MB heap, {} bytes input, pool size {}",
+                feed, runtime.availableProcessors(), runtime.maxMemory() / 1024 / 1024, inputBytes, poolSize);
+        logger.info("Auto-tuning baseline {}, {} settings measured, best {}, using {}",
+                baseline, history.size(), tuner.best(history), tuning);
+        return tuning;
+    }
+
+    /**
+     * Records the throughput of every completed run for the hill climbing search.
+     *
+     * @param batchTuning the settings used by this run
+     * @return TuningFeedbackListener registered on the job
+     */
+    @Bean
+    @ConditionalOnProperty(name = "batch.tuning.auto.enabled", havingValue = "true")
+    public TuningFeedbackListener tuningFeedbackListener(BatchTuning batchTuning) {
+        return new TuningFeedbackListener(tuningStore(), feedName(), batchTuning);
+    }
+
+    private String feedName() {
+        String name = inputFile.getFilename() != null ? inputFile.getFilename() : "default";
+        int extension = name.lastIndexOf('.');
+        return (extension > 0 ? name.substring(0, extension) : name).replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private long inputFileSize() {
+        try {
+            return inputFile.exists() ? inputFile.contentLength() : 0;
+        } catch (IOException e) {
+            logger.warn("Could not determine size of {}: {}", inputFile, e.getMessage());
+            return 0;
+        }
+    }
+
+    private int connectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not determine connection pool size: {}", e.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.productdataetl.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Job repository used by the steps that writes the running state of a step execution only
+ * at checkpoints: every {@code chunks} chunks or once {@code intervalMillis} have passed,
+ * whichever comes first. A chunk-oriented step otherwise updates its BATCH_STEP_EXECUTION row
+ * and serialized execution context after every chunk, which dominates the runtime of small feeds.
+ * The first update of an execution and every update once it is no longer running are always
+ * written, so the final status, counts and context are exact. A failed step restarts from the
+ * last checkpoint; the chunks after it are processed again, which the upserting writers allow.
+ * A stop request is noticed at the next checkpoint. With both limits at 0 only the start and
+ * the end of each step are written. Job instances and executions are passed through unchanged.
+ * Writers keeping file positions in the context force their files to disk before a commit that
+ * writes it, as told by {@link #isContextWrittenInTransaction()}, so that one force covers all
+ * the chunks between two checkpoints.
+ */
+public class CheckpointingJobRepository implements JobRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointingJobRepository.class);
+    // Bound to the chunk transactions whose execution context is not written
+    private static final Object CONTEXT_SKIPPED = new Object();
+
+    private final JobRepository delegate;
+    private final int chunks;
+    private final long intervalNanos;
+    private final Map<Long, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate       the JDBC job repository
+     * @param chunks         number of chunks between checkpoints, 0 for no chunk limit
+     * @param intervalMillis time between checkpoints, 0 for no time limit
+     */
+    public CheckpointingJobRepository(JobRepository delegate, int chunks, long intervalMillis) {
+        this.delegate = delegate;
+        this.chunks = Math.max(0, chunks);
+        this.intervalNanos = Math.max(0, intervalMillis) * 1_000_000;
+    }
+
+    @Override
+    public void update(StepExecution stepExecution) {
+        if (stepExecution.getId() == null) {
+            delegate.update(stepExecution);
+            return;
+        }
+        if (stepExecution.getStatus() != BatchStatus.STARTED) {
+            // The step has already written its final execution context, as the status was set before
+            Checkpoint checkpoint = checkpoints.remove(stepExecution.getId());
+            delegate.update(stepExecution);
+            if (checkpoint != null) {
+                logger.info("Step {}: {} of {} chunk checkpoints written to the job repository",
+                        stepExecution.getStepName(), checkpoint.written, checkpoint.total);
+            }
+            return;
+        }
+        Checkpoint checkpoint = checkpoints.get(stepExecution.getId());
+        if (checkpoint == null) {
+            checkpoints.put(stepExecution.getId(), new Checkpoint(System.nanoTime()));
+            delegate.update(stepExecution);
+        } else if (checkpoint.pending) {
+            checkpoint.pending = false;
+            delegate.update(stepExecution);
+        }
+    }
+
+    @Override
+    public void updateExecutionContext(StepExecution stepExecution) {
+        Checkpoint checkpoint = stepExecution.getId() != null ? checkpoints.get(stepExecution.getId()) : null;
+        if (checkpoint == null || stepExecution.getStatus() != BatchStatus.STARTED) {
+            delegate.updateExecutionContext(stepExecution);
+            return;
+        }
+        // The step writes the context once when it opens its streams and then after every chunk
+        if (!checkpoint.opened) {
+            checkpoint.opened = true;
+            delegate.updateExecutionContext(stepExecution);
+            return;
+        }
+        synchronized (checkpoint) {
+            checkpoint.total++;
+            checkpoint.sinceLast++;
+            long now = System.nanoTime();
+            boolean due = (chunks > 0 && checkpoint.sinceLast >= chunks)
+                    || (intervalNanos > 0 && now - checkpoint.lastNanos >= intervalNanos);
+            if (!due) {
+                markContextSkipped();
+                return;
+            }
+            checkpoint.sinceLast = 0;
+            checkpoint.lastNanos = now;
+            checkpoint.written++;
+            checkpoint.pending = true;
+        }
+        delegate.updateExecutionContext(stepExecution);
+    }
+
+    /**
+     * Tells whether the transaction of the current thread writes the step execution context it
+     * saves, which is the case unless a checkpointing repository skipped it, and always the case
+     * with other repositories.
+     *
+     * @return false only within a chunk transaction whose context was not written
+     */
+    public static boolean isContextWrittenInTransaction() {
+        return !TransactionSynchronizationManager.hasResource(CONTEXT_SKIPPED);
+    }
+
+    private static void markContextSkipped() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(CONTEXT_SKIPPED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(CONTEXT_SKIPPED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CONTEXT_SKIPPED);
+            }
+        });
+    }
+
+    @Override
+    public boolean isJobInstanceExists(String jobName, JobParameters jobParameters) {
+        return delegate.isJobInstanceExists(jobName, jobParameters);
+    }
+
+    @Override
+    public JobInstance createJobInstance(String jobName, JobParameters jobParameters) {
+        return delegate.createJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public JobExecution createJobExecution(String jobName, JobParameters jobParameters)
+            throws JobExecutionAlreadyRunningException, JobRestartException, JobInstanceAlreadyCompleteException {
+        return delegate.createJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void update(JobExecution jobExecution) {
+        delegate.update(jobExecution);
+    }
+
+    @Override
+    public void add(StepExecution stepExecution) {
+        delegate.add(stepExecution);
+    }
+
+    @Override
+    public void addAll(Collection<StepExecution> stepExecutions) {
+        delegate.addAll(stepExecutions);
+    }
+
+    @Override
+    public void updateExecutionContext(JobExecution jobExecution) {
+        delegate.updateExecutionContext(jobExecution);
+    }
+
+    @Override
+    public List<String> getJobNames() {
+        return delegate.getJobNames();
+    }
+
+    @Override
+    public List<JobInstance> findJobInstancesByName(String jobName, int start, int count) {
+        return delegate.findJobInstancesByName(jobName, start, count);
+    }
+
+    @Override
+    public List<JobExecution> findJobExecutions(JobInstance jobInstance) {
+        return delegate.findJobExecutions(jobInstance);
+    }
+
+    @Override
+    public JobInstance getJobInstance(String jobName, JobParameters jobParameters) {
+        return delegate.getJobInstance(jobName, jobParameters);
+    }
+
+    @Override
+    public StepExecution getLastStepExecution(JobInstance jobInstance, String stepName) {
+        return delegate.getLastStepExecution(jobInstance, stepName);
+    }
+
+    @Override
+    public long getStepExecutionCount(JobInstance jobInstance, String stepName) {
+        return delegate.getStepExecutionCount(jobInstance, stepName);
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(String jobName, JobParameters jobParameters) {
+        return delegate.getLastJobExecution(jobName, jobParameters);
+    }
+
+    @Override
+    public void deleteStepExecution(StepExecution stepExecution) {
+        delegate.deleteStepExecution(stepExecution);
+    }
+
+    @Override
+    public void deleteJobExecution(JobExecution jobExecution) {
+        delegate.deleteJobExecution(jobExecution);
+    }
+
+    @Override
+    public void deleteJobInstance(JobInstance jobInstance) {
+        delegate.deleteJobInstance(jobInstance);
+    }
+
+    private static final class Checkpoint {
+
+        private volatile boolean opened;
+        private volatile boolean pending;
+        private long lastNanos;
+        private int sinceLast;
+        private int total;
+        private int written;
+
+        private Checkpoint(long lastNanos) {
+            this.lastNanos = lastNanos;
+        }
+    }
+}
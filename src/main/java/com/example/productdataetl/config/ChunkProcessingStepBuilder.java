@@ -0,0 +1,46 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.processor.ChunkItemProcessor;
+import com.example.productdataetl.processor.ChunkItemProcessorAdapter;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.item.ChunkProcessor;
+
+/**
+ * Fault-tolerant step builder handing each chunk to a {@link ChunkItemProcessor} before the
+ * usual item-by-item processing and writing. The chunk's results are handed out through a
+ * {@link ChunkItemProcessorAdapter} set as the step's processor, so skip and retry policies,
+ * filter counts and listeners apply per item as with any other processor. Use it in place of
+ * {@code faultTolerant()}.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+public class ChunkProcessingStepBuilder<I, O> extends FaultTolerantStepBuilder<I, O> {
+
+    private final ChunkItemProcessorAdapter<I, O> adapter;
+
+    /**
+     * @param parent         builder with the reader, writer and chunk size of the step
+     * @param chunkProcessor processor of whole chunks, replacing the parent's processor
+     */
+    public ChunkProcessingStepBuilder(SimpleStepBuilder<I, O> parent, ChunkItemProcessor<I, O> chunkProcessor) {
+        super(parent);
+        this.adapter = new ChunkItemProcessorAdapter<>(chunkProcessor);
+        processor(adapter);
+    }
+
+    @Override
+    protected ChunkProcessor<I> createChunkProcessor() {
+        ChunkProcessor<I> delegate = super.createChunkProcessor();
+        return (contribution, chunk) -> {
+            // Items skipped or filtered by an earlier attempt are no longer in the chunk
+            adapter.prepare(chunk.getItems());
+            try {
+                delegate.process(contribution, chunk);
+            } finally {
+                adapter.clear();
+            }
+        };
+    }
+}
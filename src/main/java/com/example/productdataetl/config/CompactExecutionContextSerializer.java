@@ -0,0 +1,238 @@
+package com.example.productdataetl.config;
+
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.dao.DefaultExecutionContextSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Execution context serializer writing a versioned binary format instead of a serialized
+ * {@code HashMap}: a header byte, the format version and a flags byte, then the entry count
+ * and for every entry the key, a type tag and the value. Integers and longs are zigzag varints,
+ * strings are length-prefixed UTF-8, so a reader position takes a few bytes and carries no class
+ * names. Values of other types fall back to Java serialization. Payloads larger than
+ * {@code compressionThreshold} bytes are deflated when that makes them smaller.
+ * The job repository stores contexts as text, so the bytes are Base64 encoded like the default
+ * serializer does. Contexts written by the default serializer are still read.
+ */
+public class CompactExecutionContextSerializer implements ExecutionContextSerializer {
+
+    static final int HEADER = 0xEC;
+    static final int VERSION = 1;
+    static final int FLAG_DEFLATED = 1;
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int INTEGER = 2;
+    private static final int LONG = 3;
+    private static final int DOUBLE = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int BIG_DECIMAL = 7;
+    private static final int SERIALIZED = 8;
+
+    private final DefaultExecutionContextSerializer legacy = new DefaultExecutionContextSerializer();
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold payload size in bytes above which compression is attempted, 0 to disable
+     */
+    public CompactExecutionContextSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void serialize(Map<String, Object> context, OutputStream outputStream) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(payload);
+        writeVarint(out, context.size());
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            writeString(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+        out.flush();
+
+        byte[] bytes = payload.toByteArray();
+        int flags = 0;
+        if (compressionThreshold > 0 && bytes.length > compressionThreshold) {
+            byte[] deflated = deflate(bytes);
+            if (deflated.length < bytes.length) {
+                bytes = deflated;
+                flags |= FLAG_DEFLATED;
+            }
+        }
+
+        byte[] encoded = new byte[bytes.length + 3];
+        encoded[0] = (byte) HEADER;
+        encoded[1] = (byte) VERSION;
+        encoded[2] = (byte) flags;
+        System.arraycopy(bytes, 0, encoded, 3, bytes.length);
+        outputStream.write(Base64.getEncoder().encode(encoded));
+    }
+
+    @Override
+    public Map<String, Object> deserialize(InputStream inputStream) throws IOException {
+        byte[] text = inputStream.readAllBytes();
+        byte[] bytes = Base64.getDecoder().decode(text);
+        if (bytes.length < 3 || (bytes[0] & 0xFF) != HEADER) {
+            // Written by the default serializer, e.g. by a run before this serializer was enabled
+            return legacy.deserialize(new ByteArrayInputStream(text));
+        }
+        int version = bytes[1] & 0xFF;
+        if (version > VERSION) {
+            throw new IOException("Unsupported execution context format version " + version
+                    + ", this application reads up to version " + VERSION);
+        }
+        InputStream payload = new ByteArrayInputStream(bytes, 3, bytes.length - 3);
+        if ((bytes[2] & FLAG_DEFLATED) != 0) {
+            payload = new InflaterInputStream(payload);
+        }
+
+        DataInputStream in = new DataInputStream(payload);
+        int size = readVarint(in);
+        Map<String, Object> context = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            context.put(key, readValue(in));
+        }
+        return context;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER);
+            writeVarlong(out, zigzag(integer));
+        } else if (value instanceof Long longValue) {
+            out.writeByte(LONG);
+            writeVarlong(out, zigzag(longValue));
+        } else if (value instanceof Double doubleValue) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(doubleValue);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(bool ? TRUE : FALSE);
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(out, decimal.toString());
+        } else if (value instanceof Serializable) {
+            out.writeByte(SERIALIZED);
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+                objects.writeObject(value);
+            }
+            writeVarint(out, serialized.size());
+            serialized.writeTo(out);
+        } else {
+            throw new IllegalArgumentException("Execution context value of type " + value.getClass().getName()
+                    + " is not serializable");
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        int type = in.readUnsignedByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return (int) unzigzag(readVarlong(in));
+            case LONG:
+                return unzigzag(readVarlong(in));
+            case DOUBLE:
+                return in.readDouble();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BIG_DECIMAL:
+                return new BigDecimal(readString(in));
+            case SERIALIZED:
+                byte[] serialized = new byte[readVarint(in)];
+                in.readFully(serialized);
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                    return objects.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot read execution context value: " + e.getMessage(), e);
+                }
+            default:
+                throw new IOException("Unknown execution context value type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarint(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarint(DataOutputStream out, int value) throws IOException {
+        writeVarlong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarint(DataInputStream in) throws IOException {
+        return (int) readVarlong(in);
+    }
+
+    static void writeVarlong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarlong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in execution context");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] deflate(byte[] bytes) throws IOException {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(bytes.length / 2);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(deflated)) {
+            out.write(bytes);
+        }
+        return deflated.toByteArray();
+    }
+}
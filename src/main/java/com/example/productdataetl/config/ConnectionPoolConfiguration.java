@@ -0,0 +1,97 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.metrics.ConnectionPoolMetrics;
+import com.example.productdataetl.tuning.ConnectionPoolSizing;
+import com.example.productdataetl.tuning.TuningAdvisor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Configuration of the connection pool. Unless {@code spring.datasource.hikari.maximum-pool-size}
+ * is set, the pool is sized from the Step 1 concurrency plus {@code batch.datasource.pool.headroom}
+ * connections for the job repository and readers. With auto-tuning the concurrency is bounded by
+ * the number of cores, and it never exceeds {@link TuningAdvisor#MAX_CONCURRENT_CHUNKS}, the
+ * chunks Step 1 runs at once. With {@code batch.metrics.persistence.enabled} connection
+ * acquisitions are tracked so each step can report its wait time.
+ */
+@Configuration
+public class ConnectionPoolConfiguration {
+
+    static final String MAXIMUM_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolConfiguration.class);
+
+    /**
+     * Sizes the pool by adding {@code spring.datasource.hikari.maximum-pool-size} as a fallback
+     * property before any bean is created. The datasource is created early, while the job registry
+     * post processor is registered, so a bean post processor would not see it.
+     * Static, so that registering it does not initialize this configuration class early.
+     *
+     * @param environment the application environment
+     * @return post processor setting the maximum pool size
+     */
+    @Bean
+    public static BeanFactoryPostProcessor connectionPoolSizer(ConfigurableEnvironment environment) {
+        return beanFactory -> {
+            if (environment.containsProperty(MAXIMUM_POOL_SIZE_PROPERTY)) {
+                return;
+            }
+            int workerThreads = workerThreads(environment);
+            int headroom = headroom(environment);
+            int poolSize = ConnectionPoolSizing.requiredPoolSize(workerThreads, headroom);
+            environment.getPropertySources().addLast(
+                    new MapPropertySource("connectionPoolSizing", Map.of(MAXIMUM_POOL_SIZE_PROPERTY, poolSize)));
+            logger.info("Connection pool sized to {} connections ({} Step 1 workers + {} headroom)",
+                    poolSize, workerThreads, headroom);
+        };
+    }
+
+    /**
+     * Creates the connection pool metrics tracker and installs it on the Hikari pool, only with
+     * the persistence metrics, so that Hikari keeps its no-op tracker when they are off.
+     * Hikari accepts a tracker factory once, also on a pool that has already started.
+     *
+     * @param dataSource the application datasource
+     * @return ConnectionPoolMetrics publishing to the global meter registry
+     * @throws SQLException if the datasource cannot be unwrapped
+     */
+    @Bean
+    @ConditionalOnProperty(name = "batch.metrics.persistence.enabled", havingValue = "true")
+    public ConnectionPoolMetrics connectionPoolMetrics(DataSource dataSource) throws SQLException {
+        ConnectionPoolMetrics connectionPoolMetrics = new ConnectionPoolMetrics(Metrics.globalRegistry);
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            if (hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+                hikari.setMetricsTrackerFactory(connectionPoolMetrics);
+            } else {
+                logger.warn("Hikari pool '{}' already has a metrics tracker; connection wait statistics are unavailable",
+                        hikari.getPoolName());
+            }
+        }
+        return connectionPoolMetrics;
+    }
+
+    static int workerThreads(Environment environment) {
+        int threads = environment.getProperty("batch.tuning.auto.enabled", Boolean.class, false)
+                ? Runtime.getRuntime().availableProcessors()
+                : environment.getProperty("batch.thread.pool.size", Integer.class, 1);
+        return Math.min(threads, TuningAdvisor.MAX_CONCURRENT_CHUNKS);
+    }
+
+    static int headroom(Environment environment) {
+        return environment.getProperty("batch.datasource.pool.headroom", Integer.class, 2);
+    }
+}
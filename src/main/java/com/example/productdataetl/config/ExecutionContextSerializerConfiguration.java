@@ -0,0 +1,71 @@
+package com.example.productdataetl.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.dao.JdbcExecutionContextDao;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration installing the {@link CompactExecutionContextSerializer} with
+ * {@code batch.repository.context.serializer=compact}. Spring Boot builds the job repository
+ * and explorer with the default serializer and offers no property or bean to replace it, so the
+ * serializer is set on their execution context DAO once they are created. The DAO is held in a
+ * private field of Spring Batch's repository and explorer and is read by reflection, so an
+ * upgrade renaming it fails at startup rather than silently keeping the default serializer.
+ */
+@Configuration
+@ConditionalOnProperty(name = "batch.repository.context.serializer", havingValue = "compact")
+public class ExecutionContextSerializerConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionContextSerializerConfiguration.class);
+
+    /**
+     * Static, so that registering it does not initialize this configuration class early.
+     *
+     * @param environment the application environment
+     * @return post processor setting the serializer on the job repository and explorer
+     */
+    @Bean
+    public static BeanPostProcessor executionContextSerializerInstaller(Environment environment) {
+        ExecutionContextSerializer serializer = new CompactExecutionContextSerializer(
+                environment.getProperty("batch.repository.context.compression.threshold", Integer.class, 2048));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof JobRepository || bean instanceof JobExplorer) {
+                    install(bean, beanName, serializer);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static void install(Object bean, String beanName, ExecutionContextSerializer serializer) {
+        Object target = bean;
+        try {
+            if (bean instanceof Advised advised) {
+                target = advised.getTargetSource().getTarget();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot unwrap " + beanName, e);
+        }
+        Object dao = new DirectFieldAccessor(target).getPropertyValue("ecDao");
+        if (dao instanceof JdbcExecutionContextDao jdbcDao) {
+            jdbcDao.setSerializer(serializer);
+            logger.info("Compact execution context serializer installed on {}", beanName);
+        } else {
+            logger.warn("Execution context DAO of {} is {}, keeping its serializer", beanName,
+                    dao != null ? dao.getClass().getName() : null);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.productdataetl.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for the persistent, file-based H2 database of the {@code persistent} profile.
+ * The MVStore settings are part of the datasource URL built in application-persistent.properties;
+ * this class only registers the compaction that runs when the application closes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "batch.h2.compact.on.shutdown", havingValue = "true")
+public class H2PersistenceConfiguration {
+
+    /**
+     * Creates the compactor. It depends on the datasource, so it is destroyed before the pool closes.
+     *
+     * @param dataSource the application datasource
+     * @return H2ShutdownCompactor running SHUTDOWN COMPACT on context close
+     */
+    @Bean
+    public H2ShutdownCompactor h2ShutdownCompactor(DataSource dataSource) {
+        return new H2ShutdownCompactor(new JdbcTemplate(dataSource));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.productdataetl.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Compacts a file-based H2 database when the application context closes, which in this
+ * command line application happens right after the job. {@code SHUTDOWN COMPACT} rewrites
+ * the MVStore file without the free space left by updates and deletes, so the next start
+ * opens and caches a smaller file. It cannot run from a job listener: it closes the
+ * database, and the job repository still records the final job status after the listeners.
+ */
+public class H2ShutdownCompactor implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2ShutdownCompactor.class);
+    private static final String MV_STORE_SUFFIX = ".mv.db";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2ShutdownCompactor(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            String databasePath = jdbcTemplate.queryForObject("CALL DATABASE_PATH()", String.class);
+            if (databasePath == null) {
+                logger.debug("In-memory H2 database, nothing to compact");
+                return;
+            }
+            Path file = Paths.get(databasePath + MV_STORE_SUFFIX);
+            long before = size(file);
+            long start = System.nanoTime();
+            jdbcTemplate.execute("SHUTDOWN COMPACT");
+            logger.info("Compacted H2 database {} from {} KB to {} KB in {} ms", file, before / 1024,
+                    size(file) / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            logger.warn("Could not compact the H2 database: {}", e.getMessage());
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
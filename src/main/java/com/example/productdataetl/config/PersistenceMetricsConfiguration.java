@@ -0,0 +1,53 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.metrics.ConnectionPoolMetrics;
+import com.example.productdataetl.metrics.JdbcBatchCounter;
+import com.example.productdataetl.metrics.PersistenceMetrics;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for per-step persistence statistics.
+ * Everything here is only registered when {@code batch.metrics.persistence.enabled=true},
+ * so Hibernate statistics and the session event listener add no overhead when the feature
+ * is off. The connection pool tracker is always installed by ConnectionPoolConfiguration.
+ * Meters are published to the Micrometer global registry, which is also where Spring Batch
+ * publishes its own metrics.
+ */
+@Configuration
+@ConditionalOnProperty(name = "batch.metrics.persistence.enabled", havingValue = "true")
+public class PersistenceMetricsConfiguration {
+
+    /**
+     * Enables Hibernate statistics and registers the JDBC batch counter on every session.
+     *
+     * @return customizer applied to the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer persistenceStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+            // Per-session statistics logging would print a block for every chunk transaction
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcBatchCounter.class.getName());
+        };
+    }
+
+    /**
+     * Creates the collector used by the step listeners to report per-step statistics.
+     *
+     * @param entityManagerFactory the EntityManagerFactory whose statistics are read
+     * @param connectionPoolMetrics the connection pool metrics tracker from ConnectionPoolConfiguration
+     * @return PersistenceMetrics collector
+     */
+    @Bean
+    public PersistenceMetrics persistenceMetrics(EntityManagerFactory entityManagerFactory,
+                                                 ConnectionPoolMetrics connectionPoolMetrics) {
+        return new PersistenceMetrics(entityManagerFactory, connectionPoolMetrics, Metrics.globalRegistry);
+    }
+}
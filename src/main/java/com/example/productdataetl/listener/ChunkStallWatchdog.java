@@ -0,0 +1,275 @@
+package com.example.productdataetl.listener;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk listener that watches for chunks which take far longer than usual.
+ * The start time of every in-flight chunk is tracked per worker thread and a background
+ * thread compares its age with a multiple of the rolling median chunk duration. When a
+ * chunk is considered stalled, a thread dump and the current connection pool statistics
+ * are written to a file and, if configured, the step is marked to stop gracefully.
+ */
+public class ChunkStallWatchdog implements StepExecutionListener, ChunkListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkStallWatchdog.class);
+    private static final int WINDOW_SIZE = 64;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final DataSource dataSource;
+    private final Path dumpDirectory;
+    private final double stallMultiplier;
+    private final long minStallNanos;
+    private final long checkIntervalMillis;
+    private final boolean stopOnStall;
+
+    private final Map<Thread, InFlightChunk> inFlightChunks = new ConcurrentHashMap<>();
+    private final long[] recentDurations = new long[WINDOW_SIZE];
+    private int recordedDurations;
+
+    private volatile StepExecution stepExecution;
+    private ScheduledExecutorService scheduler;
+
+    public ChunkStallWatchdog(DataSource dataSource, Path dumpDirectory, double stallMultiplier,
+                              long minStallMillis, long checkIntervalMillis, boolean stopOnStall) {
+        this.dataSource = dataSource;
+        this.dumpDirectory = dumpDirectory;
+        this.stallMultiplier = stallMultiplier;
+        this.minStallNanos = TimeUnit.MILLISECONDS.toNanos(minStallMillis);
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.stopOnStall = stopOnStall;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+        inFlightChunks.clear();
+        synchronized (recentDurations) {
+            recordedDurations = 0;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunk-stall-watchdog-" + stepExecution.getStepName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkSafely, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        inFlightChunks.clear();
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        inFlightChunks.put(Thread.currentThread(), new InFlightChunk(System.nanoTime()));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        InFlightChunk chunk = inFlightChunks.remove(Thread.currentThread());
+        if (chunk != null) {
+            recordDuration(System.nanoTime() - chunk.startNanos);
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        // Failed chunks are not representative of normal duration
+        inFlightChunks.remove(Thread.currentThread());
+    }
+
+    /**
+     * Compares every in-flight chunk against the stall threshold and reports each
+     * stalled chunk once.
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return number of chunks reported as stalled by this check
+     */
+    int checkForStalls(long nowNanos) {
+        long thresholdNanos = Math.max(minStallNanos, (long) (medianDurationNanos() * stallMultiplier));
+        int reported = 0;
+        for (Map.Entry<Thread, InFlightChunk> entry : inFlightChunks.entrySet()) {
+            InFlightChunk chunk = entry.getValue();
+            long elapsedNanos = nowNanos - chunk.startNanos;
+            if (chunk.reported || elapsedNanos <= thresholdNanos) {
+                continue;
+            }
+            chunk.reported = true;
+            reported++;
+            reportStall(entry.getKey(), elapsedNanos, thresholdNanos);
+        }
+        return reported;
+    }
+
+    /**
+     * @return median of the most recent chunk durations, or 0 if none completed yet
+     */
+    long medianDurationNanos() {
+        long[] samples;
+        synchronized (recentDurations) {
+            int count = Math.min(recordedDurations, WINDOW_SIZE);
+            samples = Arrays.copyOf(recentDurations, count);
+        }
+        if (samples.length == 0) {
+            return 0;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    void recordDuration(long durationNanos) {
+        synchronized (recentDurations) {
+            recentDurations[recordedDurations % WINDOW_SIZE] = durationNanos;
+            recordedDurations++;
+        }
+    }
+
+    private void checkSafely() {
+        try {
+            checkForStalls(System.nanoTime());
+        } catch (RuntimeException e) {
+            logger.error("Chunk stall check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void reportStall(Thread worker, long elapsedNanos, long thresholdNanos) {
+        StepExecution execution = this.stepExecution;
+        String stepName = execution != null ? execution.getStepName() : "unknown";
+        logger.warn("Chunk in step '{}' on thread '{}' has been running for {} ms (threshold {} ms, median {} ms)",
+                stepName, worker.getName(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                TimeUnit.NANOSECONDS.toMillis(medianDurationNanos()));
+
+        try {
+            Path dumpFile = writeDump(stepName, worker, elapsedNanos);
+            logger.warn("Thread dump and connection pool statistics written to {}", dumpFile.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Failed to write stall dump for step '{}': {}", stepName, e.getMessage(), e);
+        }
+
+        if (stopOnStall && execution != null) {
+            logger.warn("Marking step '{}' to stop after the current chunk", stepName);
+            execution.setTerminateOnly();
+        }
+    }
+
+    private Path writeDump(String stepName, Thread worker, long elapsedNanos) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        // Workers stalling in the same millisecond get files of their own, and no dump is overwritten
+        Path dumpFile = dumpDirectory.resolve("stall-" + stepName + "-" + LocalDateTime.now().format(FILE_TIMESTAMP)
+                + "-" + worker.getId() + ".txt");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(dumpFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            out.printf("Stalled chunk in step '%s'%n", stepName);
+            out.printf("Worker thread: %s (id %d)%n", worker.getName(), worker.getId());
+            out.printf("Chunk running for: %d ms%n", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            out.printf("Median chunk duration: %d ms%n", TimeUnit.NANOSECONDS.toMillis(medianDurationNanos()));
+            out.println();
+            writePoolStatistics(out);
+            out.println();
+            writeThreadDump(out);
+        }
+        return dumpFile;
+    }
+
+    private void writePoolStatistics(PrintWriter out) {
+        out.println("--- Connection Pool ---");
+        if (dataSource == null) {
+            out.println("No datasource configured");
+            return;
+        }
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                out.println("Datasource is not a Hikari pool: " + dataSource.getClass().getName());
+                return;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            out.printf("Pool name: %s%n", hikari.getPoolName());
+            out.printf("Maximum pool size: %d%n", hikari.getMaximumPoolSize());
+            out.printf("Connection timeout: %d ms%n", hikari.getConnectionTimeout());
+            if (pool == null) {
+                out.println("Pool not started");
+                return;
+            }
+            out.printf("Active connections: %d%n", pool.getActiveConnections());
+            out.printf("Idle connections: %d%n", pool.getIdleConnections());
+            out.printf("Total connections: %d%n", pool.getTotalConnections());
+            out.printf("Threads awaiting connection: %d%n", pool.getThreadsAwaitingConnection());
+        } catch (SQLException e) {
+            out.println("Unable to read pool statistics: " + e.getMessage());
+        }
+    }
+
+    private static void writeThreadDump(PrintWriter out) {
+        out.println("--- Thread Dump ---");
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            out.printf("\"%s\" id=%d %s", info.getThreadName(), info.getThreadId(), info.getThreadState());
+            if (info.getLockName() != null) {
+                out.printf(" on %s", info.getLockName());
+            }
+            if (info.getLockOwnerName() != null) {
+                out.printf(" owned by \"%s\" id=%d", info.getLockOwnerName(), info.getLockOwnerId());
+            }
+            out.println();
+            StackTraceElement[] stackTrace = info.getStackTrace();
+            MonitorInfo[] monitors = info.getLockedMonitors();
+            for (int depth = 0; depth < stackTrace.length; depth++) {
+                out.println("\tat " + stackTrace[depth]);
+                for (MonitorInfo monitor : monitors) {
+                    if (monitor.getLockedStackDepth() == depth) {
+                        out.println("\t- locked " + monitor);
+                    }
+                }
+            }
+            for (LockInfo synchronizer : info.getLockedSynchronizers()) {
+                out.println("\t- locked ownable synchronizer " + synchronizer);
+            }
+            out.println();
+        }
+    }
+
+    private static final class InFlightChunk {
+        private final long startNanos;
+        private volatile boolean reported;
+
+        private InFlightChunk(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.productdataetl.listener;
 
+import com.example.productdataetl.metrics.PrometheusTextfileExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.StepExecution;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -15,15 +22,30 @@ import java.util.Collection;
  * Enhanced job execution listener that provides comprehensive logging
  * and monitoring of overall job execution, including aggregated statistics
  * from all steps and detailed error reporting.
+ * When an exporter is configured, the run's metrics are also written as a
+ * Prometheus textfile after the job completes.
  */
 public class DetailedJobExecutionListener implements JobExecutionListener {
     
     private static final Logger logger = LoggerFactory.getLogger(DetailedJobExecutionListener.class);
+    private final PrometheusTextfileExporter textfileExporter;
     private LocalDateTime jobStartTime;
     
+    public DetailedJobExecutionListener() {
+        this(null);
+    }
+    
+    /**
+     * @param textfileExporter exporter for the run's metrics, or null when the export is disabled
+     */
+    public DetailedJobExecutionListener(PrometheusTextfileExporter textfileExporter) {
+        this.textfileExporter = textfileExporter;
+    }
+    
     @Override
     public void beforeJob(JobExecution jobExecution) {
         jobStartTime = LocalDateTime.now();
+        resetHeapPeak();
         logger.info("========================================");
         logger.info("=== Starting Job: {} ===", jobExecution.getJobInstance().getJobName());
         logger.info("========================================");
@@ -67,9 +89,52 @@ public class DetailedJobExecutionListener implements JobExecutionListener {
         // Log final status and recommendations
         logFinalStatusAndRecommendations(jobExecution, totalDuration);
         
+        long heapPeakBytes = heapPeakBytes();
+        if (heapPeakBytes >= 0) {
+            logger.info("Heap high-water mark: {} MB", heapPeakBytes / 1024 / 1024);
+        }
+        if (textfileExporter != null) {
+            exportMetrics(jobExecution, heapPeakBytes);
+        }
+        
         logger.info("========================================");
     }
     
+    private void exportMetrics(JobExecution jobExecution, long heapPeakBytes) {
+        try {
+            Path file = textfileExporter.export(jobExecution, heapPeakBytes);
+            logger.info("Metrics written to {}", file);
+        } catch (IOException | RuntimeException e) {
+            // A monitoring failure must not change the outcome of the job
+            logger.warn("Could not write metrics textfile: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void resetHeapPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+    
+    /**
+     * Sums the peak usage of the heap pools since {@link #resetHeapPeak()}. The pools peak
+     * at different times, so this is an upper bound of the heap actually in use at once.
+     */
+    private long heapPeakBytes() {
+        long peak = 0;
+        boolean found = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP && pool.isValid() ? pool.getPeakUsage() : null;
+            if (usage != null) {
+                peak += usage.getUsed();
+                found = true;
+            }
+        }
+        return found ? peak : -1;
+    }
+    
     private void logSystemInformation() {
         Runtime runtime = Runtime.getRuntime();
         logger.info("--- System Information ---");
@@ -1,27 +1,88 @@
 package com.example.productdataetl.listener;
 
+import com.example.productdataetl.metrics.ConnectionPoolMetrics;
+import com.example.productdataetl.metrics.PersistenceMetrics;
+import com.example.productdataetl.metrics.ResourceUsage;
+import com.example.productdataetl.metrics.ThreadResourceTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Enhanced step execution listener that provides detailed logging
  * and monitoring of step progress, performance, and error statistics.
+ * Also registered as a chunk listener so it can account the CPU time and
+ * heap allocation of every thread that executes a chunk of the step, and as a
+ * retry listener so it can count the retry attempts of the fault-tolerant step.
  */
-public class DetailedStepExecutionListener implements StepExecutionListener {
+public class DetailedStepExecutionListener implements StepExecutionListener, ChunkListener, RetryListener {
+    
+    /** Execution context keys under which the step's resource usage is recorded. */
+    public static final String CPU_NANOS_KEY = "metrics.cpuNanos";
+    public static final String ALLOCATED_BYTES_KEY = "metrics.allocatedBytes";
+    public static final String GC_COUNT_KEY = "metrics.gcCount";
+    public static final String GC_TIME_MILLIS_KEY = "metrics.gcTimeMillis";
+    public static final String WORKER_THREADS_KEY = "metrics.workerThreads";
+    public static final String SQL_STATEMENTS_KEY = "metrics.sqlStatements";
+    public static final String JDBC_BATCHES_KEY = "metrics.jdbcBatches";
+    public static final String CONNECTION_WAIT_NANOS_KEY = "metrics.connectionWaitNanos";
+    public static final String RETRY_COUNT_KEY = "metrics.retryCount";
     
     private static final Logger logger = LoggerFactory.getLogger(DetailedStepExecutionListener.class);
+    private final ThreadResourceTracker resourceTracker = new ThreadResourceTracker();
+    private final PersistenceMetrics persistenceMetrics;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final AtomicLong retryCount = new AtomicLong();
+    private PersistenceMetrics.Snapshot persistenceBaseline;
+    private ConnectionPoolMetrics.Snapshot connectionPoolBaseline;
     private LocalDateTime stepStartTime;
     
+    public DetailedStepExecutionListener() {
+        this(null);
+    }
+    
+    /**
+     * @param persistenceMetrics collector for Hibernate and connection pool statistics,
+     *                           or null when persistence statistics are disabled
+     */
+    public DetailedStepExecutionListener(PersistenceMetrics persistenceMetrics) {
+        this(persistenceMetrics, null);
+    }
+    
+    /**
+     * @param persistenceMetrics    collector for Hibernate statistics, or null when disabled
+     * @param connectionPoolMetrics connection acquisition tracker, or null when the pool is not tracked
+     */
+    public DetailedStepExecutionListener(PersistenceMetrics persistenceMetrics,
+                                         ConnectionPoolMetrics connectionPoolMetrics) {
+        this.persistenceMetrics = persistenceMetrics;
+        this.connectionPoolMetrics = connectionPoolMetrics;
+    }
+    
     @Override
     public void beforeStep(StepExecution stepExecution) {
         stepStartTime = LocalDateTime.now();
+        resourceTracker.start();
+        retryCount.set(0);
+        if (persistenceMetrics != null) {
+            persistenceBaseline = persistenceMetrics.capture();
+        }
+        if (connectionPoolMetrics != null) {
+            connectionPoolBaseline = connectionPoolMetrics.snapshot();
+        }
         logger.info("=== Starting Step: {} ===", stepExecution.getStepName());
         logger.info("Step parameters: {}", stepExecution.getJobParameters());
         logger.info("Step start time: {}", stepStartTime);
@@ -52,9 +113,44 @@ public class DetailedStepExecutionListener implements StepExecutionListener {
         // Calculate and log performance metrics
         logPerformanceMetrics(stepExecution, duration);
         
+        if (connectionPoolMetrics != null) {
+            logConnectionPoolStatistics(stepExecution);
+        }
+        if (persistenceMetrics != null) {
+            logPersistenceStatistics(stepExecution);
+        }
+        
         return stepExecution.getExitStatus();
     }
     
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        resourceTracker.beginChunk();
+    }
+    
+    @Override
+    public void afterChunk(ChunkContext context) {
+        resourceTracker.endChunk();
+    }
+    
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        resourceTracker.endChunk();
+    }
+    
+    /**
+     * The fault-tolerant step retries statefully: a failed item or chunk is rolled back
+     * and the retry re-opens the cached retry context, so every open of a context that
+     * has already failed is one retry attempt.
+     */
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        if (context.getRetryCount() > 0) {
+            retryCount.incrementAndGet();
+        }
+        return true;
+    }
+    
     private void logStepStatistics(StepExecution stepExecution) {
         logger.info("--- Step Statistics ---");
         logger.info("Items read: {}", stepExecution.getReadCount());
@@ -66,6 +162,8 @@ public class DetailedStepExecutionListener implements StepExecutionListener {
         logger.info("Process skips: {}", stepExecution.getProcessSkipCount());
         logger.info("Rollback count: {}", stepExecution.getRollbackCount());
         logger.info("Commit count: {}", stepExecution.getCommitCount());
+        logger.info("Retry count: {}", retryCount.get());
+        stepExecution.getExecutionContext().putLong(RETRY_COUNT_KEY, retryCount.get());
         
         // Log skip details if any
         if (stepExecution.getSkipCount() > 0) {
@@ -101,7 +199,75 @@ public class DetailedStepExecutionListener implements StepExecutionListener {
             logger.info("Success rate: {:.2f}%", successRate);
         }
         
-        logger.info("Memory usage: {} MB", 
-                (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024);
+        logResourceUsage(stepExecution);
+    }
+    
+    private void logResourceUsage(StepExecution stepExecution) {
+        ResourceUsage usage = resourceTracker.finish();
+        long items = stepExecution.getReadCount();
+        
+        logger.info("Worker threads: {}", usage.getWorkerThreads());
+        if (usage.getCpuNanos() >= 0) {
+            logger.info("CPU time: {} ms", usage.getCpuNanos() / 1_000_000);
+        }
+        if (usage.getAllocatedBytes() >= 0) {
+            logger.info("Allocated: {} MB", usage.getAllocatedBytes() / 1024 / 1024);
+        }
+        logger.info("GC: {} collections, {} ms", usage.getGcCount(), usage.getGcTimeMillis());
+        if (items > 0) {
+            if (usage.getCpuNanos() >= 0) {
+                logger.info("CPU per item: {} us", String.format("%.2f", usage.cpuMicrosPerItem(items)));
+            }
+            if (usage.getAllocatedBytes() >= 0) {
+                logger.info("Allocation per item: {} bytes", String.format("%.0f", usage.bytesPerItem(items)));
+            }
+        }
+        
+        // Keep the raw numbers with the step so they survive in the job repository
+        ExecutionContext context = stepExecution.getExecutionContext();
+        context.putLong(CPU_NANOS_KEY, usage.getCpuNanos());
+        context.putLong(ALLOCATED_BYTES_KEY, usage.getAllocatedBytes());
+        context.putLong(GC_COUNT_KEY, usage.getGcCount());
+        context.putLong(GC_TIME_MILLIS_KEY, usage.getGcTimeMillis());
+        context.putInt(WORKER_THREADS_KEY, usage.getWorkerThreads());
+    }
+    
+    private void logPersistenceStatistics(StepExecution stepExecution) {
+        PersistenceMetrics.Snapshot delta = persistenceMetrics.capture().minus(persistenceBaseline);
+        
+        logger.info("--- Persistence Statistics ---");
+        logger.info("JDBC statements prepared: {}", delta.getStatements());
+        logger.info("JDBC batches executed: {}", delta.getJdbcBatches());
+        logger.info("HQL/JPQL queries executed: {}", delta.getQueries());
+        logger.info("Entities loaded: {}, inserted: {}, updated: {}", 
+                delta.getEntityLoads(), delta.getEntityInserts(), delta.getEntityUpdates());
+        logger.info("Session flushes: {}", delta.getFlushes());
+        
+        if (stepExecution.getWriteCount() > 0 && delta.getStatements() > stepExecution.getWriteCount() * 2) {
+            logger.warn("Step issued {} statements for {} written items. Check for per-item SELECTs before writes.", 
+                    delta.getStatements(), stepExecution.getWriteCount());
+        }
+        
+        ExecutionContext context = stepExecution.getExecutionContext();
+        context.putLong(SQL_STATEMENTS_KEY, delta.getStatements());
+        context.putLong(JDBC_BATCHES_KEY, delta.getJdbcBatches());
+        
+        persistenceMetrics.publish(stepExecution.getStepName(), delta);
+    }
+    
+    private void logConnectionPoolStatistics(StepExecution stepExecution) {
+        ConnectionPoolMetrics.Snapshot pool = connectionPoolMetrics.snapshot().minus(connectionPoolBaseline);
+        
+        logger.info("--- Connection Pool Statistics ---");
+        logger.info("Connection acquisitions: {}, total wait: {} ms, average wait: {} us, timeouts: {}", 
+                pool.getAcquisitions(), pool.getAcquireNanos() / 1_000_000,
+                String.format("%.1f", pool.averageAcquireMicros()), pool.getTimeouts());
+        logger.info("Connection wait histogram: {}", pool.histogram());
+        if (pool.getTimeouts() > 0) {
+            logger.warn("{} connection requests timed out. The pool is smaller than the step's concurrency.",
+                    pool.getTimeouts());
+        }
+        
+        stepExecution.getExecutionContext().putLong(CONNECTION_WAIT_NANOS_KEY, pool.getAcquireNanos());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.example.productdataetl.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Step execution listener that captures the execution plan of the step's query before
+ * the step starts. It logs the plan and whether it uses the expected index, and stores
+ * both in the step execution context so they can be compared between runs.
+ * A plan that does not use the index is logged as a warning.
+ */
+public class QueryPlanListener implements StepExecutionListener {
+
+    /** Execution context key holding the captured plan. */
+    public static final String PLAN_KEY = "queryPlan.plan";
+
+    /** Execution context key recording whether the plan uses the expected index. */
+    public static final String USES_INDEX_KEY = "queryPlan.usesIndex";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanListener.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final Object[] arguments;
+    private final String expectedIndex;
+
+    /**
+     * @param jdbcTemplate  template on the datasource the query runs against
+     * @param sql           the step's query
+     * @param expectedIndex name of the index the plan should use
+     * @param arguments     the query arguments
+     */
+    public QueryPlanListener(JdbcTemplate jdbcTemplate, String sql, String expectedIndex, Object... arguments) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.expectedIndex = expectedIndex;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        String plan;
+        try {
+            plan = explain();
+        } catch (DataAccessException e) {
+            logger.warn("Could not capture the query plan for step {}: {}", stepExecution.getStepName(), e.getMessage());
+            return;
+        }
+        boolean usesIndex = usesIndex(plan, expectedIndex);
+        stepExecution.getExecutionContext().putString(PLAN_KEY, plan);
+        stepExecution.getExecutionContext().putString(USES_INDEX_KEY, String.valueOf(usesIndex));
+        if (usesIndex) {
+            logger.info("Query plan for step {} uses index {}:\n{}", stepExecution.getStepName(), expectedIndex, plan);
+        } else {
+            logger.warn("Query plan for step {} does not use index {}:\n{}", stepExecution.getStepName(), expectedIndex, plan);
+        }
+    }
+
+    /**
+     * @return the plan as returned by EXPLAIN, one line per result row
+     */
+    String explain() {
+        List<String> rows = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, arguments);
+        return String.join("\n", rows);
+    }
+
+    static boolean usesIndex(String plan, String index) {
+        return plan.toLowerCase(Locale.ROOT).contains(index.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.productdataetl.listener;
+
+import com.example.productdataetl.tuning.BatchTuning;
+import com.example.productdataetl.tuning.TuningStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Job execution listener that feeds the auto-tuning search. After every completed run
+ * it records the items processed per second of step time for the settings the run used.
+ * Failed runs are not recorded, since their throughput says nothing about the settings.
+ */
+public class TuningFeedbackListener implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TuningFeedbackListener.class);
+
+    private final TuningStore tuningStore;
+    private final String feed;
+    private final BatchTuning tuning;
+
+    public TuningFeedbackListener(TuningStore tuningStore, String feed, BatchTuning tuning) {
+        this.tuningStore = tuningStore;
+        this.feed = feed;
+        this.tuning = tuning;
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            logger.info("Auto-tuning: run did not complete, throughput of {} not recorded", tuning);
+            return;
+        }
+
+        long items = 0;
+        long millis = 0;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            items += stepExecution.getReadCount();
+            if (stepExecution.getStartTime() != null && stepExecution.getEndTime() != null) {
+                millis += Duration.between(stepExecution.getStartTime(), stepExecution.getEndTime()).toMillis();
+            }
+        }
+        if (items == 0) {
+            return;
+        }
+
+        double itemsPerSecond = items * 1000.0 / Math.max(1, millis);
+        try {
+            tuningStore.record(feed, tuning, itemsPerSecond);
+            logger.info("Auto-tuning: recorded {} items/s for feed '{}' with {}",
+                    String.format("%.1f", itemsPerSecond), feed, tuning);
+        } catch (IOException e) {
+            logger.warn("Auto-tuning: could not record throughput: {}", e.getMessage());
+        }
+    }
+}
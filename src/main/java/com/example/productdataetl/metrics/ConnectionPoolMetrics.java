@@ -0,0 +1,167 @@
+package com.example.productdataetl.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker factory that keeps cumulative connection acquisition counters
+ * and a fixed-bucket wait time histogram, so that callers can compute the pool activity
+ * of a step by subtracting two {@link Snapshot}s. Every event is also forwarded to the
+ * standard Micrometer tracker so the usual {@code hikaricp.*} meters are published.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    /** Upper bounds of the acquisition wait histogram buckets; the last bucket is unbounded. */
+    static final long[] BUCKET_BOUNDS_NANOS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.SECONDS.toNanos(1)
+    };
+
+    private static final String[] BUCKET_LABELS = {"<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s"};
+
+    private final MetricsTrackerFactory delegate;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_NANOS.length + 1];
+
+    public ConnectionPoolMetrics(MeterRegistry meterRegistry) {
+        this.delegate = meterRegistry != null ? new MicrometerMetricsTrackerFactory(meterRegistry) : null;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        IMetricsTracker publisher = delegate != null ? delegate.create(poolName, poolStats) : new IMetricsTracker() {};
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                publisher.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recordAcquisition(elapsedAcquiredNanos);
+                publisher.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                publisher.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+                publisher.recordConnectionTimeout();
+            }
+
+            @Override
+            public void close() {
+                publisher.close();
+            }
+        };
+    }
+
+    void recordAcquisition(long elapsedNanos) {
+        acquisitions.increment();
+        acquireNanos.add(elapsedNanos);
+        buckets[bucketIndex(elapsedNanos)].increment();
+    }
+
+    /**
+     * @return cumulative counters since the pool was created
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(acquisitions.sum(), acquireNanos.sum(), timeouts.sum(), counts);
+    }
+
+    private static int bucketIndex(long elapsedNanos) {
+        for (int i = 0; i < BUCKET_BOUNDS_NANOS.length; i++) {
+            if (elapsedNanos < BUCKET_BOUNDS_NANOS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_NANOS.length;
+    }
+
+    /**
+     * Point-in-time view of the acquisition counters.
+     */
+    public static class Snapshot {
+
+        private final long acquisitions;
+        private final long acquireNanos;
+        private final long timeouts;
+        private final long[] bucketCounts;
+
+        Snapshot(long acquisitions, long acquireNanos, long timeouts, long[] bucketCounts) {
+            this.acquisitions = acquisitions;
+            this.acquireNanos = acquireNanos;
+            this.timeouts = timeouts;
+            this.bucketCounts = bucketCounts;
+        }
+
+        /**
+         * @param earlier a snapshot taken before this one
+         * @return the activity between the two snapshots
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] counts = new long[bucketCounts.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = bucketCounts[i] - earlier.bucketCounts[i];
+            }
+            return new Snapshot(acquisitions - earlier.acquisitions, acquireNanos - earlier.acquireNanos,
+                    timeouts - earlier.timeouts, counts);
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        public long getAcquireNanos() {
+            return acquireNanos;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public long[] getBucketCounts() {
+            return bucketCounts.clone();
+        }
+
+        public double averageAcquireMicros() {
+            return acquisitions > 0 ? acquireNanos / 1000.0 / acquisitions : 0;
+        }
+
+        /**
+         * @return the histogram rendered as {@code label=count} pairs
+         */
+        public String histogram() {
+            StringBuilder result = new StringBuilder();
+            for (int i = 0; i < bucketCounts.length; i++) {
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append(BUCKET_LABELS[i]).append('=').append(bucketCounts[i]);
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.productdataetl.metrics;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hibernate session event listener that counts executed JDBC batches.
+ * Hibernate's {@code Statistics} do not expose batch executions, so this listener is
+ * registered through {@code hibernate.session.events.auto}. Hibernate instantiates it
+ * once per session, hence the counter is shared.
+ */
+public class JdbcBatchCounter implements SessionEventListener {
+
+    private static final LongAdder BATCHES = new LongAdder();
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        BATCHES.increment();
+    }
+
+    /**
+     * @return number of JDBC batches executed since the JVM started
+     */
+    public static long getBatchCount() {
+        return BATCHES.sum();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.productdataetl.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Collects Hibernate statistics, JDBC batch executions and connection pool activity.
+ * Counters are cumulative; {@link #capture()} a snapshot before and after a step and
+ * subtract them to get the step's share. Steps running concurrently share the
+ * underlying counters, so the per-step figures assume sequential steps.
+ */
+public class PersistenceMetrics {
+
+    private final Statistics statistics;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final MeterRegistry meterRegistry;
+
+    public PersistenceMetrics(EntityManagerFactory entityManagerFactory,
+                              ConnectionPoolMetrics connectionPoolMetrics,
+                              MeterRegistry meterRegistry) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the current cumulative counters
+     */
+    public Snapshot capture() {
+        return new Snapshot(
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityInsertCount(),
+                statistics.getEntityUpdateCount(),
+                statistics.getFlushCount(),
+                JdbcBatchCounter.getBatchCount(),
+                connectionPoolMetrics.snapshot());
+    }
+
+    /**
+     * Publishes a step's counters to the meter registry, tagged with the step name.
+     *
+     * @param stepName name of the step
+     * @param delta    the step's share of the counters
+     */
+    public void publish(String stepName, Snapshot delta) {
+        if (meterRegistry == null) {
+            return;
+        }
+        meterRegistry.counter("batch.step.jdbc.statements", "step", stepName).increment(delta.getStatements());
+        meterRegistry.counter("batch.step.hibernate.queries", "step", stepName).increment(delta.getQueries());
+        meterRegistry.counter("batch.step.hibernate.entity.loads", "step", stepName).increment(delta.getEntityLoads());
+        meterRegistry.counter("batch.step.hibernate.entity.inserts", "step", stepName).increment(delta.getEntityInserts());
+        meterRegistry.counter("batch.step.hibernate.entity.updates", "step", stepName).increment(delta.getEntityUpdates());
+        meterRegistry.counter("batch.step.hibernate.flushes", "step", stepName).increment(delta.getFlushes());
+        meterRegistry.counter("batch.step.jdbc.batches", "step", stepName).increment(delta.getJdbcBatches());
+        ConnectionPoolMetrics.Snapshot pool = delta.getConnectionPool();
+        meterRegistry.counter("batch.step.connection.acquisitions", "step", stepName).increment(pool.getAcquisitions());
+        meterRegistry.counter("batch.step.connection.wait", "step", stepName).increment(pool.getAcquireNanos() / 1_000_000.0);
+        meterRegistry.counter("batch.step.connection.timeouts", "step", stepName).increment(pool.getTimeouts());
+    }
+
+    /**
+     * Point-in-time view of the persistence counters.
+     */
+    public static class Snapshot {
+
+        private final long statements;
+        private final long queries;
+        private final long entityLoads;
+        private final long entityInserts;
+        private final long entityUpdates;
+        private final long flushes;
+        private final long jdbcBatches;
+        private final ConnectionPoolMetrics.Snapshot connectionPool;
+
+        Snapshot(long statements, long queries, long entityLoads, long entityInserts, long entityUpdates,
+                 long flushes, long jdbcBatches, ConnectionPoolMetrics.Snapshot connectionPool) {
+            this.statements = statements;
+            this.queries = queries;
+            this.entityLoads = entityLoads;
+            this.entityInserts = entityInserts;
+            this.entityUpdates = entityUpdates;
+            this.flushes = flushes;
+            this.jdbcBatches = jdbcBatches;
+            this.connectionPool = connectionPool;
+        }
+
+        /**
+         * @param earlier a snapshot taken before this one
+         * @return the activity between the two snapshots
+         */
+        public Snapshot minus(Snapshot earlier) {
+            return new Snapshot(
+                    statements - earlier.statements,
+                    queries - earlier.queries,
+                    entityLoads - earlier.entityLoads,
+                    entityInserts - earlier.entityInserts,
+                    entityUpdates - earlier.entityUpdates,
+                    flushes - earlier.flushes,
+                    jdbcBatches - earlier.jdbcBatches,
+                    connectionPool.minus(earlier.connectionPool));
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getQueries() {
+            return queries;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+
+        public long getEntityInserts() {
+            return entityInserts;
+        }
+
+        public long getEntityUpdates() {
+            return entityUpdates;
+        }
+
+        public long getFlushes() {
+            return flushes;
+        }
+
+        public long getJdbcBatches() {
+            return jdbcBatches;
+        }
+
+        public ConnectionPoolMetrics.Snapshot getConnectionPool() {
+            return connectionPool;
+        }
+    }
+}
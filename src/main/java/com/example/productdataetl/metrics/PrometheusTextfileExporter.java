@@ -0,0 +1,170 @@
+package com.example.productdataetl.metrics;
+
+import com.example.productdataetl.listener.DetailedStepExecutionListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Writes the metrics of a finished job in the Prometheus text exposition format,
+ * for pickup by the node_exporter textfile collector. The file is written to a
+ * temporary name in the target directory and then renamed, so the collector never
+ * reads a partially written file.
+ */
+public class PrometheusTextfileExporter {
+
+    private static final String PREFIX = "product_etl_";
+
+    private final Path directory;
+    private final String fileName;
+
+    public PrometheusTextfileExporter(Path directory, String fileName) {
+        this.directory = directory;
+        this.fileName = fileName;
+    }
+
+    /**
+     * Exports the job's metrics, replacing the previous file.
+     *
+     * @param jobExecution  the finished job execution
+     * @param heapPeakBytes heap high-water mark during the job, or -1 if unknown
+     * @return the written file
+     * @throws IOException if the file cannot be written
+     */
+    public Path export(JobExecution jobExecution, long heapPeakBytes) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName);
+        Path temporary = Files.createTempFile(directory, "." + fileName, ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                out.write(render(jobExecution, heapPeakBytes));
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return target;
+    }
+
+    /**
+     * Renders the job's metrics in the Prometheus text format.
+     *
+     * @param jobExecution  the finished job execution
+     * @param heapPeakBytes heap high-water mark during the job, or -1 if unknown
+     * @return the exposition text
+     */
+    String render(JobExecution jobExecution, long heapPeakBytes) {
+        String job = label("job", jobExecution.getJobInstance().getJobName());
+        StringBuilder out = new StringBuilder();
+
+        header(out, "job_last_run_timestamp_seconds", "End time of the last run");
+        sample(out, "job_last_run_timestamp_seconds", "{" + job + "}", epochSeconds(jobExecution.getEndTime()));
+        header(out, "job_duration_seconds", "Wall-clock duration of the last run");
+        sample(out, "job_duration_seconds", "{" + job + "}",
+                seconds(jobExecution.getStartTime(), jobExecution.getEndTime()));
+        header(out, "job_success", "1 if the last run completed successfully, 0 otherwise");
+        sample(out, "job_success", "{" + job + "," + label("exit_code", jobExecution.getExitStatus().getExitCode()) + "}",
+                jobExecution.getStatus().isUnsuccessful() ? 0 : 1);
+        if (heapPeakBytes >= 0) {
+            header(out, "job_heap_peak_bytes", "Heap high-water mark during the last run");
+            sample(out, "job_heap_peak_bytes", "{" + job + "}", heapPeakBytes);
+        }
+
+        stepMetric(out, jobExecution, job, "step_duration_seconds", "Wall-clock duration of the step",
+                step -> seconds(step.getStartTime(), step.getEndTime()));
+        stepMetric(out, jobExecution, job, "step_items_per_second", "Items read per second",
+                step -> {
+                    double duration = seconds(step.getStartTime(), step.getEndTime());
+                    return duration > 0 ? step.getReadCount() / duration : 0;
+                });
+        stepMetric(out, jobExecution, job, "step_read_items", "Items read", StepExecution::getReadCount);
+        stepMetric(out, jobExecution, job, "step_write_items", "Items written", StepExecution::getWriteCount);
+        stepMetric(out, jobExecution, job, "step_filter_items", "Items filtered by the processor", StepExecution::getFilterCount);
+        stepMetric(out, jobExecution, job, "step_skip_items", "Items skipped", StepExecution::getSkipCount);
+        stepMetric(out, jobExecution, job, "step_retries", "Retry attempts",
+                step -> contextLong(step, DetailedStepExecutionListener.RETRY_COUNT_KEY));
+        stepMetric(out, jobExecution, job, "step_rollbacks", "Chunk rollbacks", StepExecution::getRollbackCount);
+        stepMetric(out, jobExecution, job, "step_commits", "Chunk commits", StepExecution::getCommitCount);
+        stepMetric(out, jobExecution, job, "step_cpu_seconds", "CPU time of the step's worker threads",
+                step -> contextLong(step, DetailedStepExecutionListener.CPU_NANOS_KEY) / 1e9);
+        stepMetric(out, jobExecution, job, "step_allocated_bytes", "Heap allocated by the step's worker threads",
+                step -> contextLong(step, DetailedStepExecutionListener.ALLOCATED_BYTES_KEY));
+        stepMetric(out, jobExecution, job, "step_gc_seconds", "GC time while the step ran",
+                step -> contextLong(step, DetailedStepExecutionListener.GC_TIME_MILLIS_KEY) / 1e3);
+        stepMetric(out, jobExecution, job, "step_connection_wait_seconds", "Time spent waiting for pooled connections",
+                step -> contextLong(step, DetailedStepExecutionListener.CONNECTION_WAIT_NANOS_KEY) / 1e9);
+        return out.toString();
+    }
+
+    private interface StepValue {
+        double of(StepExecution stepExecution);
+    }
+
+    private static void stepMetric(StringBuilder out, JobExecution jobExecution, String job,
+                                   String name, String help, StepValue value) {
+        header(out, name, help);
+        for (StepExecution step : jobExecution.getStepExecutions()) {
+            String labels = "{" + job + "," + label("step", step.getStepName()) + ","
+                    + label("status", step.getStatus().name()) + "}";
+            sample(out, name, labels, value.of(step));
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(PREFIX).append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private static String label(String name, String value) {
+        String escaped = value == null ? "" : value
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n");
+        return name + "=\"" + escaped + "\"";
+    }
+
+    private static long contextLong(StepExecution step, String key) {
+        ExecutionContext context = step.getExecutionContext();
+        return context.containsKey(key) ? Math.max(0, context.getLong(key)) : 0;
+    }
+
+    private static double seconds(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            return 0;
+        }
+        LocalDateTime finish = end != null ? end : LocalDateTime.now();
+        return Duration.between(start, finish).toMillis() / 1000.0;
+    }
+
+    private static double epochSeconds(LocalDateTime time) {
+        LocalDateTime value = time != null ? time : LocalDateTime.now();
+        return value.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.productdataetl.metrics;
+
+/**
+ * Immutable snapshot of the CPU, allocation and GC cost of a step.
+ * CPU time and allocated bytes are -1 when the JVM does not support measuring them.
+ */
+public class ResourceUsage {
+
+    private final long cpuNanos;
+    private final long allocatedBytes;
+    private final int workerThreads;
+    private final long gcCount;
+    private final long gcTimeMillis;
+
+    public ResourceUsage(long cpuNanos, long allocatedBytes, int workerThreads, long gcCount, long gcTimeMillis) {
+        this.cpuNanos = cpuNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.workerThreads = workerThreads;
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    /**
+     * @param items number of items the step handled
+     * @return allocated bytes per item, or -1 if unknown
+     */
+    public double bytesPerItem(long items) {
+        if (allocatedBytes < 0 || items <= 0) {
+            return -1;
+        }
+        return (double) allocatedBytes / items;
+    }
+
+    /**
+     * @param items number of items the step handled
+     * @return CPU microseconds per item, or -1 if unknown
+     */
+    public double cpuMicrosPerItem(long items) {
+        if (cpuNanos < 0 || items <= 0) {
+            return -1;
+        }
+        return cpuNanos / 1000.0 / items;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceUsage{" +
+                "cpuNanos=" + cpuNanos +
+                ", allocatedBytes=" + allocatedBytes +
+                ", workerThreads=" + workerThreads +
+                ", gcCount=" + gcCount +
+                ", gcTimeMillis=" + gcTimeMillis +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.productdataetl.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accounts CPU time and heap allocation of the threads that execute a step's chunks.
+ * Each worker thread samples its own counters when a chunk starts and adds the delta
+ * when the chunk ends, so the totals stay correct for multi-threaded steps and for
+ * pooled threads that do unrelated work between chunks. GC activity is JVM-wide and
+ * is measured between {@link #start()} and {@link #finish()}.
+ */
+public class ThreadResourceTracker {
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+
+    private final ThreadLocal<long[]> chunkBaseline = new ThreadLocal<>();
+    private final Set<Long> workerThreadIds = ConcurrentHashMap.newKeySet();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private long gcCountAtStart;
+    private long gcTimeAtStart;
+
+    public ThreadResourceTracker() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            this.threadMXBean = (com.sun.management.ThreadMXBean) bean;
+            this.cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+            this.allocationSupported = threadMXBean.isThreadAllocatedMemorySupported();
+            if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+                threadMXBean.setThreadCpuTimeEnabled(true);
+            }
+            if (allocationSupported && !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            }
+        } else {
+            this.threadMXBean = null;
+            this.cpuTimeSupported = false;
+            this.allocationSupported = false;
+        }
+    }
+
+    /**
+     * Resets all counters and captures the GC baseline. Called once before the step runs.
+     */
+    public void start() {
+        workerThreadIds.clear();
+        cpuNanos.reset();
+        allocatedBytes.reset();
+        long[] gc = sampleGarbageCollectors();
+        gcCountAtStart = gc[0];
+        gcTimeAtStart = gc[1];
+    }
+
+    /**
+     * Samples the calling thread's counters at the start of a chunk.
+     */
+    public void beginChunk() {
+        Thread thread = Thread.currentThread();
+        workerThreadIds.add(thread.getId());
+        chunkBaseline.set(new long[]{currentThreadCpuTime(), currentThreadAllocatedBytes(thread)});
+    }
+
+    /**
+     * Adds the calling thread's consumption since {@link #beginChunk()} to the step totals.
+     * Safe to call when no chunk was started on this thread.
+     */
+    public void endChunk() {
+        long[] baseline = chunkBaseline.get();
+        if (baseline == null) {
+            return;
+        }
+        chunkBaseline.remove();
+        if (cpuTimeSupported) {
+            cpuNanos.add(currentThreadCpuTime() - baseline[0]);
+        }
+        if (allocationSupported) {
+            allocatedBytes.add(currentThreadAllocatedBytes(Thread.currentThread()) - baseline[1]);
+        }
+    }
+
+    /**
+     * Returns the resources consumed since {@link #start()}.
+     *
+     * @return usage snapshot for the step
+     */
+    public ResourceUsage finish() {
+        long[] gc = sampleGarbageCollectors();
+        return new ResourceUsage(
+                cpuTimeSupported ? cpuNanos.sum() : -1,
+                allocationSupported ? allocatedBytes.sum() : -1,
+                workerThreadIds.size(),
+                gc[0] - gcCountAtStart,
+                gc[1] - gcTimeAtStart);
+    }
+
+    private long currentThreadCpuTime() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+    }
+
+    private long currentThreadAllocatedBytes(Thread thread) {
+        return allocationSupported ? threadMXBean.getThreadAllocatedBytes(thread.getId()) : 0L;
+    }
+
+    private static long[] sampleGarbageCollectors() {
+        long count = 0;
+        long timeMillis = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean collector : collectors) {
+            // -1 means the collector does not report the value
+            count += Math.max(0, collector.getCollectionCount());
+            timeMillis += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[]{count, timeMillis};
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.productdataetl.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Converts the price held in cents to the DECIMAL(10,2) column, so a {@link BigDecimal}
+ * is only created when a product is written to or read from the database.
+ */
+@Converter
+public class PriceCentsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long cents) {
+        return cents != null ? Prices.toBigDecimal(cents) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal price) {
+        return Prices.toCents(price);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.productdataetl.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions of prices held as a number of cents, the scale of the PRODUCTS.price column.
+ * Parsing reads the characters directly and allocates nothing for plain decimals with
+ * up to two fraction digits; other notations go through {@link BigDecimal}.
+ */
+public final class Prices {
+
+    /** Marks a product read without a price. */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** Decimal places of prices, as in the price column. */
+    public static final int SCALE = 2;
+
+    /** Largest number of integer digits that cannot overflow a long number of cents. */
+    private static final int MAX_INTEGER_DIGITS = 16;
+
+    private Prices() {
+    }
+
+    /**
+     * @param text  the characters holding the price
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return the price in cents, rounded half up to two fraction digits
+     * @throws NumberFormatException if the characters are not a decimal number
+     */
+    public static long parseCents(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long cents = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (fractionDigits < 0) {
+                    integerDigits++;
+                } else {
+                    fractionDigits++;
+                }
+                cents = cents * 10 + (c - '0');
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseCentsSlow(text, start, end);
+            }
+        }
+        if (integerDigits + Math.max(fractionDigits, 0) == 0) {
+            throw new NumberFormatException("Not a number: '" + text.subSequence(start, end) + "'");
+        }
+        if (fractionDigits > SCALE || integerDigits > MAX_INTEGER_DIGITS) {
+            return parseCentsSlow(text, start, end);
+        }
+        for (int f = Math.max(fractionDigits, 0); f < SCALE; f++) {
+            cents *= 10;
+        }
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * @param price the price, may be null
+     * @return the price in cents, or {@link #NO_PRICE} for null
+     * @throws ArithmeticException if the price does not fit in a long number of cents
+     */
+    public static long toCents(BigDecimal price) {
+        if (price == null) {
+            return NO_PRICE;
+        }
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @param cents the price in cents
+     * @return the price with scale 2, or null for {@link #NO_PRICE}
+     */
+    public static BigDecimal toBigDecimal(long cents) {
+        return cents == NO_PRICE ? null : BigDecimal.valueOf(cents, SCALE);
+    }
+
+    private static long parseCentsSlow(CharSequence text, int start, int end) {
+        try {
+            return toCents(new BigDecimal(text.subSequence(start, end).toString()));
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Price out of range: '" + text.subSequence(start, end) + "'");
+        }
+    }
+}
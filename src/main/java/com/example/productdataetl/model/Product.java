@@ -26,10 +26,10 @@ public class Product {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @NotNull(message = "Product price cannot be null")
-    @Positive(message = "Product price must be positive")
+    /** Price in cents, converted to a BigDecimal only when written to the database. */
+    @Convert(converter = PriceCentsConverter.class)
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    private long price = Prices.NO_PRICE;
 
     @Column(name = "import_date")
     private LocalDateTime importDate;
@@ -43,7 +43,7 @@ public class Product {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.price = Prices.toCents(price);
     }
 
     // Getters and Setters
@@ -71,12 +71,25 @@ public class Product {
         this.description = description;
     }
 
+    @NotNull(message = "Product price cannot be null")
+    @Positive(message = "Product price must be positive")
     public BigDecimal getPrice() {
-        return price;
+        return Prices.toBigDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Prices.toCents(price);
+    }
+
+    /**
+     * @return the price in cents, or {@link Prices#NO_PRICE} when there is none
+     */
+    public long getPriceCents() {
+        return price;
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.price = priceCents;
     }
 
     public LocalDateTime getImportDate() {
@@ -106,7 +119,7 @@ public class Product {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
-                ", price=" + price +
+                ", price=" + getPrice() +
                 ", importDate=" + importDate +
                 '}';
     }
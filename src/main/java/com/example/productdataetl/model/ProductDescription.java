@@ -0,0 +1,67 @@
+package com.example.productdataetl.model;
+
+import jakarta.persistence.*;
+import java.util.Objects;
+
+/**
+ * JPA Entity holding the description of a Product in the description side-table layout.
+ * Maps to the PRODUCT_DESCRIPTIONS table, keyed by the product id.
+ * Loading a Product never touches this table; the description is fetched on demand by id.
+ */
+@Entity
+@Table(name = "PRODUCT_DESCRIPTIONS")
+public class ProductDescription {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    // Default constructor required by JPA
+    public ProductDescription() {
+    }
+
+    public ProductDescription(Long productId, String description) {
+        this.productId = productId;
+        this.description = description;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductDescription that = (ProductDescription) o;
+        return Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId);
+    }
+
+    @Override
+    public String toString() {
+        return "ProductDescription{" +
+                "productId=" + productId +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.productdataetl.processor;
+
+import java.util.List;
+
+/**
+ * Processor receiving all items of a chunk at once, so that work can be shared across them:
+ * one timestamp per chunk, bulk lookups or filtering in a single loop. Items are reported
+ * by their index in the chunk, each one transformed, filtered or failed. A failed item is
+ * retried and skipped on its own, as if a per-item processor had thrown its exception.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+public interface ChunkItemProcessor<I, O> {
+
+    /**
+     * @param items the items of the chunk, in read order
+     * @return the outcome of every item, by index
+     * @throws Exception if the chunk cannot be processed at all; its items are then processed one by one
+     */
+    ChunkResult<O> processChunk(List<? extends I> items) throws Exception;
+}
@@ -0,0 +1,85 @@
+package com.example.productdataetl.processor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Presents a {@link ChunkItemProcessor} as an {@link ItemProcessor}, so that the step's
+ * fault-tolerant processing keeps handling filtering, retries and skips item by item.
+ * {@link #prepare(List)} processes the chunk and {@link #process(Object)} then hands out the
+ * result of each item. A failure is thrown once; items that were not prepared, including a
+ * failed item being retried, are processed as a chunk of their own. Prepared results are kept
+ * per thread, so concurrent chunks do not see each other's items.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+public class ChunkItemProcessorAdapter<I, O> implements ItemProcessor<I, O> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkItemProcessorAdapter.class);
+
+    private final ChunkItemProcessor<I, O> delegate;
+
+    private final ThreadLocal<Prepared<O>> prepared = new ThreadLocal<>();
+
+    public ChunkItemProcessorAdapter(ChunkItemProcessor<I, O> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Processes the items as one chunk. If the chunk cannot be processed as a whole, nothing is
+     * prepared and each item is processed on its own, so that only the failing ones are skipped.
+     *
+     * @param items the items of the chunk
+     */
+    public void prepare(List<? extends I> items) {
+        prepared.remove();
+        if (items.isEmpty()) {
+            return;
+        }
+        try {
+            ChunkResult<O> result = delegate.processChunk(items);
+            Map<Object, Integer> indexes = new IdentityHashMap<>(items.size() * 2);
+            for (int i = 0; i < items.size(); i++) {
+                indexes.put(items.get(i), i);
+            }
+            prepared.set(new Prepared<>(indexes, result));
+        } catch (Exception e) {
+            logger.debug("Chunk of {} items could not be processed as a whole, processing them one by one",
+                    items.size(), e);
+        }
+    }
+
+    /**
+     * Drops the results prepared on this thread.
+     */
+    public void clear() {
+        prepared.remove();
+    }
+
+    @Override
+    public O process(I item) throws Exception {
+        Prepared<O> chunk = prepared.get();
+        Integer index = chunk != null ? chunk.indexes().remove(item) : null;
+        ChunkResult<O> result;
+        if (index != null) {
+            result = chunk.result();
+        } else {
+            result = delegate.processChunk(List.of(item));
+            index = 0;
+        }
+        Exception failure = result.getFailure(index);
+        if (failure != null) {
+            throw failure;
+        }
+        return result.getOutput(index);
+    }
+
+    private record Prepared<O>(Map<Object, Integer> indexes, ChunkResult<O> result) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.productdataetl.processor;
+
+/**
+ * Outcome of a {@link ChunkItemProcessor} for each item of a chunk, by index: the output,
+ * null for a filtered item, or the exception of a failed item.
+ *
+ * @param <O> type of output items
+ */
+public final class ChunkResult<O> {
+
+    private final Object[] outputs;
+    private Exception[] failures;
+
+    /**
+     * @param size the number of items in the chunk; all start out filtered
+     */
+    public ChunkResult(int size) {
+        this.outputs = new Object[size];
+    }
+
+    /**
+     * @param index  the index of the item in the chunk
+     * @param output the item's output, or null to filter it out
+     */
+    public void set(int index, O output) {
+        outputs[index] = output;
+    }
+
+    /**
+     * Marks an item as failed; it is then retried or skipped by the step's policies.
+     *
+     * @param index     the index of the item in the chunk
+     * @param exception the reason the item failed
+     */
+    public void fail(int index, Exception exception) {
+        if (failures == null) {
+            failures = new Exception[outputs.length];
+        }
+        outputs[index] = null;
+        failures[index] = exception;
+    }
+
+    /**
+     * @return the output of the item, or null if it was filtered out or failed
+     */
+    @SuppressWarnings("unchecked")
+    public O getOutput(int index) {
+        return (O) outputs[index];
+    }
+
+    /**
+     * @return the exception of the item, or null if it did not fail
+     */
+    public Exception getFailure(int index) {
+        return failures != null ? failures[index] : null;
+    }
+
+    public int size() {
+        return outputs.length;
+    }
+}
@@ -3,20 +3,70 @@ package com.example.productdataetl.processor;
 import com.example.productdataetl.model.Product;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * ItemProcessor implementation for transforming Product objects.
  * Adds importDate timestamp and performs data validation and cleaning.
+ * Registered as a chunk listener, the import date is taken once per chunk on the thread
+ * processing it and shared by the chunk's items; outside a chunk every item gets its own.
+ * Cleaning only copies a string when it has surrounding whitespace.
+ * As a {@link ChunkItemProcessor} it validates and cleans a whole chunk in one pass with one
+ * import date.
  */
 @Component
-public class ProductProcessor implements ItemProcessor<Product, Product> {
+public class ProductProcessor implements ItemProcessor<Product, Product>, ChunkItemProcessor<Product, Product>,
+        ChunkListener {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductProcessor.class);
 
+    private final ThreadLocal<LocalDateTime> chunkTimestamp = new ThreadLocal<>();
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkTimestamp.set(LocalDateTime.now());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        chunkTimestamp.remove();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkTimestamp.remove();
+    }
+
+    /**
+     * Processes the products of a chunk, filtering out invalid ones and stamping the others
+     * with the same import date.
+     *
+     * @param items the products of the chunk
+     * @return the processed products, invalid ones filtered out
+     */
+    @Override
+    public ChunkResult<Product> processChunk(List<? extends Product> items) {
+        ChunkResult<Product> result = new ChunkResult<>(items.size());
+        LocalDateTime importDate = importDate();
+        for (int i = 0; i < items.size(); i++) {
+            Product item = items.get(i);
+            if (item == null || !isValidProduct(item)) {
+                logger.warn("Invalid product data for ID {}: {}", item != null ? item.getId() : null, item);
+                continue;
+            }
+            item.setImportDate(importDate);
+            cleanProductData(item);
+            result.set(i, item);
+        }
+        return result;
+    }
+
     /**
      * Processes a Product item by adding importDate and performing validation.
      * 
@@ -37,18 +87,25 @@ public class ProductProcessor implements ItemProcessor<Product, Product> {
             return null; // Filter out invalid products
         }
 
-        // Set import date to current timestamp
-        item.setImportDate(LocalDateTime.now());
+        // Set import date to the chunk's timestamp
+        item.setImportDate(importDate());
 
         // Perform data cleaning
         cleanProductData(item);
 
-        logger.debug("Processed product: ID={}, Name={}, Price={}", 
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processed product: ID={}, Name={}, Price={}",
                     item.getId(), item.getName(), item.getPrice());
+        }
 
         return item;
     }
 
+    private LocalDateTime importDate() {
+        LocalDateTime importDate = chunkTimestamp.get();
+        return importDate != null ? importDate : LocalDateTime.now();
+    }
+
     /**
      * Validates that the product has all required fields.
      * 
@@ -66,7 +123,8 @@ public class ProductProcessor implements ItemProcessor<Product, Product> {
             return false;
         }
 
-        if (product.getPrice() == null || product.getPrice().signum() <= 0) {
+        // A missing price, Prices.NO_PRICE, is negative too
+        if (product.getPriceCents() <= 0) {
             logger.warn("Product has invalid price: {}", product.getPrice());
             return false;
         }
@@ -80,18 +138,16 @@ public class ProductProcessor implements ItemProcessor<Product, Product> {
      * @param product the product to clean
      */
     private void cleanProductData(Product product) {
-        // Trim whitespace from name
+        // Trim whitespace from name; trim() returns the same string when there is none
         if (product.getName() != null) {
             product.setName(product.getName().trim());
         }
 
-        // Trim whitespace from description
-        if (product.getDescription() != null) {
-            product.setDescription(product.getDescription().trim());
-            // Set empty descriptions to null
-            if (product.getDescription().isEmpty()) {
-                product.setDescription(null);
-            }
+        // Trim whitespace from description, setting empty descriptions to null
+        String description = product.getDescription();
+        if (description != null) {
+            description = description.trim();
+            product.setDescription(description.isEmpty() ? null : description);
         }
     }
 }
\ No newline at end of file
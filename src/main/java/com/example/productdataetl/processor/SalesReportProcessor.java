@@ -1,33 +1,80 @@
 package com.example.productdataetl.processor;
 
 import com.example.productdataetl.dto.SalesReport;
+import com.example.productdataetl.model.Prices;
 import com.example.productdataetl.model.Product;
+import com.example.productdataetl.writer.ReportDefinition;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
 
 /**
  * ItemProcessor implementation for filtering and transforming Product entities to SalesReport DTOs.
- * This processor filters products with price greater than 50 and transforms them for report generation.
+ * This processor keeps products priced above the threshold (50 unless configured through
+ * batch.sales.report.price.threshold) and transforms them for report generation. With report
+ * definitions in batch.reports the threshold is the lowest price bound among them, so that every
+ * product of any report reaches the writer routing it to its reports.
+ * Prices are compared in cents, against the largest number of cents not above the threshold,
+ * so products without a price never pass. As a {@link ChunkItemProcessor} it filters a whole
+ * chunk in one loop.
  */
 @Component
-public class SalesReportProcessor implements ItemProcessor<Product, SalesReport> {
+public class SalesReportProcessor implements ItemProcessor<Product, SalesReport>,
+        ChunkItemProcessor<Product, SalesReport> {
 
-    private static final BigDecimal PRICE_THRESHOLD = new BigDecimal("50");
+    private static final BigDecimal DEFAULT_PRICE_THRESHOLD = new BigDecimal("50");
+
+    private final BigDecimal priceThreshold;
+    private final long priceThresholdCents;
+
+    public SalesReportProcessor() {
+        this(DEFAULT_PRICE_THRESHOLD);
+    }
+
+    /**
+     * @param priceThreshold products priced at or below this value are filtered out
+     */
+    public SalesReportProcessor(BigDecimal priceThreshold) {
+        this.priceThreshold = priceThreshold;
+        this.priceThresholdCents = priceThreshold.movePointRight(Prices.SCALE)
+                .setScale(0, RoundingMode.FLOOR).longValueExact();
+    }
+
+    /**
+     * @param priceThreshold products priced at or below this value are filtered out, without reports
+     * @param reports        the report definitions of Step 2, blank for the single report
+     * @throws IllegalArgumentException if a report definition is malformed
+     */
+    @Autowired
+    public SalesReportProcessor(@Value("${batch.sales.report.price.threshold:50}") BigDecimal priceThreshold,
+                                @Value("${batch.reports:}") String reports) {
+        this(reports.isBlank() ? priceThreshold : ReportDefinition.lowestBound(ReportDefinition.parseAll(reports)));
+    }
+
+    /**
+     * @return the price a product must exceed to be included in the report
+     */
+    public BigDecimal getPriceThreshold() {
+        return priceThreshold;
+    }
 
     /**
      * Processes a Product entity by filtering based on price and transforming to SalesReport DTO.
      * 
      * @param product the Product entity to process
-     * @return SalesReport DTO if product price > 50, null otherwise (filtered out)
+     * @return SalesReport DTO if product price > threshold, null otherwise (filtered out)
      * @throws Exception if processing fails
      */
     @Override
     public SalesReport process(Product product) throws Exception {
-        // Filter products with price greater than 50
-        if (product.getPrice() == null || product.getPrice().compareTo(PRICE_THRESHOLD) <= 0) {
-            // Return null to filter out products with price <= 50
+        // Filter products with price greater than the threshold
+        if (product.getPriceCents() <= priceThresholdCents) {
+            // Return null to filter out products with price <= threshold
             return null;
         }
 
@@ -38,4 +85,22 @@ public class SalesReportProcessor implements ItemProcessor<Product, SalesReport>
                 product.getPrice()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Filters the products of a chunk by price and transforms the others to SalesReport DTOs.
+     *
+     * @param items the products of the chunk
+     * @return the report rows, products at or below the threshold filtered out
+     */
+    @Override
+    public ChunkResult<SalesReport> processChunk(List<? extends Product> items) {
+        ChunkResult<SalesReport> result = new ChunkResult<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Product product = items.get(i);
+            if (product.getPriceCents() > priceThresholdCents) {
+                result.set(i, new SalesReport(product.getId(), product.getName(), product.getPrice()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.productdataetl.reader;
+
+import org.springframework.core.io.Resource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Stream of the decompressed contents of a BGZF file: a series of gzip members of at most 64 KiB
+ * each, whose size is given in a {@code BC} extra field of their header. The blocks are read in
+ * order and decompressed in parallel on a pool of worker threads, a few blocks ahead of the
+ * consumer, so decompression overlaps with the parsing of the blocks before them.
+ * A position in the contents is identified by a virtual offset, the compressed offset of its
+ * block shifted left by 16 bits plus the offset within the decompressed block, so that reading
+ * can resume there with {@link #seek} without decompressing anything before it.
+ */
+public class BgzfInputStream extends InputStream {
+
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+    private static final int HEADER_SIZE = 12;
+    private static final int TRAILER_SIZE = 8;
+    private static final int FLAG_EXTRA = 4;
+    // Blocks handed out and kept to resolve virtual offsets, far more than a reader buffers
+    private static final int MAX_RETAINED_BLOCKS = 1024;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final Resource resource;
+    private final ExecutorService decompressors;
+    private final int readAhead;
+    private final ArrayDeque<Future<Block>> decompressing = new ArrayDeque<>();
+    private final ArrayDeque<Block> retained = new ArrayDeque<>();
+
+    private InputStream compressed;
+    private long nextBlockOffset;
+    private long nextBlockPosition;
+    private boolean endOfFile;
+    private Block current;
+    private int index;
+
+    /**
+     * @param resource the BGZF file, opened again to seek
+     * @param threads  the number of threads decompressing blocks
+     * @throws IOException if the file cannot be opened
+     */
+    public BgzfInputStream(Resource resource, int threads) throws IOException {
+        this.resource = resource;
+        this.readAhead = Math.max(2, threads * 2);
+        String prefix = "bgzf-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.decompressors = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compressed = resource.getInputStream();
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (current == null || index == current.data.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        return current.data[index++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (current == null || index == current.data.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        int count = Math.min(length, current.data.length - index);
+        System.arraycopy(current.data, index, bytes, offset, count);
+        index += count;
+        return count;
+    }
+
+    /**
+     * Returns the virtual offset of a position among the bytes read recently, that is in the
+     * block being read or one of the blocks before it.
+     *
+     * @param position the number of bytes before the position in the decompressed contents
+     * @return the virtual offset of the position
+     * @throws IllegalArgumentException if the position is not in a recent block
+     */
+    public long virtualOffset(long position) {
+        Block block = null;
+        for (Block candidate : retained) {
+            if (candidate.position > position) {
+                break;
+            }
+            block = candidate;
+        }
+        if (block == null || position > block.position + block.data.length) {
+            throw new IllegalArgumentException("Position " + position + " is not in the blocks read recently");
+        }
+        // Earlier positions are not asked for again
+        while (retained.peekFirst() != block) {
+            retained.removeFirst();
+        }
+        int offsetInBlock = (int) (position - block.position);
+        if (offsetInBlock == MAX_BLOCK_SIZE) {
+            return (block.offset + block.size) << 16;
+        }
+        return block.offset << 16 | offsetInBlock;
+    }
+
+    /**
+     * Continues reading at a virtual offset returned by {@link #virtualOffset} on an earlier stream.
+     *
+     * @param virtualOffset the virtual offset to read from
+     * @param position      the position it stands for in the decompressed contents
+     * @throws IOException if the file cannot be read up to the offset
+     */
+    public void seek(long virtualOffset, long position) throws IOException {
+        long offset = virtualOffset >>> 16;
+        int offsetInBlock = (int) (virtualOffset & 0xFFFF);
+        cancelDecompression();
+        retained.clear();
+        current = null;
+        index = 0;
+        compressed.close();
+        compressed = resource.getInputStream();
+        compressed.skipNBytes(offset);
+        nextBlockOffset = offset;
+        nextBlockPosition = position - offsetInBlock;
+        endOfFile = false;
+        if (offsetInBlock > 0) {
+            if (!nextBlock() || offsetInBlock > current.data.length) {
+                throw new EOFException("Virtual offset " + virtualOffset + " is beyond the end of " + resource.getDescription());
+            }
+            index = offsetInBlock;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        cancelDecompression();
+        decompressors.shutdownNow();
+        compressed.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        submitBlocks();
+        Future<Block> next = decompressing.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing " + resource.getDescription());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Could not decompress " + resource.getDescription(), e.getCause());
+        }
+        index = 0;
+        retained.addLast(current);
+        if (retained.size() > MAX_RETAINED_BLOCKS) {
+            retained.removeFirst();
+        }
+        submitBlocks();
+        return true;
+    }
+
+    /**
+     * Reads compressed blocks and hands them to the decompressors until enough are in flight.
+     */
+    private void submitBlocks() throws IOException {
+        while (!endOfFile && decompressing.size() < readAhead) {
+            long offset = nextBlockOffset;
+            byte[] header = new byte[HEADER_SIZE];
+            int read = compressed.readNBytes(header, 0, HEADER_SIZE);
+            if (read == 0) {
+                endOfFile = true;
+                return;
+            }
+            if (read < HEADER_SIZE) {
+                throw new EOFException("Truncated BGZF block at offset " + offset + " of " + resource.getDescription());
+            }
+            if ((header[0] & 0xFF) != 0x1F || (header[1] & 0xFF) != 0x8B || header[2] != 8
+                    || (header[3] & FLAG_EXTRA) == 0) {
+                throw new IOException("No BGZF block at offset " + offset + " of " + resource.getDescription());
+            }
+            byte[] extra = readFully(unsignedShort(header, 10), offset);
+            int blockSize = blockSize(extra, offset);
+            if (blockSize < HEADER_SIZE + extra.length + TRAILER_SIZE) {
+                throw new IOException("Invalid BGZF block size " + blockSize + " at offset " + offset + " of "
+                        + resource.getDescription());
+            }
+            byte[] body = readFully(blockSize - HEADER_SIZE - extra.length, offset);
+            int expectedCrc = integer(body, body.length - TRAILER_SIZE);
+            int size = integer(body, body.length - 4);
+            long position = nextBlockPosition;
+            nextBlockOffset += blockSize;
+            nextBlockPosition += size;
+            decompressing.addLast(decompressors.submit(
+                    () -> inflate(offset, blockSize, position, body, size, expectedCrc)));
+        }
+    }
+
+    private Block inflate(long offset, int blockSize, long position, byte[] body, int size, int expectedCrc)
+            throws IOException {
+        if (size < 0 || size > MAX_BLOCK_SIZE) {
+            throw new IOException("Invalid BGZF block size " + size + " at offset " + offset);
+        }
+        byte[] data = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(body, 0, body.length - TRAILER_SIZE);
+            int length = 0;
+            while (length < size && !inflater.finished()) {
+                int inflated = inflater.inflate(data, length, size - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != size) {
+                throw new IOException("BGZF block at offset " + offset + " holds " + length + " bytes instead of " + size);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt BGZF block at offset " + offset + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("CRC mismatch in BGZF block at offset " + offset);
+        }
+        return new Block(offset, blockSize, position, data);
+    }
+
+    private int blockSize(byte[] extra, long offset) throws IOException {
+        for (int i = 0; i + 4 <= extra.length; i += 4 + unsignedShort(extra, i + 2)) {
+            if (extra[i] == 'B' && extra[i + 1] == 'C' && unsignedShort(extra, i + 2) == 2 && i + 6 <= extra.length) {
+                return unsignedShort(extra, i + 4) + 1;
+            }
+        }
+        throw new IOException("No BGZF block size in the gzip header at offset " + offset + " of "
+                + resource.getDescription());
+    }
+
+    private byte[] readFully(int length, long offset) throws IOException {
+        byte[] bytes = compressed.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated BGZF block at offset " + offset + " of " + resource.getDescription());
+        }
+        return bytes;
+    }
+
+    private void cancelDecompression() {
+        for (Future<Block> future : decompressing) {
+            future.cancel(true);
+        }
+        decompressing.clear();
+    }
+
+    private static int unsignedShort(byte[] bytes, int index) {
+        return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8;
+    }
+
+    private static int integer(byte[] bytes, int index) {
+        return unsignedShort(bytes, index) | unsignedShort(bytes, index + 2) << 16;
+    }
+
+    /**
+     * A decompressed block, with its compressed offset and size and its position in the contents.
+     */
+    private static final class Block {
+
+        private final long offset;
+        private final int size;
+        private final long position;
+        private final byte[] data;
+
+        private Block(long offset, int size, long position, byte[] data) {
+            this.offset = offset;
+            this.size = size;
+            this.position = position;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.productdataetl.reader;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Resource giving the decompressed contents of a gzip or BGZF file, and the file itself when it is
+ * not compressed. The format is recognized from the first bytes whenever the contents are read,
+ * whatever the file name. A gzip file is decompressed on a thread of its own, ahead of the reader;
+ * the blocks of a BGZF file are decompressed in parallel by a {@link BgzfInputStream}.
+ * Only an uncompressed file is exposed as a {@link File}, so that code reading the file directly
+ * falls back to the contents.
+ */
+public class DecompressingResource extends AbstractResource {
+
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int READ_AHEAD_CHUNKS = 4;
+
+    /** Formats of the input file. */
+    enum Format { PLAIN, GZIP, BGZF }
+
+    private final Resource resource;
+    private final int threads;
+
+    /**
+     * @param resource the file, compressed or not
+     * @param threads  the number of threads decompressing the blocks of a BGZF file
+     */
+    public DecompressingResource(Resource resource, int threads) {
+        this.resource = resource;
+        this.threads = threads;
+    }
+
+    /**
+     * Recognizes the format from the gzip header: a BGZF block is a gzip member whose first extra
+     * subfield is {@code BC}, holding the block size.
+     *
+     * @return the format of the file
+     * @throws IOException if the file cannot be read
+     */
+    Format format() throws IOException {
+        byte[] header;
+        try (InputStream in = resource.getInputStream()) {
+            header = in.readNBytes(16);
+        }
+        if (header.length < 2 || (header[0] & 0xFF) != GZIP_MAGIC_1 || (header[1] & 0xFF) != GZIP_MAGIC_2) {
+            return Format.PLAIN;
+        }
+        boolean bgzf = header.length == 16 && (header[3] & 4) != 0 && header[12] == 'B' && header[13] == 'C'
+                && header[14] == 2 && header[15] == 0;
+        return bgzf ? Format.BGZF : Format.GZIP;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return switch (format()) {
+            case PLAIN -> resource.getInputStream();
+            case GZIP -> new ReadAheadInputStream(new GZIPInputStream(resource.getInputStream(), BUFFER_SIZE),
+                    BUFFER_SIZE, READ_AHEAD_CHUNKS, "gunzip-" + resource.getFilename());
+            case BGZF -> new BgzfInputStream(resource, threads);
+        };
+    }
+
+    @Override
+    public boolean exists() {
+        return resource.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return resource.isReadable();
+    }
+
+    @Override
+    public boolean isFile() {
+        if (!resource.isFile()) {
+            return false;
+        }
+        try {
+            return !resource.exists() || format() == Format.PLAIN;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        if (!isFile()) {
+            return super.getFile();
+        }
+        return resource.getFile();
+    }
+
+    /**
+     * @return the size of the file, compressed if it is
+     */
+    @Override
+    public long contentLength() throws IOException {
+        return resource.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return resource.lastModified();
+    }
+
+    @Override
+    public String getFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return resource.getDescription();
+    }
+}
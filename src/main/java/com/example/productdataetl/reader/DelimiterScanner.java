@@ -0,0 +1,57 @@
+package com.example.productdataetl.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the bytes that structure a CSV file: the delimiter, the quote and the line feed.
+ * The reader only looks at those positions, instead of testing every byte of a line itself.
+ */
+public interface DelimiterScanner {
+
+    byte QUOTE = '"';
+    byte LINE_FEED = '\n';
+
+    /**
+     * Writes the indexes of the delimiters, quotes and line feeds in {@code bytes[from, to)} to
+     * {@code positions}, in ascending order. Stops early when {@code positions} is full; the
+     * caller then continues after the last position found.
+     *
+     * @param bytes     the bytes to scan
+     * @param from      the first index to scan
+     * @param to        the index after the last one to scan
+     * @param positions receives the indexes found
+     * @return the number of indexes written
+     */
+    int scan(byte[] bytes, int from, int to, int[] positions);
+
+    /**
+     * Creates a scanner for a delimiter, using the Vector API when asked for and available.
+     * The Vector API is an incubating module of the JDK and is only resolved when the JVM is
+     * started with {@code --add-modules jdk.incubator.vector}; otherwise the scalar scanner is
+     * used. The vector scanner is compiled apart with that module, and loaded by name.
+     *
+     * @param delimiter the column delimiter, an ASCII character
+     * @param vector    whether to use the Vector API
+     * @return the scanner
+     */
+    static DelimiterScanner create(char delimiter, boolean vector) {
+        if (delimiter > 0x7F || delimiter == QUOTE || delimiter == LINE_FEED) {
+            throw new IllegalArgumentException("Unsupported delimiter '" + delimiter + "'");
+        }
+        if (vector) {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (DelimiterScanner) Class.forName(DelimiterScanner.class.getPackageName()
+                            + ".VectorDelimiterScanner").getDeclaredConstructor(byte.class).newInstance((byte) delimiter);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create the vector delimiter scanner", e);
+                }
+            }
+            Logger logger = LoggerFactory.getLogger(DelimiterScanner.class);
+            logger.warn("The vector delimiter scanner requires the JVM option --add-modules jdk.incubator.vector,"
+                    + " using the scalar scanner");
+        }
+        return new ScalarDelimiterScanner((byte) delimiter);
+    }
+}
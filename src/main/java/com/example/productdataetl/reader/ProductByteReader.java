@@ -0,0 +1,371 @@
+package com.example.productdataetl.reader;
+
+import com.example.productdataetl.model.Product;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of product CSV files working on the raw UTF-8 bytes instead of decoded lines. The file
+ * is read into a large buffer, a {@link DelimiterScanner} finds the delimiters, quotes and line
+ * feeds in it, and the field bounds of each line are taken from those positions alone. Ids and
+ * prices are parsed from the bytes; only names and descriptions are decoded.
+ * The records match those of a {@code FlatFileItemReader} with a {@link ProductLineMapper}:
+ * the same fields, trimming and unquoting, lines starting with {@code #} skipped as comments,
+ * a line feed always ending a record, and mapping errors reported as
+ * {@link FlatFileParseException}s with the record and the number of its last line. With
+ * {@link #setMultiline} a line feed inside quotes continues the record instead, as the line
+ * reader does with a {@link QuotedRecordSeparatorPolicy}; such a record is rare and is mapped
+ * from its text, with its line breaks as the line reader joins them. Restart skips the lines read
+ * before, as the item count saved in the step's context. When the resource is a BGZF file, read
+ * through a {@link BgzfInputStream}, the virtual offset of the next line is saved as well, and
+ * restart continues from its block without decompressing the blocks before it.
+ */
+public class ProductByteReader extends AbstractItemCountingItemStreamItemReader<Product> {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte COMMENT = '#';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final String VIRTUAL_OFFSET_KEY = "bgzf.virtual.offset";
+    private static final String POSITION_KEY = "position";
+    private static final String LINE_COUNT_KEY = "line.count";
+
+    private final Resource resource;
+    private final ProductLineMapper lineMapper;
+    private final DelimiterScanner scanner;
+    private final int linesToSkip;
+    private final int[] bounds;
+    private final int[] positions;
+    private final ByteChars chars = new ByteChars();
+
+    private InputStream input;
+    private byte[] buffer;
+    private int limit;
+    private boolean endOfInput;
+    private int scanFrom;
+    private int positionCount;
+    private int positionIndex;
+    private int lineCount;
+    // Position of the buffer's first byte in the input
+    private long bufferPosition;
+
+    // The last record read
+    private int recordStart;
+    private int recordEnd;
+    private int fieldCount;
+    private int recordLineBreaks;
+    private int nextRecordStart;
+    private boolean multiline;
+
+    // Where a restart continues in a BGZF file, or -1
+    private long restartVirtualOffset = -1;
+    private long restartPosition;
+    private int restartLineCount;
+    private boolean resumed;
+
+    /**
+     * @param resource    the file to read
+     * @param lineMapper  the mapper defining the columns and how fields become a product
+     * @param scanner     the scanner for the mapper's delimiter
+     * @param linesToSkip the number of header lines
+     * @param bufferSize  the initial buffer size in bytes; it grows for longer lines
+     */
+    public ProductByteReader(Resource resource, ProductLineMapper lineMapper, DelimiterScanner scanner,
+                             int linesToSkip, int bufferSize) {
+        this.resource = resource;
+        this.lineMapper = lineMapper;
+        this.scanner = scanner;
+        this.linesToSkip = linesToSkip;
+        this.bounds = new int[lineMapper.getColumnCount() * 2];
+        this.positions = new int[Math.max(64, bufferSize / 8)];
+        this.buffer = new byte[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * @param multiline whether a line feed inside quotes continues the record rather than
+     *                  ending it; false by default, as with the line reader's default policy
+     */
+    public void setMultiline(boolean multiline) {
+        this.multiline = multiline;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String key = getExecutionContextKey(VIRTUAL_OFFSET_KEY);
+        restartVirtualOffset = executionContext.containsKey(key) ? executionContext.getLong(key) : -1;
+        if (restartVirtualOffset >= 0) {
+            restartPosition = executionContext.getLong(getExecutionContextKey(POSITION_KEY));
+            restartLineCount = executionContext.getInt(getExecutionContextKey(LINE_COUNT_KEY));
+        }
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && input instanceof BgzfInputStream bgzf) {
+            long position = bufferPosition + nextRecordStart;
+            executionContext.putLong(getExecutionContextKey(VIRTUAL_OFFSET_KEY), bgzf.virtualOffset(position));
+            executionContext.putLong(getExecutionContextKey(POSITION_KEY), position);
+            executionContext.putInt(getExecutionContextKey(LINE_COUNT_KEY), lineCount);
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        if (!resource.exists()) {
+            throw new IllegalStateException("Input resource must exist (reader is in 'strict' mode): " + resource);
+        }
+        input = resource.getInputStream();
+        limit = 0;
+        endOfInput = false;
+        scanFrom = 0;
+        positionCount = 0;
+        positionIndex = 0;
+        lineCount = 0;
+        bufferPosition = 0;
+        nextRecordStart = 0;
+        resumed = false;
+        if (restartVirtualOffset >= 0 && isSaveState() && input instanceof BgzfInputStream bgzf) {
+            bgzf.seek(restartVirtualOffset, restartPosition);
+            bufferPosition = restartPosition;
+            lineCount = restartLineCount;
+            resumed = true;
+            return;
+        }
+        for (int i = 0; i < linesToSkip; i++) {
+            if (!readRecord()) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected Product doRead() throws Exception {
+        if (!readItemRecord()) {
+            return null;
+        }
+        String text = recordLineBreaks > 0 ? recordText(recordStart, recordEnd) : null;
+        try {
+            if (text != null) {
+                return lineMapper.mapLine(text, lineCount);
+            }
+            chars.bytes = buffer;
+            return lineMapper.mapFields(chars, recordStart, recordEnd, bounds, fieldCount, lineCount);
+        } catch (Exception e) {
+            String line = text != null ? text : new String(buffer, recordStart, recordEnd - recordStart,
+                    StandardCharsets.UTF_8);
+            throw new FlatFileParseException("Parsing error at line: " + lineCount + " in resource=["
+                    + resource.getDescription() + "], input=[" + line + "]", e, line, lineCount);
+        }
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (resumed) {
+            // Already at the line after the items read before
+            return;
+        }
+        for (int i = 0; i < itemIndex; i++) {
+            if (!readItemRecord()) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (input != null) {
+            input.close();
+            input = null;
+        }
+    }
+
+    /**
+     * Reads the next record that is not a comment.
+     */
+    private boolean readItemRecord() throws IOException {
+        while (readRecord()) {
+            if (recordEnd == recordStart || buffer[recordStart] != COMMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Locates the next record and its fields: the next line, and in multi-line mode the lines
+     * after it while a quote is open.
+     *
+     * @return false at the end of the input
+     * @throws FlatFileParseException if the input ends inside quotes in multi-line mode
+     */
+    private boolean readRecord() throws IOException {
+        int start = nextRecordStart;
+        int column = 0;
+        int fieldStart = start;
+        boolean quoted = false;
+        int lineBreaks = 0;
+        chars.bytes = buffer;
+        while (true) {
+            if (positionIndex == positionCount) {
+                if (scanFrom == limit) {
+                    int shift = fill(start);
+                    if (shift < 0) {
+                        if (start == limit) {
+                            return false;
+                        }
+                        if (quoted && multiline) {
+                            throw unterminatedRecord(start, lineBreaks);
+                        }
+                        // Last line without a line feed
+                        return endRecord(start, limit, limit, column, fieldStart, lineBreaks);
+                    }
+                    // Bytes were added or moved: locate the line's fields again
+                    start -= shift;
+                    column = 0;
+                    fieldStart = start;
+                    quoted = false;
+                    lineBreaks = 0;
+                    chars.bytes = buffer;
+                    continue;
+                }
+                positionCount = scanner.scan(buffer, scanFrom, limit, positions);
+                positionIndex = 0;
+                scanFrom = positionCount == positions.length ? positions[positionCount - 1] + 1 : limit;
+                continue;
+            }
+            int i = positions[positionIndex++];
+            byte b = buffer[i];
+            if (b == DelimiterScanner.QUOTE) {
+                quoted = !quoted;
+            } else if (b == DelimiterScanner.LINE_FEED) {
+                if (quoted && multiline) {
+                    lineBreaks++;
+                } else {
+                    int end = i > start && buffer[i - 1] == CARRIAGE_RETURN ? i - 1 : i;
+                    return endRecord(start, end, i + 1, column, fieldStart, lineBreaks);
+                }
+            } else if (!quoted) {
+                if (column < lineMapper.getColumnCount()) {
+                    ProductLineMapper.field(chars, bounds, column, fieldStart, i);
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    private boolean endRecord(int start, int end, int next, int column, int fieldStart, int lineBreaks) {
+        if (column < lineMapper.getColumnCount()) {
+            ProductLineMapper.field(chars, bounds, column, fieldStart, end);
+        }
+        recordStart = start;
+        recordEnd = end;
+        fieldCount = column + 1;
+        recordLineBreaks = lineBreaks;
+        nextRecordStart = next;
+        lineCount += lineBreaks + 1;
+        return true;
+    }
+
+    /**
+     * Consumes the rest of the input, a record whose quote is never closed, and reports it as
+     * the line reader does.
+     */
+    private FlatFileParseException unterminatedRecord(int start, int lineBreaks) {
+        int end = limit;
+        int lines = lineBreaks + 1;
+        if (buffer[end - 1] == DelimiterScanner.LINE_FEED) {
+            // The last line feed ends the last line rather than starting another
+            lines--;
+            end -= end - 1 > start && buffer[end - 2] == CARRIAGE_RETURN ? 2 : 1;
+        }
+        nextRecordStart = limit;
+        lineCount += lines;
+        return new FlatFileParseException("Unexpected end of file before record complete", recordText(start, end),
+                lineCount);
+    }
+
+    /**
+     * @return the record as the line reader joins its lines, with a line feed between them
+     */
+    private String recordText(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+
+    /**
+     * Reads more of the input, first moving the current line to the start of the buffer, or
+     * growing the buffer if the line fills it. The scan restarts at the current line.
+     *
+     * @param start the start of the current line
+     * @return how far the buffer contents moved back, or -1 at the end of the input
+     */
+    private int fill(int start) throws IOException {
+        if (endOfInput) {
+            return -1;
+        }
+        int shift = 0;
+        if (limit == buffer.length) {
+            if (start == 0) {
+                byte[] larger = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, larger, 0, limit);
+                buffer = larger;
+            } else {
+                System.arraycopy(buffer, start, buffer, 0, limit - start);
+                limit -= start;
+                shift = start;
+                bufferPosition += shift;
+            }
+        }
+        int read = input.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+            if (shift == 0) {
+                return -1;
+            }
+        } else {
+            limit += read;
+        }
+        scanFrom = start - shift;
+        positionCount = 0;
+        positionIndex = 0;
+        return shift;
+    }
+
+    /**
+     * Characters of the buffer as Latin-1, enough to find digits, blanks and quotes, which are
+     * all ASCII. Sub-sequences are decoded as UTF-8, so text fields come out right.
+     */
+    private static final class ByteChars implements CharSequence {
+
+        private byte[] bytes;
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
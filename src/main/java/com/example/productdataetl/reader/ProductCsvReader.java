@@ -1,39 +1,87 @@
 package com.example.productdataetl.reader;
 
 import com.example.productdataetl.model.Product;
-import org.springframework.batch.item.file.FlatFileItemReader;
+import com.example.productdataetl.tuning.BatchTuning;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.file.separator.SimpleRecordSeparatorPolicy;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 
 /**
  * Configuration class for creating ProductCsvReader component.
- * Implements FlatFileItemReader<Product> for reading CSV files and mapping to Product objects.
+ * Implements FlatFileItemReader<Product> for reading CSV files and mapping to Product objects,
+ * or a ProductByteReader splitting the raw bytes with {@code batch.step1.reader=byte}.
+ * Gzip and BGZF input files are decompressed while they are read.
  */
 @Configuration
 public class ProductCsvReader {
 
+    /** Columns of the input file, in file order. */
+    static final String[] COLUMNS = {"id", "name", "description", "price"};
+
+    private static final String BYTE_READER = "byte";
+    private static final String VECTOR_SCANNER = "vector";
+
+    @Value("${batch.input.file:classpath:products.csv}")
+    private Resource inputFile;
+
+    @Value("${batch.step1.reader:line}")
+    private String readerType;
+
+    @Value("${batch.csv.scanner:scalar}")
+    private String scannerType;
+
+    @Value("${batch.csv.multiline:false}")
+    private boolean multiline;
+
+    @Value("${batch.input.decompression.threads:4}")
+    private int decompressionThreads;
+
+    /**
+     * Creates the input file resource shared by the Step 1 modes, decompressing gzip and BGZF
+     * files whatever their name.
+     *
+     * @return the decompressed contents of the file set in batch.input.file
+     */
+    @Bean
+    public Resource productInputFile() {
+        return new DecompressingResource(inputFile, decompressionThreads);
+    }
+
     /**
      * Creates a FlatFileItemReader bean for reading products from CSV file.
-     * Configures DelimitedLineTokenizer and BeanWrapperFieldSetMapper for CSV parsing.
+     * Lines are split and mapped by a ProductLineMapper, which resolves the columns once.
+     * The byte reader produces the same products, locating fields with the scalar or the
+     * vector delimiter scanner set in {@code batch.csv.scanner}. Both end a record at every
+     * line feed, unless {@code batch.csv.multiline} lets a quoted field continue over lines.
+     * The read position is only saved for restart when Step 1 runs single-threaded,
+     * because it is meaningless when several threads consume the file. The byte reader restarts
+     * a BGZF file at the block of the next line; the other readers skip the lines read before.
      * 
-     * @return FlatFileItemReader<Product> configured for products.csv
+     * @param batchTuning the batch settings, whose thread count decides whether state is saved
+     * @return reader configured for the file set in batch.input.file
      */
     @Bean
-    public FlatFileItemReader<Product> productCsvItemReader() {
+    public AbstractItemCountingItemStreamItemReader<Product> productCsvItemReader(BatchTuning batchTuning) {
+        if (BYTE_READER.equals(readerType)) {
+            ProductByteReader reader = new ProductByteReader(productInputFile(), new ProductLineMapper(',', COLUMNS),
+                    DelimiterScanner.create(',', VECTOR_SCANNER.equals(scannerType)), 1,
+                    ProductByteReader.DEFAULT_BUFFER_SIZE);
+            reader.setName("productCsvItemReader");
+            reader.setSaveState(batchTuning.getThreads() == 1);
+            reader.setMultiline(multiline);
+            return reader;
+        }
         return new FlatFileItemReaderBuilder<Product>()
                 .name("productCsvItemReader")
-                .resource(new ClassPathResource("products.csv"))
+                .resource(productInputFile())
+                .saveState(batchTuning.getThreads() == 1)
                 .linesToSkip(1) // Skip header line
-                .delimited()
-                .delimiter(",")
-                .names("id", "name", "description", "price")
-                .fieldSetMapper(new BeanWrapperFieldSetMapper<Product>() {{
-                    setTargetType(Product.class);
-                }})
+                .recordSeparatorPolicy(multiline ? new QuotedRecordSeparatorPolicy() : new SimpleRecordSeparatorPolicy())
+                .lineMapper(new ProductLineMapper(',', COLUMNS))
                 .build();
     }
 }
\ No newline at end of file
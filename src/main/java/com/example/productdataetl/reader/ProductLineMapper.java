@@ -0,0 +1,199 @@
+package com.example.productdataetl.reader;
+
+import com.example.productdataetl.exception.InvalidCsvRecordException;
+import com.example.productdataetl.model.Prices;
+import com.example.productdataetl.model.Product;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.transform.IncorrectTokenCountException;
+
+/**
+ * Line mapper creating {@link Product}s without bean introspection or intermediate field sets.
+ * The column positions are resolved once from the column names. Each line is split in place:
+ * {@code id} and {@code price} are parsed straight from the line, the price to a number of cents,
+ * and only name and description become strings, trimmed before they are copied. Fields may be
+ * quoted with {@code "}, and doubled quotes inside them stand for one, as with
+ * {@code DelimitedLineTokenizer}. As with {@code BeanWrapperFieldSetMapper}, values are trimmed
+ * and blank numbers map to null. A number that cannot be parsed raises an
+ * {@link InvalidCsvRecordException} carrying the line and its number.
+ */
+public class ProductLineMapper implements LineMapper<Product> {
+
+    private static final char QUOTE = '"';
+
+    private final char delimiter;
+    private final int columnCount;
+    private final int idColumn;
+    private final int nameColumn;
+    private final int descriptionColumn;
+    private final int priceColumn;
+
+    /**
+     * @param delimiter the column delimiter
+     * @param names     the column names in file order; each Product property may appear once
+     * @throws IllegalArgumentException if a name is not a Product property or appears twice
+     */
+    public ProductLineMapper(char delimiter, String... names) {
+        int id = -1;
+        int name = -1;
+        int description = -1;
+        int price = -1;
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i]) {
+                case "id" -> id = checkUnassigned(id, names[i], i);
+                case "name" -> name = checkUnassigned(name, names[i], i);
+                case "description" -> description = checkUnassigned(description, names[i], i);
+                case "price" -> price = checkUnassigned(price, names[i], i);
+                default -> throw new IllegalArgumentException("Column '" + names[i] + "' is not a Product property");
+            }
+        }
+        this.delimiter = delimiter;
+        this.columnCount = names.length;
+        this.idColumn = id;
+        this.nameColumn = name;
+        this.descriptionColumn = description;
+        this.priceColumn = price;
+    }
+
+    @Override
+    public Product mapLine(String line, int lineNumber) throws InvalidCsvRecordException {
+        // Start and end of every field, trimmed and without quotes
+        int[] bounds = new int[columnCount * 2];
+        return mapFields(line, 0, line.length(), bounds, split(line, bounds), lineNumber);
+    }
+
+    /**
+     * Maps a record whose fields were already located, as by {@link #field}. Text fields are
+     * created with {@code subSequence(start, end).toString()}, so a source over raw bytes can
+     * decode them there.
+     *
+     * @param source      the characters of the record, possibly among others
+     * @param recordStart the index of the record's first character in the source
+     * @param recordEnd   the index after the record's last character
+     * @param bounds      the bounds of the fields, two entries per column
+     * @param fields      the number of fields found in the record
+     * @param lineNumber  the line number, for error messages
+     * @return the product
+     * @throws InvalidCsvRecordException if the id or price is not a number
+     */
+    Product mapFields(CharSequence source, int recordStart, int recordEnd, int[] bounds, int fields,
+                      int lineNumber) throws InvalidCsvRecordException {
+        if (fields != columnCount) {
+            throw new IncorrectTokenCountException("Incorrect number of tokens found in record",
+                    columnCount, fields, record(source, recordStart, recordEnd));
+        }
+
+        Product product = new Product();
+        if (idColumn >= 0) {
+            int start = bounds[idColumn * 2];
+            int end = bounds[idColumn * 2 + 1];
+            try {
+                product.setId(start == end ? null : Long.parseLong(source, start, end, 10));
+            } catch (NumberFormatException e) {
+                throw new InvalidCsvRecordException("Invalid id '" + source.subSequence(start, end) + "'",
+                        record(source, recordStart, recordEnd), lineNumber, e);
+            }
+        }
+        if (nameColumn >= 0) {
+            product.setName(text(source, bounds, nameColumn));
+        }
+        if (descriptionColumn >= 0) {
+            product.setDescription(text(source, bounds, descriptionColumn));
+        }
+        if (priceColumn >= 0) {
+            int start = bounds[priceColumn * 2];
+            int end = bounds[priceColumn * 2 + 1];
+            try {
+                product.setPriceCents(start == end ? Prices.NO_PRICE : Prices.parseCents(source, start, end));
+            } catch (NumberFormatException e) {
+                throw new InvalidCsvRecordException("Invalid price '" + source.subSequence(start, end) + "'",
+                        record(source, recordStart, recordEnd), lineNumber, e);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * @return the number of columns, half the length of the bounds array
+     */
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Records the bounds of the fields, trimmed and without their quotes, and returns the number
+     * of fields found, which may differ from the number of columns.
+     */
+    private int split(String line, int[] bounds) {
+        int column = 0;
+        int start = 0;
+        boolean quoted = false;
+        int length = line.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? line.charAt(i) : delimiter;
+            if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (c == delimiter && (!quoted || i == length)) {
+                if (column < columnCount) {
+                    field(line, bounds, column, start, i);
+                }
+                column++;
+                start = i + 1;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Records the bounds of a field, trimmed and without its quotes.
+     *
+     * @param line   the characters of the record
+     * @param bounds the bounds of the fields, two entries per column
+     * @param column the column of the field
+     * @param start  the index of the field's first character, after the previous delimiter
+     * @param end    the index of the delimiter or record end after the field
+     */
+    static void field(CharSequence line, int[] bounds, int column, int start, int end) {
+        int fieldStart = trimStart(line, start, end);
+        int fieldEnd = trimEnd(line, fieldStart, end);
+        if (fieldEnd - fieldStart >= 2 && line.charAt(fieldStart) == QUOTE
+                && line.charAt(fieldEnd - 1) == QUOTE) {
+            fieldStart = trimStart(line, fieldStart + 1, fieldEnd - 1);
+            fieldEnd = trimEnd(line, fieldStart, fieldEnd - 1);
+        }
+        bounds[column * 2] = fieldStart;
+        bounds[column * 2 + 1] = fieldEnd;
+    }
+
+    /**
+     * @return the field as a string, with doubled quotes unescaped; only the trimmed range is copied
+     */
+    private static String text(CharSequence line, int[] bounds, int column) {
+        String value = line.subSequence(bounds[column * 2], bounds[column * 2 + 1]).toString();
+        return value.indexOf(QUOTE) >= 0 ? value.replace("\"\"", "\"") : value;
+    }
+
+    private static String record(CharSequence source, int start, int end) {
+        return source.subSequence(start, end).toString();
+    }
+
+    private static int trimStart(CharSequence line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence line, int start, int end) {
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int checkUnassigned(int current, String name, int column) {
+        if (current >= 0) {
+            throw new IllegalArgumentException("Column '" + name + "' appears more than once");
+        }
+        return column;
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.productdataetl.reader;
 
 import com.example.productdataetl.model.Product;
+import com.example.productdataetl.processor.SalesReportProcessor;
+import com.example.productdataetl.tuning.BatchTuning;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JpaPagingItemReader;
+import org.springframework.batch.item.database.builder.JdbcCursorItemReaderBuilder;
 import org.springframework.batch.item.database.builder.JpaPagingItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 
 /**
  * Configuration class for creating a JpaPagingItemReader to read Product entities from the database.
@@ -17,21 +22,53 @@ import jakarta.persistence.EntityManagerFactory;
 @Configuration
 public class ProductReader {
 
+    /**
+     * Report query answered from the covering index idx_products_price (price, id, name):
+     * the price filter is a range scan on the index and the selected columns are all in it.
+     */
+    public static final String COVERING_REPORT_QUERY =
+            "SELECT id, name, price FROM PRODUCTS WHERE price > ? ORDER BY id";
+
     @Autowired
     private EntityManagerFactory entityManagerFactory;
 
     /**
      * Creates a JpaPagingItemReader for reading Product entities from the database.
      * 
+     * @param batchTuning the batch settings providing the page size
      * @return JpaPagingItemReader<Product> configured to read all products with proper ordering
      */
     @Bean
-    public JpaPagingItemReader<Product> productDatabaseReader() {
+    public JpaPagingItemReader<Product> productDatabaseReader(BatchTuning batchTuning) {
         return new JpaPagingItemReaderBuilder<Product>()
                 .name("productDatabaseReader")
                 .entityManagerFactory(entityManagerFactory)
                 .queryString("SELECT p FROM Product p ORDER BY p.id")
-                .pageSize(100)
+                .pageSize(batchTuning.getPageSize())
+                .build();
+    }
+
+    /**
+     * Creates a JdbcCursorItemReader that reads only the products priced above the report
+     * threshold, and only the columns the report needs, so the query can be answered from
+     * the covering index. Description and import date are left null.
+     * 
+     * @param dataSource           the application datasource
+     * @param batchTuning          the batch settings providing the fetch size
+     * @param salesReportProcessor the processor providing the price threshold
+     * @return JdbcCursorItemReader<Product> streaming the report rows in id order
+     */
+    @Bean
+    public JdbcCursorItemReader<Product> productCoveringIndexReader(DataSource dataSource, BatchTuning batchTuning,
+                                                                   SalesReportProcessor salesReportProcessor) {
+        return new JdbcCursorItemReaderBuilder<Product>()
+                .name("productCoveringIndexReader")
+                .dataSource(dataSource)
+                .sql(COVERING_REPORT_QUERY)
+                .queryArguments(salesReportProcessor.getPriceThreshold())
+                .rowMapper((rs, rowNum) -> new Product(rs.getLong("id"), rs.getString("name"), null,
+                        rs.getBigDecimal("price")))
+                .fetchSize(batchTuning.getPageSize())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.example.productdataetl.reader;
+
+import org.springframework.batch.item.file.separator.SimpleRecordSeparatorPolicy;
+
+/**
+ * Record separator policy continuing a record on the next line while a quote is open, so that
+ * a quoted field may hold line breaks. The lines are joined with a line feed. Unlike the
+ * {@code DefaultRecordSeparatorPolicy} of Spring Batch it has no continuation marker: a line
+ * ending with a backslash still ends its record, as it does in the {@link ProductByteReader}.
+ * Step 1 uses it with {@code batch.csv.multiline=true} only.
+ */
+public class QuotedRecordSeparatorPolicy extends SimpleRecordSeparatorPolicy {
+
+    private static final char QUOTE = '"';
+
+    @Override
+    public boolean isEndOfRecord(String record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == QUOTE) {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    @Override
+    public String preProcess(String record) {
+        return isEndOfRecord(record) ? record : record + "\n";
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.productdataetl.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Stream reading its source on a thread of its own, a few chunks ahead of the consumer. Wrapped
+ * around a {@code GZIPInputStream}, it moves the decompression of a gzip file, which cannot be
+ * split, off the thread parsing the decompressed bytes. A failure of the source is thrown to the
+ * consumer once it has read the bytes before it.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks;
+    private final Thread thread;
+    private volatile IOException failure;
+
+    private byte[] current = END;
+    private int index;
+    private boolean ended;
+
+    /**
+     * @param source     the stream to read, closed by the reading thread when done
+     * @param chunkSize  the number of bytes read at a time
+     * @param chunkCount the number of chunks read ahead
+     * @param threadName the name of the reading thread
+     */
+    public ReadAheadInputStream(InputStream source, int chunkSize, int chunkCount, String threadName) {
+        this.chunks = new ArrayBlockingQueue<>(chunkCount);
+        this.thread = new Thread(() -> readAhead(source, chunkSize), threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (index == current.length && !nextChunk()) {
+            return -1;
+        }
+        return current[index++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (index == current.length && !nextChunk()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - index);
+        System.arraycopy(current, index, bytes, offset, count);
+        index += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        ended = true;
+        thread.interrupt();
+    }
+
+    private boolean nextChunk() throws IOException {
+        if (ended) {
+            return false;
+        }
+        try {
+            current = chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        index = 0;
+        if (current == END) {
+            ended = true;
+            if (failure != null) {
+                throw new IOException(failure.getMessage(), failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void readAhead(InputStream source, int chunkSize) {
+        try (source) {
+            while (true) {
+                byte[] chunk = new byte[chunkSize];
+                int length = source.readNBytes(chunk, 0, chunkSize);
+                if (length == 0) {
+                    break;
+                }
+                chunks.put(length == chunkSize ? chunk : Arrays.copyOf(chunk, length));
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+            return;
+        }
+        try {
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productdataetl.reader;
+
+/**
+ * Delimiter scanner testing one byte at a time.
+ */
+class ScalarDelimiterScanner implements DelimiterScanner {
+
+    private final byte delimiter;
+
+    ScalarDelimiterScanner(byte delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public int scan(byte[] bytes, int from, int to, int[] positions) {
+        return scan(bytes, from, to, positions, 0, delimiter);
+    }
+
+    /**
+     * Scans {@code bytes[from, to)}, appending to the positions already found.
+     *
+     * @return the total number of positions, at most {@code positions.length}
+     */
+    static int scan(byte[] bytes, int from, int to, int[] positions, int count, byte delimiter) {
+        for (int i = from; i < to && count < positions.length; i++) {
+            byte b = bytes[i];
+            if (b == delimiter || b == QUOTE || b == LINE_FEED) {
+                positions[count++] = i;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.productdataetl.reader;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Delimiter scanner comparing a whole vector of bytes at once, 32 bytes with AVX2 and 64 with
+ * AVX-512. The matches of a vector come out as a bit mask, whose set bits are the positions.
+ * The tail shorter than a vector is scanned one byte at a time. Only loaded when the
+ * {@code jdk.incubator.vector} module is present, see {@link DelimiterScanner#create}.
+ */
+class VectorDelimiterScanner implements DelimiterScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private final byte delimiter;
+
+    VectorDelimiterScanner(byte delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public int scan(byte[] bytes, int from, int to, int[] positions) {
+        int lanes = SPECIES.length();
+        int count = 0;
+        int i = from;
+        // Every lane may match, so a vector is only scanned while all its matches fit
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound && count + lanes <= positions.length;
+             i += lanes) {
+            ByteVector vector = ByteVector.fromArray(SPECIES, bytes, i);
+            VectorMask<Byte> matches = vector.eq(delimiter).or(vector.eq(QUOTE)).or(vector.eq(LINE_FEED));
+            long bits = matches.toLong();
+            while (bits != 0) {
+                positions[count++] = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return ScalarDelimiterScanner.scan(bytes, i, to, positions, count, delimiter);
+    }
+}
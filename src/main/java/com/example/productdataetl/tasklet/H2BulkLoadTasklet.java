@@ -0,0 +1,183 @@
+package com.example.productdataetl.tasklet;
+
+import com.example.productdataetl.exception.InvalidCsvRecordException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tasklet that loads the product CSV file inside H2 with {@code CSVREAD}, so rows never
+ * pass through the JVM reader, processor and writer. The rules of {@code ProductProcessor}
+ * are applied in SQL: values are trimmed, empty descriptions become NULL, rows without a
+ * positive id, a name or a positive price are filtered, and all loaded rows get the same
+ * import date. Rows whose id or price is not a number are skipped, as the chunk step's
+ * reader would. Filtered and skipped rows are written to {@code PRODUCTS_REJECTS}.
+ * More skipped rows than the skip limit fail the step and roll the load back.
+ */
+public class H2BulkLoadTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2BulkLoadTasklet.class);
+    private static final List<String> EXPECTED_HEADER = Arrays.asList("id", "name", "description", "price");
+    private static final int MAX_LOGGED_REJECTS = 100;
+
+    private static final String INTEGER_PATTERN = "'^[+-]?[0-9]{1,18}$'";
+    private static final String DECIMAL_PATTERN = "'^[+-]?([0-9]+[.]?[0-9]*|[.][0-9]+)([eE][+-]?[0-9]+)?$'";
+
+    // Parse errors come first, as the reader fails before the processor sees the item
+    private static final String REJECT_REASON = "CASE"
+            + " WHEN ID IS NOT NULL AND NOT REGEXP_LIKE(TRIM(ID), " + INTEGER_PATTERN + ") THEN 'Unparseable id'"
+            + " WHEN PRICE IS NOT NULL AND NOT REGEXP_LIKE(TRIM(PRICE), " + DECIMAL_PATTERN + ") THEN 'Unparseable price'"
+            + " WHEN ID IS NULL OR CAST(TRIM(ID) AS BIGINT) <= 0 THEN 'Invalid id'"
+            + " WHEN NAME IS NULL OR TRIM(NAME) = '' THEN 'Invalid name'"
+            // Rounded to cents as it is stored, and as the chunk step's processor sees it
+            + " WHEN PRICE IS NULL OR ROUND(CAST(TRIM(PRICE) AS DECFLOAT), 2) <= 0 THEN 'Invalid price'"
+            + " END";
+
+    private static final String SKIPPED = "(ID IS NOT NULL AND NOT REGEXP_LIKE(TRIM(ID), " + INTEGER_PATTERN + "))"
+            + " OR (PRICE IS NOT NULL AND NOT REGEXP_LIKE(TRIM(PRICE), " + DECIMAL_PATTERN + "))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Resource inputFile;
+    private final int skipLimit;
+
+    /**
+     * @param jdbcTemplate template on the H2 datasource, participating in the step transaction
+     * @param inputFile    the product CSV file
+     * @param skipLimit    maximum number of unparseable rows before the step fails
+     */
+    public H2BulkLoadTasklet(JdbcTemplate jdbcTemplate, Resource inputFile, int skipLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inputFile = inputFile;
+        this.skipLimit = skipLimit;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        Path csv = null;
+        boolean temporary = !inputFile.isFile();
+        try {
+            csv = temporary ? copyToTemporaryFile() : inputFile.getFile().toPath();
+            validateHeader(csv);
+
+            // Local temporary table created in the step transaction: no implicit commit, dropped on commit or rollback
+            jdbcTemplate.execute("CREATE LOCAL TEMPORARY TABLE PRODUCTS_LOAD ON COMMIT DROP TRANSACTIONAL AS"
+                    + " SELECT LINE_NUMBER, ID, NAME, DESCRIPTION, PRICE, " + REJECT_REASON + " AS REASON, "
+                    + SKIPPED + " AS SKIPPED"
+                    + " FROM (SELECT ROWNUM() AS LINE_NUMBER, ID, NAME, DESCRIPTION, PRICE"
+                    + " FROM CSVREAD(" + literal(csv.toAbsolutePath().toString()) + ", 'ID,NAME,DESCRIPTION,PRICE',"
+                    + " 'charset=UTF-8')) WHERE LINE_NUMBER > 1");
+
+            Map<String, Object> counts = jdbcTemplate.queryForMap("SELECT COUNT(*) AS TOTAL,"
+                    + " COUNT(CASE WHEN SKIPPED THEN 1 END) AS SKIPPED,"
+                    + " COUNT(CASE WHEN REASON IS NOT NULL AND NOT SKIPPED THEN 1 END) AS FILTERED"
+                    + " FROM PRODUCTS_LOAD");
+            long total = ((Number) counts.get("TOTAL")).longValue();
+            long skipped = ((Number) counts.get("SKIPPED")).longValue();
+            long filtered = ((Number) counts.get("FILTERED")).longValue();
+
+            logRejects(skipped);
+            if (skipped > skipLimit) {
+                logger.error("Skip limit exceeded. Current skip count: {}, limit: {}", skipped, skipLimit);
+                throw new SkipLimitExceededException(skipLimit, firstSkippedRecord());
+            }
+
+            jdbcTemplate.update("INSERT INTO PRODUCTS_REJECTS"
+                    + " (JOB_EXECUTION_ID, LINE_NUMBER, RAW_ID, RAW_NAME, RAW_DESCRIPTION, RAW_PRICE, REASON, SKIPPED, REJECTED_AT)"
+                    + " SELECT ?, LINE_NUMBER, ID, NAME, DESCRIPTION, PRICE, REASON, SKIPPED, CURRENT_TIMESTAMP"
+                    + " FROM PRODUCTS_LOAD WHERE REASON IS NOT NULL",
+                    chunkContext.getStepContext().getStepExecution().getJobExecutionId());
+
+            // Rows are merged in file order, so a later duplicate id wins as with JpaItemWriter
+            int written = jdbcTemplate.update("MERGE INTO PRODUCTS (ID, NAME, DESCRIPTION, PRICE, IMPORT_DATE) KEY (ID)"
+                    + " SELECT CAST(TRIM(ID) AS BIGINT), TRIM(NAME), NULLIF(TRIM(DESCRIPTION), ''),"
+                    + " CAST(TRIM(PRICE) AS DECIMAL(10, 2)), ?"
+                    + " FROM PRODUCTS_LOAD WHERE REASON IS NULL ORDER BY LINE_NUMBER",
+                    Timestamp.valueOf(LocalDateTime.now()));
+
+            for (long i = 0; i < total - skipped; i++) {
+                contribution.incrementReadCount();
+            }
+            contribution.incrementReadSkipCount(skipped);
+            contribution.incrementFilterCount(filtered);
+            contribution.incrementWriteCount(written);
+            logger.info("Bulk loaded {} rows from {}: {} written, {} filtered, {} skipped",
+                    total, inputFile.getDescription(), written, filtered, skipped);
+            return RepeatStatus.FINISHED;
+        } finally {
+            if (temporary && csv != null) {
+                Files.deleteIfExists(csv);
+            }
+        }
+    }
+
+    private void validateHeader(Path csv) throws IOException, InvalidCsvRecordException {
+        String header;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            header = reader.readLine();
+        }
+        if (header != null && header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = header == null ? List.of()
+                : Arrays.stream(header.split(",", -1)).map(column -> column.trim().toLowerCase()).toList();
+        if (!EXPECTED_HEADER.equals(columns)) {
+            throw new InvalidCsvRecordException("Expected header " + String.join(",", EXPECTED_HEADER), header, 1);
+        }
+    }
+
+    private void logRejects(long skipped) {
+        if (skipped > 0) {
+            logger.warn("{} unparseable rows skipped (limit: {})", skipped, skipLimit);
+        }
+        jdbcTemplate.query("SELECT LINE_NUMBER, ID, NAME, PRICE, REASON, SKIPPED FROM PRODUCTS_LOAD"
+                        + " WHERE REASON IS NOT NULL ORDER BY LINE_NUMBER LIMIT " + MAX_LOGGED_REJECTS,
+                rs -> {
+                    logger.warn("{} line {} (id={}, name={}, price={}): {}",
+                            rs.getBoolean("SKIPPED") ? "Skipping" : "Filtering",
+                            rs.getLong("LINE_NUMBER"), rs.getString("ID"), rs.getString("NAME"),
+                            rs.getString("PRICE"), rs.getString("REASON"));
+                });
+    }
+
+    private InvalidCsvRecordException firstSkippedRecord() {
+        return jdbcTemplate.query("SELECT LINE_NUMBER, ID, NAME, DESCRIPTION, PRICE, REASON FROM PRODUCTS_LOAD"
+                        + " WHERE SKIPPED ORDER BY LINE_NUMBER LIMIT 1",
+                rs -> {
+                    rs.next();
+                    String record = String.join(",", rs.getString("ID"), rs.getString("NAME"),
+                            rs.getString("DESCRIPTION"), rs.getString("PRICE"));
+                    return new InvalidCsvRecordException(rs.getString("REASON"), record, rs.getInt("LINE_NUMBER"));
+                });
+    }
+
+    private Path copyToTemporaryFile() throws IOException {
+        Path copy = Files.createTempFile("products-load", ".csv");
+        try (InputStream in = inputFile.getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.productdataetl.tasklet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tasklet that drops or rebuilds the secondary indexes of the PRODUCTS table around a bulk load.
+ * Maintaining the indexes row by row during a large load costs far more than building them
+ * once afterwards. Dropping only happens when the incoming file holds at least
+ * {@code minRows} rows and at least {@code ratio} times the rows already in the table.
+ * Rebuilding uses {@code CREATE INDEX IF NOT EXISTS}, so it is safe to run after any
+ * drop, after a failed load and again on restart.
+ */
+public class SecondaryIndexTasklet implements Tasklet {
+
+    /** Execution context key recording whether the indexes were dropped. */
+    public static final String INDEXES_DEFERRED_KEY = "index.deferred";
+
+    /** Secondary indexes of PRODUCTS as created by schema.sql. */
+    static final Map<String, String> SECONDARY_INDEXES = new LinkedHashMap<>();
+
+    static {
+        SECONDARY_INDEXES.put("idx_products_price",
+                "CREATE INDEX IF NOT EXISTS idx_products_price ON PRODUCTS(price, id, name)");
+        SECONDARY_INDEXES.put("idx_products_import_date",
+                "CREATE INDEX IF NOT EXISTS idx_products_import_date ON PRODUCTS(import_date)");
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondaryIndexTasklet.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean drop;
+    private final Resource inputFile;
+    private final long minRows;
+    private final double ratio;
+
+    private SecondaryIndexTasklet(JdbcTemplate jdbcTemplate, boolean drop, Resource inputFile, long minRows, double ratio) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.drop = drop;
+        this.inputFile = inputFile;
+        this.minRows = minRows;
+        this.ratio = ratio;
+    }
+
+    /**
+     * @param jdbcTemplate template on the application datasource
+     * @param inputFile    the CSV file about to be loaded
+     * @param minRows      minimum number of incoming rows for dropping to pay off
+     * @param ratio        minimum ratio of incoming rows to rows already in the table
+     * @return tasklet dropping the secondary indexes when the load is large enough
+     */
+    public static SecondaryIndexTasklet drop(JdbcTemplate jdbcTemplate, Resource inputFile, long minRows, double ratio) {
+        return new SecondaryIndexTasklet(jdbcTemplate, true, inputFile, minRows, ratio);
+    }
+
+    /**
+     * @param jdbcTemplate template on the application datasource
+     * @return tasklet creating any missing secondary index
+     */
+    public static SecondaryIndexTasklet rebuild(JdbcTemplate jdbcTemplate) {
+        return new SecondaryIndexTasklet(jdbcTemplate, false, null, 0, 0);
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        if (drop) {
+            boolean deferred = dropIfWorthwhile();
+            contribution.getStepExecution().getExecutionContext().putString(INDEXES_DEFERRED_KEY, String.valueOf(deferred));
+        } else {
+            rebuildIndexes();
+        }
+        return RepeatStatus.FINISHED;
+    }
+
+    private boolean dropIfWorthwhile() throws IOException {
+        if (!inputFile.exists()) {
+            // Let the load step report the missing file
+            logger.info("Keeping secondary indexes: {} does not exist", inputFile.getDescription());
+            return false;
+        }
+        long incoming = countDataLines(inputFile);
+        long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS", Long.class);
+        if (incoming < minRows || incoming < existing * ratio) {
+            logger.info("Keeping secondary indexes: {} incoming rows, {} existing rows (minimum {} rows, ratio {})",
+                    incoming, existing, minRows, ratio);
+            return false;
+        }
+        logger.info("Dropping secondary indexes for bulk load: {} incoming rows, {} existing rows", incoming, existing);
+        for (String index : SECONDARY_INDEXES.keySet()) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+        return true;
+    }
+
+    private void rebuildIndexes() {
+        long start = System.nanoTime();
+        for (String ddl : SECONDARY_INDEXES.values()) {
+            jdbcTemplate.execute(ddl);
+        }
+        logger.info("Secondary indexes in place after {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return number of lines after the header, counting a last line without line break
+     */
+    static long countDataLines(Resource resource) throws IOException {
+        long lines = 0;
+        int last = '\n';
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = resource.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                last = buffer[read - 1];
+            }
+        }
+        if (last != '\n') {
+            lines++;
+        }
+        return Math.max(0, lines - 1);
+    }
+}
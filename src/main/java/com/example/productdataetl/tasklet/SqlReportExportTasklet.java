@@ -0,0 +1,116 @@
+package com.example.productdataetl.tasklet;
+
+import com.example.productdataetl.writer.SalesReportWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Tasklet that produces the sales report with a single query run in the database:
+ * products priced above the threshold, ordered by id, projected to id, name and price.
+ * On H2 the file is written by {@code CSVWRITE} inside the database; on other databases
+ * the rows are streamed through JDBC straight to the file. Both produce the same bytes
+ * as the chunk-oriented Step 2: the {@link SalesReportWriter#HEADER} line, unquoted
+ * comma-separated values, UTF-8 and the platform line separator.
+ * The report is written to a temporary file and renamed when complete.
+ */
+public class SqlReportExportTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlReportExportTasklet.class);
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path outputFile;
+    private final BigDecimal priceThreshold;
+    private final boolean useCsvWrite;
+
+    /**
+     * @param jdbcTemplate   template on the application datasource
+     * @param outputFile     the report file
+     * @param priceThreshold products priced at or below this value are left out
+     * @param useCsvWrite    true to let H2 write the file with CSVWRITE
+     */
+    public SqlReportExportTasklet(JdbcTemplate jdbcTemplate, Path outputFile, BigDecimal priceThreshold,
+                                  boolean useCsvWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outputFile = outputFile;
+        this.priceThreshold = priceThreshold;
+        this.useCsvWrite = useCsvWrite;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        Path directory = outputFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "." + outputFile.getFileName(), ".tmp");
+        try {
+            long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS", Long.class);
+            long written = useCsvWrite ? csvWrite(temporary) : stream(temporary);
+            move(temporary, outputFile);
+
+            for (long i = 0; i < total; i++) {
+                contribution.incrementReadCount();
+            }
+            contribution.incrementFilterCount(total - written);
+            contribution.incrementWriteCount(written);
+            logger.info("Exported {} of {} products priced above {} to {}", written, total, priceThreshold, outputFile);
+            return RepeatStatus.FINISHED;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private long csvWrite(Path file) {
+        String query = "SELECT ID AS \"productId\", NAME AS \"productName\", PRICE AS \"price\""
+                + " FROM PRODUCTS WHERE PRICE > " + priceThreshold.toPlainString() + " ORDER BY ID";
+        // Empty delimiter and escape characters disable quoting, as DelimitedLineAggregator does
+        String options = "charset=UTF-8 fieldDelimiter= escape= lineSeparator=" + System.lineSeparator();
+        Integer rows = jdbcTemplate.queryForObject("CALL CSVWRITE(?, ?, ?)", Integer.class,
+                file.toAbsolutePath().toString(), query, options);
+        return rows != null ? rows : 0;
+    }
+
+    private long stream(Path file) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        long[] rows = new long[1];
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(SalesReportWriter.HEADER);
+            writer.write(lineSeparator);
+            jdbcTemplate.setFetchSize(FETCH_SIZE);
+            jdbcTemplate.query("SELECT ID, NAME, PRICE FROM PRODUCTS WHERE PRICE > ? ORDER BY ID",
+                    rs -> {
+                        try {
+                            writer.write(rs.getLong(1) + "," + rs.getString(2) + "," + rs.getBigDecimal(3));
+                            writer.write(lineSeparator);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    },
+                    priceThreshold);
+        }
+        return rows[0];
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
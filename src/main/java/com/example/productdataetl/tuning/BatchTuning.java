@@ -0,0 +1,88 @@
+package com.example.productdataetl.tuning;
+
+import java.util.Objects;
+
+/**
+ * The batch settings that drive throughput: chunk size (items per transaction),
+ * page size of the database reader and the number of threads that process
+ * Step 1 chunks concurrently.
+ */
+public final class BatchTuning {
+
+    private final int chunkSize;
+    private final int pageSize;
+    private final int threads;
+
+    public BatchTuning(int chunkSize, int pageSize, int threads) {
+        if (chunkSize < 1 || pageSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Chunk size, page size and threads must be positive: "
+                    + chunkSize + ", " + pageSize + ", " + threads);
+        }
+        this.chunkSize = chunkSize;
+        this.pageSize = pageSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Parses a key produced by {@link #key()}.
+     *
+     * @param key the key, e.g. {@code c100-p400-t2}
+     * @return the settings
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    public static BatchTuning fromKey(String key) {
+        String[] parts = key.split("-");
+        if (parts.length != 3 || !parts[0].startsWith("c") || !parts[1].startsWith("p") || !parts[2].startsWith("t")) {
+            throw new IllegalArgumentException("Invalid tuning key: " + key);
+        }
+        try {
+            return new BatchTuning(
+                    Integer.parseInt(parts[0].substring(1)),
+                    Integer.parseInt(parts[1].substring(1)),
+                    Integer.parseInt(parts[2].substring(1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid tuning key: " + key, e);
+        }
+    }
+
+    /**
+     * @return compact identifier of these settings, used as key in the tuning store
+     */
+    public String key() {
+        return "c" + chunkSize + "-p" + pageSize + "-t" + threads;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatchTuning)) {
+            return false;
+        }
+        BatchTuning that = (BatchTuning) o;
+        return chunkSize == that.chunkSize && pageSize == that.pageSize && threads == that.threads;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(chunkSize, pageSize, threads);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchTuning{chunkSize=" + chunkSize + ", pageSize=" + pageSize + ", threads=" + threads + "}";
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productdataetl.tuning;
+
+/**
+ * Relates the connection pool size to the step concurrency. Every Step 1 worker holds one
+ * connection for its chunk transaction; the headroom covers the connections used next to
+ * them: job repository updates outside the chunk transactions and the Step 2 JPA reader,
+ * which reads each page with its own entity manager.
+ */
+public final class ConnectionPoolSizing {
+
+    private ConnectionPoolSizing() {
+    }
+
+    /**
+     * @param workerThreads number of Step 1 worker threads
+     * @param headroom      connections reserved for the job repository and readers
+     * @return the pool size the job needs
+     */
+    public static int requiredPoolSize(int workerThreads, int headroom) {
+        return Math.max(1, workerThreads) + Math.max(0, headroom);
+    }
+
+    /**
+     * Fails when the workers could not all get a connection, instead of letting them
+     * block in {@code getConnection} until the pool's connection timeout.
+     *
+     * @param workerThreads number of Step 1 worker threads
+     * @param headroom      connections reserved for the job repository and readers
+     * @param poolSize      maximum size of the connection pool
+     * @throws IllegalStateException if the pool is too small
+     */
+    public static void check(int workerThreads, int headroom, int poolSize) {
+        int required = requiredPoolSize(workerThreads, headroom);
+        if (poolSize < required) {
+            throw new IllegalStateException(String.format(
+                    "Step 1 runs %d worker threads but the connection pool allows only %d connections; "
+                            + "%d are needed (%d workers + %d for the job repository and readers). "
+                            + "Raise spring.datasource.hikari.maximum-pool-size to at least %d, remove it so the pool "
+                            + "is sized automatically, or lower batch.thread.pool.size.",
+                    workerThreads, poolSize, required, workerThreads, headroom, required));
+        }
+    }
+}
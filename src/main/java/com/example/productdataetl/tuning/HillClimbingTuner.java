@@ -0,0 +1,82 @@
+package com.example.productdataetl.tuning;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chooses the settings for the next run by hill climbing over past measurements.
+ * Starting from the best measured settings, each run tries one untested neighbour
+ * (chunk size or page size doubled or halved, one thread more or fewer). Once every
+ * neighbour of the best settings has been measured and none is faster, the search
+ * has converged and the best settings are kept.
+ */
+public class HillClimbingTuner {
+
+    private final int maxThreads;
+
+    /**
+     * @param maxThreads upper bound for the number of threads to try
+     */
+    public HillClimbingTuner(int maxThreads) {
+        this.maxThreads = Math.max(1, maxThreads);
+    }
+
+    /**
+     * @param baseline settings to start from when nothing has been measured yet
+     * @param history  measured throughput per settings
+     * @return the settings to use for the next run
+     */
+    public BatchTuning next(BatchTuning baseline, Map<BatchTuning, Double> history) {
+        BatchTuning best = best(history);
+        if (best == null) {
+            return baseline;
+        }
+        for (BatchTuning neighbour : neighbours(best)) {
+            if (!history.containsKey(neighbour)) {
+                return neighbour;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param history measured throughput per settings
+     * @return the settings with the highest throughput, or null if there is none
+     */
+    public BatchTuning best(Map<BatchTuning, Double> history) {
+        BatchTuning best = null;
+        double bestThroughput = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<BatchTuning, Double> entry : history.entrySet()) {
+            if (entry.getValue() > bestThroughput) {
+                best = entry.getKey();
+                bestThroughput = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    List<BatchTuning> neighbours(BatchTuning tuning) {
+        int chunk = tuning.getChunkSize();
+        int page = tuning.getPageSize();
+        int threads = tuning.getThreads();
+        List<BatchTuning> neighbours = new ArrayList<>();
+        addIfDifferent(neighbours, tuning, chunk * 2L, page, threads);
+        addIfDifferent(neighbours, tuning, chunk / 2, page, threads);
+        addIfDifferent(neighbours, tuning, chunk, page * 2L, threads);
+        addIfDifferent(neighbours, tuning, chunk, page / 2, threads);
+        addIfDifferent(neighbours, tuning, chunk, page, threads + 1L);
+        addIfDifferent(neighbours, tuning, chunk, page, threads - 1L);
+        return neighbours;
+    }
+
+    private void addIfDifferent(List<BatchTuning> neighbours, BatchTuning origin, long chunk, long page, long threads) {
+        BatchTuning candidate = new BatchTuning(
+                TuningAdvisor.clamp(chunk, TuningAdvisor.MIN_CHUNK_SIZE, TuningAdvisor.MAX_CHUNK_SIZE),
+                TuningAdvisor.clamp(page, TuningAdvisor.MIN_PAGE_SIZE, TuningAdvisor.MAX_PAGE_SIZE),
+                TuningAdvisor.clamp(threads, 1, maxThreads));
+        if (!candidate.equals(origin) && !neighbours.contains(candidate)) {
+            neighbours.add(candidate);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.productdataetl.tuning;
+
+import org.springframework.batch.repeat.support.TaskExecutorRepeatTemplate;
+
+/**
+ * Derives starting batch settings from the resources available to the run.
+ * The estimates are deliberately conservative; {@link HillClimbingTuner} refines
+ * them from the throughput measured on later runs.
+ */
+public class TuningAdvisor {
+
+    /**
+     * Chunks of a multi-threaded step run at once: the throttle limit of its repeat template,
+     * which is deprecated for removal in Spring Batch 5 rather than configurable.
+     */
+    public static final int MAX_CONCURRENT_CHUNKS = TaskExecutorRepeatTemplate.DEFAULT_THROTTLE_LIMIT;
+
+    static final int MIN_CHUNK_SIZE = 10;
+    static final int MAX_CHUNK_SIZE = 5000;
+    static final int MIN_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 10000;
+
+    /** Rough size of one CSV record, used to estimate the item count from the file size. */
+    private static final long BYTES_PER_RECORD = 100;
+    /** Rough heap held per in-flight item: the entity, its persistence context entry and snapshot. */
+    private static final long HEAP_BYTES_PER_ITEM = 4 * 1024;
+    /** Input smaller than this per thread is not worth splitting across threads. */
+    private static final long BYTES_PER_THREAD = 4L * 1024 * 1024;
+    /** Aim for this many chunks per thread so commit overhead stays small but progress is visible. */
+    private static final long CHUNKS_PER_THREAD = 50;
+
+    private final int availableProcessors;
+    private final long maxHeapBytes;
+    private final int connectionPoolSize;
+    private final int reservedConnections;
+
+    /**
+     * @param availableProcessors number of cores available to the JVM
+     * @param maxHeapBytes        maximum heap size
+     * @param connectionPoolSize  maximum size of the connection pool
+     */
+    public TuningAdvisor(int availableProcessors, long maxHeapBytes, int connectionPoolSize) {
+        this(availableProcessors, maxHeapBytes, connectionPoolSize, 1);
+    }
+
+    /**
+     * @param availableProcessors number of cores available to the JVM
+     * @param maxHeapBytes        maximum heap size
+     * @param connectionPoolSize  maximum size of the connection pool
+     * @param reservedConnections connections kept free for the job repository and readers
+     */
+    public TuningAdvisor(int availableProcessors, long maxHeapBytes, int connectionPoolSize, int reservedConnections) {
+        this.availableProcessors = Math.max(1, availableProcessors);
+        this.maxHeapBytes = maxHeapBytes;
+        this.connectionPoolSize = Math.max(1, connectionPoolSize);
+        this.reservedConnections = Math.max(0, reservedConnections);
+    }
+
+    /**
+     * Derives settings for an input of the given size.
+     *
+     * @param inputBytes size of the input file, or 0 if unknown
+     * @return the suggested settings
+     */
+    public BatchTuning advise(long inputBytes) {
+        int threads = (int) Math.max(1, Math.min(maxThreads(), inputBytes / BYTES_PER_THREAD));
+
+        long estimatedItems = Math.max(1, inputBytes / BYTES_PER_RECORD);
+        long chunk = estimatedItems / (threads * CHUNKS_PER_THREAD);
+        // Keep the items held by all in-flight chunks within a sixteenth of the heap
+        long heapBound = maxHeapBytes / 16 / HEAP_BYTES_PER_ITEM / threads;
+        int chunkSize = clamp(Math.min(chunk, heapBound), MIN_CHUNK_SIZE, MAX_CHUNK_SIZE);
+
+        int pageSize = clamp((long) chunkSize * 4, MIN_PAGE_SIZE, MAX_PAGE_SIZE);
+        return new BatchTuning(chunkSize, pageSize, threads);
+    }
+
+    /**
+     * The reserved connections stay free for the job repository updates made outside the chunk
+     * transactions and for the readers. Threads beyond {@link #MAX_CONCURRENT_CHUNKS} would
+     * stay idle.
+     *
+     * @return upper bound for the number of Step 1 threads
+     */
+    public int maxThreads() {
+        return Math.max(1, Math.min(Math.min(availableProcessors, MAX_CONCURRENT_CHUNKS),
+                connectionPoolSize - reservedConnections));
+    }
+
+    static int clamp(long value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.productdataetl.tuning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Small properties file that remembers the throughput measured for each combination
+ * of feed and batch settings. Entries look like
+ * {@code products.c100-p400-t2.throughput=1234.5} and {@code products.c100-p400-t2.runs=3}.
+ * Repeated measurements of the same settings are averaged to damp run-to-run noise.
+ */
+public class TuningStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TuningStore.class);
+    private static final String THROUGHPUT_SUFFIX = ".throughput";
+    private static final String RUNS_SUFFIX = ".runs";
+
+    private final Path file;
+
+    public TuningStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @param feed name of the feed
+     * @return the measured throughput in items per second for each settings tried on the feed
+     */
+    public synchronized Map<BatchTuning, Double> history(String feed) {
+        Properties properties = load();
+        String prefix = feed + ".";
+        Map<BatchTuning, Double> history = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix) && name.endsWith(THROUGHPUT_SUFFIX)) {
+                String key = name.substring(prefix.length(), name.length() - THROUGHPUT_SUFFIX.length());
+                try {
+                    history.put(BatchTuning.fromKey(key), Double.parseDouble(properties.getProperty(name)));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring malformed tuning entry '{}' in {}", name, file);
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Records a throughput measurement, averaging it with earlier runs of the same settings.
+     *
+     * @param feed          name of the feed
+     * @param tuning        the settings the run used
+     * @param itemsPerSecond the measured throughput
+     * @throws IOException if the store cannot be written
+     */
+    public synchronized void record(String feed, BatchTuning tuning, double itemsPerSecond) throws IOException {
+        Properties properties = load();
+        String prefix = feed + "." + tuning.key();
+        int runs = Integer.parseInt(properties.getProperty(prefix + RUNS_SUFFIX, "0"));
+        double previous = Double.parseDouble(properties.getProperty(prefix + THROUGHPUT_SUFFIX, "0"));
+        double average = (previous * runs + itemsPerSecond) / (runs + 1);
+        properties.setProperty(prefix + THROUGHPUT_SUFFIX, String.valueOf(average));
+        properties.setProperty(prefix + RUNS_SUFFIX, String.valueOf(runs + 1));
+        save(properties);
+    }
+
+    private Properties load() {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                logger.warn("Could not read tuning store {}: {}", file, e.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private void save(Properties properties) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "." + file.getFileName(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Measured throughput (items/s) per feed and batch settings");
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.productdataetl.writer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compressor building gzip members on a thread of its own. Bytes are handed over as they are
+ * produced and deflated in the background; finishing the member waits for the bytes before it
+ * and returns the complete member, header and trailer included. Members written one after the
+ * other form a valid gzip file, which is cut on a member boundary by truncating it to the end of
+ * any of them. A failure to deflate bytes handed over is thrown when the member is finished.
+ * The compressor is used by one writer thread at a time.
+ */
+class GzipMemberCompressor implements AutoCloseable {
+
+    private static final byte[] HEADER = {0x1F, (byte) 0x8B, 8, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+    private static final int TRAILER_SIZE = 8;
+
+    private final ExecutorService compressor;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    // Bytes handed over to the current member, checked when it is finished
+    private final List<Future<?>> slices = new ArrayList<>();
+
+    // Accessed by the compressor thread only
+    private byte[] output = new byte[64 * 1024];
+    private int outputLength;
+
+    /**
+     * @param level      the deflate level, from 0 (stored) to 9 (smallest)
+     * @param threadName the name of the compressing thread
+     */
+    GzipMemberCompressor(int level, String threadName) {
+        this(new Deflater(level, true), threadName);
+    }
+
+    /**
+     * @param deflater   the deflater of the members, producing raw deflate data
+     * @param threadName the name of the compressing thread
+     */
+    GzipMemberCompressor(Deflater deflater, String threadName) {
+        this.deflater = deflater;
+        this.compressor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        startMember();
+    }
+
+    /**
+     * Hands bytes over to be deflated into the current member. They are copied, so the caller may
+     * reuse its buffer at once.
+     */
+    void add(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        byte[] copy = Arrays.copyOfRange(bytes, offset, offset + length);
+        slices.add(compressor.submit(() -> deflate(copy)));
+    }
+
+    /**
+     * Deflates the last bytes of the member, waits for the member to be complete and starts the next one.
+     *
+     * @return the complete member
+     * @throws IOException if the compressing thread failed, on these bytes or on any handed over
+     *                     before them, or was interrupted
+     */
+    byte[] finish(byte[] bytes, int offset, int length) throws IOException {
+        add(bytes, offset, length);
+        Future<byte[]> member = compressor.submit(this::finishMember);
+        try {
+            for (Future<?> slice : slices) {
+                await(slice);
+            }
+        } finally {
+            slices.clear();
+        }
+        return await(member);
+    }
+
+    /**
+     * Drops the bytes handed over since the last finished member.
+     */
+    void discard() {
+        slices.clear();
+        compressor.execute(this::startMember);
+    }
+
+    @Override
+    public void close() {
+        compressor.execute(deflater::end);
+        compressor.shutdown();
+    }
+
+    private void deflate(byte[] bytes) {
+        crc.update(bytes);
+        deflater.setInput(bytes);
+        while (!deflater.needsInput()) {
+            drain();
+        }
+    }
+
+    private byte[] finishMember() {
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain();
+        }
+        ensureCapacity(TRAILER_SIZE);
+        writeInt((int) crc.getValue());
+        writeInt(deflater.getTotalIn());
+        byte[] member = Arrays.copyOf(output, outputLength);
+        startMember();
+        return member;
+    }
+
+    private void startMember() {
+        deflater.reset();
+        crc.reset();
+        System.arraycopy(HEADER, 0, output, 0, HEADER.length);
+        outputLength = HEADER.length;
+    }
+
+    private void drain() {
+        ensureCapacity(1024);
+        outputLength += deflater.deflate(output, outputLength, output.length - outputLength);
+    }
+
+    private void ensureCapacity(int free) {
+        if (output.length - outputLength < free) {
+            output = Arrays.copyOf(output, Math.max(output.length * 2, outputLength + free));
+        }
+    }
+
+    private void writeInt(int value) {
+        for (int i = 0; i < 4; i++) {
+            output[outputLength++] = (byte) (value >> (8 * i));
+        }
+    }
+
+    private <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing the report");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not compress the report", e.getCause());
+        }
+    }
+}
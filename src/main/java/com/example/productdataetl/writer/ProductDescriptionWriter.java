@@ -0,0 +1,41 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.model.Product;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ItemWriter that stores product descriptions in PRODUCT_DESCRIPTIONS for the side-table layout.
+ * It runs after the product writer in the same chunk transaction, so a product and its
+ * description are committed or rolled back together. The previous description of each
+ * product is replaced, and products without a description have none stored.
+ */
+public class ProductDescriptionWriter implements ItemWriter<Product> {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductDescriptionWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Product> chunk) {
+        List<Object[]> ids = new ArrayList<>();
+        List<Object[]> descriptions = new ArrayList<>();
+        for (Product product : chunk) {
+            ids.add(new Object[] {product.getId()});
+            if (product.getDescription() != null) {
+                descriptions.add(new Object[] {product.getId(), product.getDescription()});
+            }
+        }
+        jdbcTemplate.batchUpdate("DELETE FROM PRODUCT_DESCRIPTIONS WHERE product_id = ?", ids);
+        if (!descriptions.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO PRODUCT_DESCRIPTIONS (product_id, description) VALUES (?, ?)",
+                    descriptions);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.model.Prices;
+import com.example.productdataetl.model.Product;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * ItemWriter appending products to PRODUCTS_STAGING in one JDBC batch per chunk. The statement
+ * parameters are bound straight from the getters of the products, rather than looking up bean
+ * properties of every product.
+ * Like {@code JdbcBatchItemWriter} with {@code assertUpdates}, a row that was not inserted
+ * fails the chunk.
+ */
+public class ProductStagingWriter implements ItemWriter<Product> {
+
+    static final String INSERT_SQL = "INSERT INTO PRODUCTS_STAGING (id, name, description, price, import_date)"
+            + " VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStagingWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Product> chunk) {
+        List<? extends Product> products = chunk.getItems();
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int row) throws SQLException {
+                Product product = products.get(row);
+                if (product.getId() == null) {
+                    ps.setNull(1, Types.BIGINT);
+                } else {
+                    ps.setLong(1, product.getId());
+                }
+                ps.setString(2, product.getName());
+                ps.setString(3, product.getDescription());
+                ps.setBigDecimal(4, Prices.toBigDecimal(product.getPriceCents()));
+                ps.setTimestamp(5, product.getImportDate() != null ? Timestamp.valueOf(product.getImportDate()) : null);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+        for (int row = 0; row < counts.length; row++) {
+            if (counts[row] == 0) {
+                throw new EmptyResultDataAccessException("Item " + row + " of " + counts.length
+                        + " did not insert a staging row", 1);
+            }
+        }
+    }
+}
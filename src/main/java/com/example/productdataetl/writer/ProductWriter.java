@@ -6,6 +6,9 @@ import org.springframework.batch.item.database.JpaItemWriter;
 import org.springframework.batch.item.database.builder.JpaItemWriterBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
 
 /**
  * Configuration class for creating ProductWriter component.
@@ -27,4 +30,16 @@ public class ProductWriter {
                 .entityManagerFactory(entityManagerFactory)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a ProductStagingWriter bean that appends Product entities to PRODUCTS_STAGING.
+     * Used by Step 1 when staging is enabled; the rows are published to PRODUCTS afterwards.
+     * 
+     * @param dataSource the application datasource
+     * @return ProductStagingWriter inserting into the staging table
+     */
+    @Bean
+    public ProductStagingWriter productStagingItemWriter(DataSource dataSource) {
+        return new ProductStagingWriter(new JdbcTemplate(dataSource));
+    }
+}
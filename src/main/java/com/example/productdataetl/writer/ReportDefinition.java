@@ -0,0 +1,269 @@
+package com.example.productdataetl.writer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Definition of one report of Step 2: the products priced above a threshold, or within a price
+ * band, written to a file of their own, or the count, lowest, highest and total price of the
+ * products in each of several bands. Definitions are given as
+ * {@code name:above:THRESHOLD:path}, {@code name:band:LOW..HIGH:path} or
+ * {@code name:summary:LOW..HIGH,LOW..HIGH:path}; a band holds the prices above {@code LOW} up
+ * to and including {@code HIGH}, and {@code LOW..} has no upper bound. Several definitions are
+ * separated by commas too, so a name may not hold {@code ..}. Products without a price are in no
+ * report.
+ */
+public final class ReportDefinition {
+
+    private static final String ABOVE = "above";
+    private static final String BAND = "band";
+    private static final String SUMMARY = "summary";
+    private static final String BAND_SEPARATOR = "..";
+
+    private final String name;
+    private final BigDecimal lowerBound;
+    private final BigDecimal upperBound;
+    private final String location;
+    private final List<Band> bands;
+
+    /**
+     * @param name       the name of the report, unique among the definitions
+     * @param lowerBound the price a product must exceed
+     * @param upperBound the highest price of the report, null for none
+     * @param location   the report file
+     */
+    public ReportDefinition(String name, BigDecimal lowerBound, BigDecimal upperBound, String location) {
+        if (upperBound != null && upperBound.compareTo(lowerBound) <= 0) {
+            throw new IllegalArgumentException("Report " + name + " has an empty price band " + lowerBound + BAND_SEPARATOR
+                    + upperBound);
+        }
+        this.name = name;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.location = location;
+        this.bands = null;
+    }
+
+    /**
+     * Creates the definition of a summary report.
+     *
+     * @param name     the name of the report, unique among the definitions
+     * @param bands    the price bands summarized, at least one
+     * @param location the report file
+     * @throws IllegalArgumentException if there is no band
+     */
+    public static ReportDefinition summary(String name, List<Band> bands, String location) {
+        return new ReportDefinition(name, bands, location);
+    }
+
+    private ReportDefinition(String name, List<Band> bands, String location) {
+        if (bands.isEmpty()) {
+            throw new IllegalArgumentException("Summary report " + name + " has no price band");
+        }
+        this.name = name;
+        this.bands = List.copyOf(bands);
+        this.lowerBound = bands.stream().map(Band::getLowerBound).min(BigDecimal::compareTo).orElseThrow();
+        this.upperBound = bands.stream().anyMatch(band -> band.getUpperBound() == null) ? null
+                : bands.stream().map(Band::getUpperBound).max(BigDecimal::compareTo).orElseThrow();
+        this.location = location;
+    }
+
+    /**
+     * Parses definitions separated by commas. A part starting with a price band rather than a
+     * name continues the bands of the summary before it, until that summary has its path.
+     *
+     * @param definitions the definitions, blank for none
+     * @return the definitions in the order given
+     * @throws IllegalArgumentException if a definition is malformed or a name is used twice
+     */
+    public static List<ReportDefinition> parseAll(String definitions) {
+        List<ReportDefinition> reports = new ArrayList<>();
+        if (definitions == null || definitions.isBlank()) {
+            return reports;
+        }
+        List<String> parts = new ArrayList<>();
+        for (String part : definitions.split(",")) {
+            String name = part.trim().split(":", 2)[0];
+            if (name.contains(BAND_SEPARATOR) && !parts.isEmpty() && lacksPath(parts.get(parts.size() - 1))) {
+                parts.set(parts.size() - 1, parts.get(parts.size() - 1) + "," + part.trim());
+            } else {
+                parts.add(part.trim());
+            }
+        }
+        for (String definition : parts) {
+            ReportDefinition report = parse(definition);
+            if (reports.stream().anyMatch(other -> other.name.equals(report.name))) {
+                throw new IllegalArgumentException("Report " + report.name + " is defined twice");
+            }
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    /**
+     * Tells whether a summary definition split at a comma between its bands still lacks its path.
+     */
+    private static boolean lacksPath(String definition) {
+        String[] parts = definition.split(":", 4);
+        return parts.length == 3 && SUMMARY.equals(parts[1]);
+    }
+
+    /**
+     * @param definition {@code name:above:THRESHOLD:path}, {@code name:band:LOW..HIGH:path} or
+     *                   {@code name:summary:LOW..HIGH,LOW..HIGH:path}
+     * @return the definition
+     * @throws IllegalArgumentException if the definition is malformed
+     */
+    public static ReportDefinition parse(String definition) {
+        // The path may hold colons itself, as in file:reports/over_50.csv
+        String[] parts = definition.split(":", 4);
+        if (parts.length < 4 || parts[0].isBlank() || parts[3].isBlank()) {
+            throw new IllegalArgumentException("Report definition '" + definition
+                    + "' is not name:above:THRESHOLD:path, name:band:LOW..HIGH:path"
+                    + " or name:summary:LOW..HIGH,LOW..HIGH:path");
+        }
+        try {
+            if (ABOVE.equals(parts[1])) {
+                return new ReportDefinition(parts[0], new BigDecimal(parts[2]), null, parts[3]);
+            }
+            if (BAND.equals(parts[1])) {
+                Band band = parseBand(parts[0], parts[2]);
+                return new ReportDefinition(parts[0], band.getLowerBound(), band.getUpperBound(), parts[3]);
+            }
+            if (SUMMARY.equals(parts[1])) {
+                List<Band> bands = new ArrayList<>();
+                for (String band : parts[2].split(",")) {
+                    bands.add(parseBand(parts[0], band.trim()));
+                }
+                return new ReportDefinition(parts[0], bands, parts[3]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Report definition '" + definition + "' has an invalid price", e);
+        }
+        throw new IllegalArgumentException("Report " + parts[0] + " has unknown type '" + parts[1]
+                + "', expected " + ABOVE + ", " + BAND + " or " + SUMMARY);
+    }
+
+    private static Band parseBand(String name, String band) {
+        int separator = band.indexOf(BAND_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Price band '" + band + "' of report " + name + " is not LOW..HIGH");
+        }
+        String upper = band.substring(separator + BAND_SEPARATOR.length());
+        BigDecimal lowerBound = new BigDecimal(band.substring(0, separator));
+        BigDecimal upperBound = upper.isEmpty() ? null : new BigDecimal(upper);
+        if (upperBound != null && upperBound.compareTo(lowerBound) <= 0) {
+            throw new IllegalArgumentException("Report " + name + " has an empty price band " + band);
+        }
+        return new Band(lowerBound, upperBound);
+    }
+
+    /**
+     * @param reports the report definitions, at least one
+     * @return the lowest price a product must exceed to be in any of the reports
+     */
+    public static BigDecimal lowestBound(List<ReportDefinition> reports) {
+        return reports.stream().map(ReportDefinition::getLowerBound).min(BigDecimal::compareTo).orElseThrow();
+    }
+
+    /**
+     * @param price the price of a product, null if it has none
+     * @return whether the product belongs in the report
+     */
+    public boolean matches(BigDecimal price) {
+        if (bands == null) {
+            return Band.matches(price, lowerBound, upperBound);
+        }
+        for (Band band : bands) {
+            if (band.matches(price)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the report summarizes price bands instead of listing products
+     */
+    public boolean isSummary() {
+        return bands != null;
+    }
+
+    /**
+     * @return the price bands of a summary report, empty for other reports
+     */
+    public List<Band> getBands() {
+        return bands == null ? List.of() : bands;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getLowerBound() {
+        return lowerBound;
+    }
+
+    public BigDecimal getUpperBound() {
+        return upperBound;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public String toString() {
+        if (bands != null) {
+            return name + " (summary of " + bands + ") -> " + location;
+        }
+        return name + (upperBound == null ? " (above " + lowerBound + ")"
+                : " (" + lowerBound + BAND_SEPARATOR + upperBound + ")") + " -> " + location;
+    }
+
+    /**
+     * Price band of a summary report: the prices above its lower bound up to and including its
+     * upper bound, if it has one.
+     */
+    public static final class Band {
+
+        private final BigDecimal lowerBound;
+        private final BigDecimal upperBound;
+
+        /**
+         * @param lowerBound the price a product must exceed
+         * @param upperBound the highest price of the band, null for none
+         */
+        public Band(BigDecimal lowerBound, BigDecimal upperBound) {
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        /**
+         * @param price the price of a product, null if it has none
+         * @return whether the price is in the band
+         */
+        public boolean matches(BigDecimal price) {
+            return matches(price, lowerBound, upperBound);
+        }
+
+        private static boolean matches(BigDecimal price, BigDecimal lowerBound, BigDecimal upperBound) {
+            return price != null && price.compareTo(lowerBound) > 0
+                    && (upperBound == null || price.compareTo(upperBound) <= 0);
+        }
+
+        public BigDecimal getLowerBound() {
+            return lowerBound;
+        }
+
+        public BigDecimal getUpperBound() {
+            return upperBound;
+        }
+
+        @Override
+        public String toString() {
+            return lowerBound + BAND_SEPARATOR + (upperBound == null ? "" : upperBound.toString());
+        }
+    }
+}
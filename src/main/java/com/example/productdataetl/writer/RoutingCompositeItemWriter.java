@@ -0,0 +1,196 @@
+package com.example.productdataetl.writer;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.classify.Classifier;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Composite writer routing every item to each of the writers its classifier returns, which
+ * may be several or none, unlike the {@code ClassifierCompositeItemWriter} of Spring Batch that
+ * picks exactly one. The items of a chunk are gathered per writer, and the writers are given
+ * their share on a pool of threads, so that the outputs are written concurrently.
+ * Inside a chunk transaction the items are held until the step saves its execution context,
+ * just before the commit: the writers then write their share, outside the transaction, and
+ * save their positions, which therefore include it. Items of a chunk rolled back before that
+ * are dropped. A failure after that fails the step, and a restart resumes every writer from its
+ * saved position. The delegates must be writers that write when called outside a transaction
+ * and truncate their output on restart, such as {@link SalesReportFileWriter}. Delegates that
+ * are step listeners are called with the step, as the step only registers this writer.
+ * The writer is not thread-safe, as Step 2 writes one chunk at a time.
+ *
+ * @param <T> the type of the items
+ */
+public class RoutingCompositeItemWriter<T> implements ItemStreamWriter<T>, StepExecutionListener {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final Classifier<T, ? extends Collection<ItemStreamWriter<T>>> classifier;
+    private final List<ItemStreamWriter<T>> writers;
+    private final int threads;
+    private final Map<ItemStreamWriter<T>, Chunk<T>> pending = new IdentityHashMap<>();
+    private final TransactionSynchronization synchronization = new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+            // Items still held after a rollback belong to the failed chunk
+            pending.values().forEach(Chunk::clear);
+            synchronizationRegistered = false;
+        }
+    };
+
+    private ExecutorService executor;
+    private boolean synchronizationRegistered;
+
+    /**
+     * @param classifier the writers of an item, all among {@code writers}
+     * @param writers    all the writers, opened, updated and closed with this one
+     * @param threads    the number of threads writing concurrently
+     */
+    public RoutingCompositeItemWriter(Classifier<T, ? extends Collection<ItemStreamWriter<T>>> classifier,
+                                      List<ItemStreamWriter<T>> writers, int threads) {
+        this.classifier = classifier;
+        this.writers = List.copyOf(writers);
+        this.threads = Math.max(1, Math.min(threads, writers.size()));
+        for (ItemStreamWriter<T> writer : this.writers) {
+            pending.put(writer, new Chunk<>());
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String prefix = "report-writer-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ItemStreamWriter<T> writer : writers) {
+            writer.open(executionContext);
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        for (T item : chunk) {
+            for (ItemStreamWriter<T> writer : classifier.classify(item)) {
+                Chunk<T> share = pending.get(writer);
+                if (share == null) {
+                    throw new IllegalStateException("The classifier returned a writer that is not among the writers");
+                }
+                share.add(item);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (!synchronizationRegistered) {
+                TransactionSynchronizationManager.registerSynchronization(synchronization);
+                synchronizationRegistered = true;
+            }
+        } else {
+            writePending();
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (executor == null) {
+            return;
+        }
+        writePending();
+        for (ItemStreamWriter<T> writer : writers) {
+            writer.update(executionContext);
+        }
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        for (ItemStreamWriter<T> writer : writers) {
+            if (writer instanceof StepExecutionListener listener) {
+                listener.beforeStep(stepExecution);
+            }
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        for (ItemStreamWriter<T> writer : writers) {
+            if (writer instanceof StepExecutionListener listener) {
+                listener.afterStep(stepExecution);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (executor == null) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            executor.shutdown();
+            executor = null;
+            ItemStreamException failure = null;
+            for (ItemStreamWriter<T> writer : writers) {
+                try {
+                    writer.close();
+                } catch (ItemStreamException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Hands every writer its share of the items held, concurrently, and waits for all of them.
+     */
+    private void writePending() {
+        List<Future<?>> writes = new ArrayList<>();
+        for (ItemStreamWriter<T> writer : writers) {
+            Chunk<T> share = pending.get(writer);
+            if (!share.isEmpty()) {
+                Chunk<T> items = new Chunk<>(share.getItems());
+                share.clear();
+                writes.add(executor.submit(() -> {
+                    writer.write(items);
+                    return null;
+                }));
+            }
+        }
+        ItemStreamException failure = null;
+        for (Future<?> write : writes) {
+            try {
+                write.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure == null ? new ItemStreamException("Interrupted while writing the reports", e) : failure;
+            } catch (ExecutionException e) {
+                failure = failure == null ? new ItemStreamException("Could not write a report", e.getCause()) : failure;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.dto.SalesReport;
+import org.springframework.batch.item.file.transform.FieldExtractor;
+
+import java.util.function.Function;
+
+/**
+ * Field extractor for {@link SalesReport} calling the getters directly. The getter of every
+ * column is resolved once from the column names instead of through bean introspection per field.
+ */
+public class SalesReportFieldExtractor implements FieldExtractor<SalesReport> {
+
+    private final Function<SalesReport, Object>[] getters;
+
+    /**
+     * @param names the report columns in output order
+     * @throws IllegalArgumentException if a name is not a SalesReport property
+     */
+    @SuppressWarnings("unchecked")
+    public SalesReportFieldExtractor(String... names) {
+        getters = new Function[names.length];
+        for (int i = 0; i < names.length; i++) {
+            getters[i] = switch (names[i]) {
+                case "productId" -> SalesReport::getProductId;
+                case "productName" -> SalesReport::getProductName;
+                case "price" -> SalesReport::getPrice;
+                default -> throw new IllegalArgumentException("Column '" + names[i] + "' is not a SalesReport property");
+            };
+        }
+    }
+
+    @Override
+    public Object[] extract(SalesReport item) {
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].apply(item);
+        }
+        return values;
+    }
+}
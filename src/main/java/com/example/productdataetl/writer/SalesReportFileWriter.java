@@ -0,0 +1,374 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.config.CheckpointingJobRepository;
+import com.example.productdataetl.dto.SalesReport;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.WriteFailedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writer of the sales report encoding each line straight into a reusable byte buffer, instead of
+ * building a line string and passing it through the {@code CharsetEncoder} of a file writer.
+ * Ids are written digit by digit; names and prices are encoded by the string itself, which copies
+ * the bytes of an ASCII string in one go and only encodes the characters of other strings. The
+ * output is the same as that of the {@code FlatFileItemWriter} of {@link SalesReportWriter}: the
+ * header, then id, name and price separated by commas, with nothing for missing values, and the
+ * platform line separator, in UTF-8.
+ * Like that writer it is transactional: inside a chunk transaction the lines are kept until the
+ * transaction commits, then written with a single call to the file channel, and dropped if it
+ * rolls back. The position saved in the step's context includes the lines of the chunk being
+ * committed, all written to the file by the time the context is, and the file is truncated to it
+ * on restart.
+ * Given a deflate level, the writer produces a gzip file instead: the bytes are deflated on a
+ * thread of its own as they are encoded, and each commit is written as a gzip member of its own,
+ * so that the position saved at a commit is the end of a member and the file truncated to it on
+ * restart is still a valid gzip file.
+ * Written bytes survive the failure of the process but not of the machine until they are forced
+ * to disk. With {@link #setSync} the file is forced before every commit that writes the step's
+ * context to the job repository, so that a saved restart position only counts bytes on disk.
+ * That is every commit with the default repository, and only the checkpoints with the
+ * {@link CheckpointingJobRepository}, one force then covering the commits since the last one.
+ * The file is also forced at open, when the step ends, before its final context is written, and
+ * at close.
+ * The writer is not thread-safe, as Step 2 writes one chunk at a time.
+ */
+public class SalesReportFileWriter implements ItemStreamWriter<SalesReport>, StepExecutionListener {
+
+    private static final String POSITION_KEY = "current.count";
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPTY = new byte[0];
+    // Id, delimiters and line separator
+    private static final int FIXED_LINE_BYTES = 24 + LINE_SEPARATOR.length;
+    // Encoded bytes handed over to the compressor at a time
+    private static final int COMPRESSION_SLICE = 32 * 1024;
+    private static final int PLAIN = -1;
+
+    private final String keyPrefix;
+    private final Path path;
+    private final String header;
+    private final int compressionLevel;
+    private final TransactionSynchronization synchronization = new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            try {
+                writePending();
+                if (sync && CheckpointingJobRepository.isContextWrittenInTransaction()) {
+                    syncWritten();
+                }
+            } catch (IOException e) {
+                throw new WriteFailedException("Could not write the report lines to " + path, e);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            // Lines left after a rollback belong to the failed chunk
+            pending = 0;
+            discardMember();
+            synchronizationRegistered = false;
+        }
+    };
+
+    private boolean sync;
+
+    private FileChannel channel;
+    private byte[] buffer = new byte[64 * 1024];
+    private int pending;
+    private GzipMemberCompressor compressor;
+    // Bytes handed over to the compressor for the current member, and the member once finished
+    private long compressing;
+    private byte[] member;
+    private boolean synchronizationRegistered;
+    private long syncedPosition;
+
+    /**
+     * @param name   the name of the writer, prefixing its keys in the step's context
+     * @param path   the report file
+     * @param header the header line, without line separator
+     */
+    public SalesReportFileWriter(String name, Path path, String header) {
+        this(name, path, header, PLAIN);
+    }
+
+    /**
+     * @param name             the name of the writer, prefixing its keys in the step's context
+     * @param path             the gzip report file
+     * @param header           the header line, without line separator
+     * @param compressionLevel the deflate level, from 0 (stored) to 9 (smallest)
+     * @throws IllegalArgumentException if the level is not between 0 and 9
+     */
+    public static SalesReportFileWriter gzip(String name, Path path, String header, int compressionLevel) {
+        if (compressionLevel < 0 || compressionLevel > 9) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9, not " + compressionLevel);
+        }
+        return new SalesReportFileWriter(name, path, header, compressionLevel);
+    }
+
+    private SalesReportFileWriter(String name, Path path, String header, int compressionLevel) {
+        this.keyPrefix = name + ".";
+        this.path = path;
+        this.header = header;
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * @param sync whether to force the file to disk before the step's context is written; false,
+     *             the default, never forces it, as the {@code FlatFileItemWriter}
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (compressionLevel != PLAIN) {
+            compressor = new GzipMemberCompressor(compressionLevel, "report-gzip-" + path.getFileName());
+        }
+        String key = key(POSITION_KEY);
+        try {
+            if (executionContext.containsKey(key)) {
+                // Restart: drop whatever was written after the last commit
+                long position = executionContext.getLong(key);
+                channel = FileChannel.open(path, StandardOpenOption.WRITE);
+                if (channel.size() < position) {
+                    throw new ItemStreamException("Report file " + path + " is shorter than the restart position "
+                            + position + (sync ? "" : "; lines not forced to disk were lost, which batch.output.sync"
+                            + " prevents") + ", and the step must be run again from the start");
+                }
+                channel.truncate(position);
+                channel.position(position);
+            } else {
+                Files.deleteIfExists(path);
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+                byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(headerBytes.length + LINE_SEPARATOR.length);
+                pending = append(LINE_SEPARATOR, append(headerBytes, 0));
+                writePending();
+            }
+            if (sync) {
+                syncWritten();
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not open the report file " + path, e);
+        }
+    }
+
+    @Override
+    public void write(Chunk<? extends SalesReport> chunk) throws Exception {
+        for (SalesReport report : chunk) {
+            encode(report);
+            if (compressor != null && pending >= COMPRESSION_SLICE) {
+                compressor.add(buffer, 0, pending);
+                compressing += pending;
+                pending = 0;
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            registerSynchronization();
+        } else {
+            writePending();
+        }
+    }
+
+    /**
+     * Forces the lines committed so far to disk, as the step's final context is written next.
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (sync && channel != null) {
+            try {
+                syncWritten();
+            } catch (IOException e) {
+                throw new ItemStreamException("Could not force the report file " + path + " to disk", e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            long unwritten = pending;
+            if (compressor != null) {
+                finishMember();
+                unwritten = member == null ? 0 : member.length;
+            }
+            executionContext.putLong(key(POSITION_KEY), channel.position() + unwritten);
+            if (sync) {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    // Lines written outside the transaction, as by RoutingCompositeItemWriter, are forced at its commit
+                    registerSynchronization();
+                } else {
+                    // The context may be written at once
+                    writePending();
+                    syncWritten();
+                }
+            }
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not get the position in the report file " + path, e);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            writePending();
+            if (sync) {
+                syncWritten();
+            }
+            channel.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not close the report file " + path, e);
+        } finally {
+            channel = null;
+            pending = 0;
+            if (compressor != null) {
+                compressor.close();
+                compressor = null;
+                compressing = 0;
+                member = null;
+            }
+        }
+    }
+
+    private void encode(SalesReport report) {
+        // Missing values are left empty, as by DelimitedLineAggregator
+        byte[] name = report.getProductName() == null ? EMPTY
+                : report.getProductName().getBytes(StandardCharsets.UTF_8);
+        byte[] price = report.getPrice() == null ? EMPTY
+                : report.getPrice().toString().getBytes(StandardCharsets.ISO_8859_1);
+        ensureCapacity(pending + FIXED_LINE_BYTES + name.length + price.length);
+        int position = pending;
+        Long id = report.getProductId();
+        if (id != null) {
+            position = appendDigits(id, position);
+        }
+        buffer[position++] = ',';
+        position = append(name, position);
+        buffer[position++] = ',';
+        position = append(price, position);
+        pending = append(LINE_SEPARATOR, position);
+    }
+
+    private int append(byte[] bytes, int position) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    /**
+     * Writes the decimal digits of a number, as {@link Long#toString(long)} would.
+     */
+    private int appendDigits(long value, int position) {
+        if (value == Long.MIN_VALUE) {
+            return append(Long.toString(value).getBytes(StandardCharsets.ISO_8859_1), position);
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            byte[] larger = new byte[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, larger, 0, pending);
+            buffer = larger;
+        }
+    }
+
+    private void writePending() throws IOException {
+        if (compressor == null) {
+            write(buffer, pending);
+            pending = 0;
+            return;
+        }
+        finishMember();
+        if (member != null) {
+            write(member, member.length);
+            member = null;
+        }
+    }
+
+    /**
+     * Ends the gzip member holding the bytes written since the last one, if there are any.
+     */
+    private void finishMember() throws IOException {
+        if (member == null && (compressing > 0 || pending > 0)) {
+            member = compressor.finish(buffer, 0, pending);
+            compressing = 0;
+            pending = 0;
+        }
+    }
+
+    private void discardMember() {
+        if (compressor != null && compressing > 0) {
+            compressor.discard();
+        }
+        compressing = 0;
+        member = null;
+    }
+
+    private void write(byte[] bytes, int length) throws IOException {
+        ByteBuffer wrapped = ByteBuffer.wrap(bytes, 0, length);
+        while (wrapped.hasRemaining()) {
+            channel.write(wrapped);
+        }
+    }
+
+    private String key(String suffix) {
+        return keyPrefix + suffix;
+    }
+
+    private void registerSynchronization() {
+        if (!synchronizationRegistered) {
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+            synchronizationRegistered = true;
+        }
+    }
+
+    /**
+     * Forces the bytes written to the file to disk, unless they already are.
+     */
+    private void syncWritten() throws IOException {
+        long position = channel.position();
+        if (position != syncedPosition) {
+            channel.force(false);
+            syncedPosition = position;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.dto.SalesReport;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writer of a summary report: for each price band, the number of products in it and their
+ * lowest, highest and total price. Nothing is written per item; the totals are kept in memory,
+ * saved in the step's context with every commit and written to the file, whole, when the writer
+ * is closed. A restart resumes from the totals saved last and rewrites the file.
+ * Like {@link SalesReportFileWriter} it is transactional: inside a chunk transaction the items of
+ * the chunk are added to the totals when it commits, and dropped if it rolls back, and the totals
+ * saved with a chunk include them. A product counts in every band holding its price.
+ * The writer is not thread-safe, as Step 2 writes one chunk at a time.
+ */
+public class SalesReportSummaryWriter implements ItemStreamWriter<SalesReport> {
+
+    /** Header line of a summary report. */
+    public static final String HEADER = "band,count,min,max,sum";
+
+    private static final String COUNT_KEY = "count";
+    private static final String MIN_KEY = "min";
+    private static final String MAX_KEY = "max";
+    private static final String SUM_KEY = "sum";
+
+    private final String keyPrefix;
+    private final Path path;
+    private final List<ReportDefinition.Band> bands;
+    private final Totals[] committed;
+    private final Totals[] uncommitted;
+    private final TransactionSynchronization synchronization = new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+            // Items of a rolled back chunk are dropped
+            for (int i = 0; i < uncommitted.length; i++) {
+                if (status == STATUS_COMMITTED) {
+                    committed[i].add(uncommitted[i]);
+                }
+                uncommitted[i] = new Totals();
+            }
+            synchronizationRegistered = false;
+        }
+    };
+
+    private boolean synchronizationRegistered;
+    private boolean opened;
+
+    /**
+     * @param name  the name of the writer, prefixing its keys in the step's context
+     * @param path  the summary file
+     * @param bands the price bands summarized, one line each
+     */
+    public SalesReportSummaryWriter(String name, Path path, List<ReportDefinition.Band> bands) {
+        this.keyPrefix = name + ".";
+        this.path = path;
+        this.bands = List.copyOf(bands);
+        this.committed = new Totals[bands.size()];
+        this.uncommitted = new Totals[bands.size()];
+        for (int i = 0; i < bands.size(); i++) {
+            committed[i] = new Totals();
+            uncommitted[i] = new Totals();
+        }
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        for (int i = 0; i < bands.size(); i++) {
+            // Restart: resume from the totals saved with the last commit
+            committed[i] = Totals.restore(executionContext, prefix(i));
+            uncommitted[i] = new Totals();
+        }
+        opened = true;
+    }
+
+    @Override
+    public void write(Chunk<? extends SalesReport> chunk) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        Totals[] totals = inTransaction ? uncommitted : committed;
+        for (SalesReport report : chunk) {
+            BigDecimal price = report.getPrice();
+            for (int i = 0; i < bands.size(); i++) {
+                if (bands.get(i).matches(price)) {
+                    totals[i].add(price);
+                }
+            }
+        }
+        if (inTransaction && !synchronizationRegistered) {
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+            synchronizationRegistered = true;
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (!opened) {
+            return;
+        }
+        for (int i = 0; i < bands.size(); i++) {
+            Totals totals = new Totals();
+            totals.add(committed[i]);
+            totals.add(uncommitted[i]);
+            totals.save(executionContext, prefix(i));
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (!opened) {
+            return;
+        }
+        opened = false;
+        StringBuilder lines = new StringBuilder(HEADER).append(System.lineSeparator());
+        for (int i = 0; i < bands.size(); i++) {
+            Totals totals = committed[i];
+            lines.append(bands.get(i)).append(',').append(totals.count).append(',')
+                    .append(totals.min == null ? "" : totals.min).append(',')
+                    .append(totals.max == null ? "" : totals.max).append(',')
+                    .append(totals.sum).append(System.lineSeparator());
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(path, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not write the summary report " + path, e);
+        }
+    }
+
+    private String prefix(int band) {
+        return keyPrefix + "band." + band + ".";
+    }
+
+    /**
+     * Count, lowest, highest and total price of the products of one band.
+     */
+    private static final class Totals {
+
+        private long count;
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal sum = BigDecimal.ZERO;
+
+        private void add(BigDecimal price) {
+            count++;
+            min = min == null || price.compareTo(min) < 0 ? price : min;
+            max = max == null || price.compareTo(max) > 0 ? price : max;
+            sum = sum.add(price);
+        }
+
+        private void add(Totals other) {
+            if (other.count == 0) {
+                return;
+            }
+            count += other.count;
+            min = min == null || other.min.compareTo(min) < 0 ? other.min : min;
+            max = max == null || other.max.compareTo(max) > 0 ? other.max : max;
+            sum = sum.add(other.sum);
+        }
+
+        private void save(ExecutionContext executionContext, String prefix) {
+            executionContext.putLong(prefix + COUNT_KEY, count);
+            executionContext.putString(prefix + SUM_KEY, sum.toString());
+            if (min != null) {
+                executionContext.putString(prefix + MIN_KEY, min.toString());
+                executionContext.putString(prefix + MAX_KEY, max.toString());
+            }
+        }
+
+        private static Totals restore(ExecutionContext executionContext, String prefix) {
+            Totals totals = new Totals();
+            if (executionContext.containsKey(prefix + COUNT_KEY)) {
+                totals.count = executionContext.getLong(prefix + COUNT_KEY);
+                totals.sum = new BigDecimal(executionContext.getString(prefix + SUM_KEY));
+                if (executionContext.containsKey(prefix + MIN_KEY)) {
+                    totals.min = new BigDecimal(executionContext.getString(prefix + MIN_KEY));
+                    totals.max = new BigDecimal(executionContext.getString(prefix + MAX_KEY));
+                }
+            }
+            return totals;
+        }
+    }
+}
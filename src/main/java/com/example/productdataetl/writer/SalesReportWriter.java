@@ -1,42 +1,145 @@
 package com.example.productdataetl.writer;
 
 import com.example.productdataetl.dto.SalesReport;
-import org.springframework.batch.item.file.FlatFileItemWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ItemStreamWriter;
 import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
-import org.springframework.batch.item.file.transform.BeanWrapperFieldExtractor;
 import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.classify.Classifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration class for creating a FlatFileItemWriter to write SalesReport DTOs to CSV file.
  * This writer is used in Step 2 of the ETL pipeline to generate the sales report CSV file.
+ * With {@code batch.step2.writer=byte} a {@link SalesReportFileWriter} writes the same bytes
+ * without going through strings and a charset encoder.
+ * With {@code batch.output.compression=gzip} the report is written compressed by that writer,
+ * at the deflate level of {@code batch.output.compression.level}, to the output file with
+ * {@code .gz} appended unless its name already ends with it. Forcing the report to disk with
+ * {@code batch.output.sync=true} also takes that writer, which is logged at startup.
+ * With report definitions in {@code batch.reports} Step 2 writes one file per definition instead
+ * of the output file, in the same pass: a {@link RoutingCompositeItemWriter} hands each report
+ * line to the writer of every report it matches, and the reports are written on up to
+ * {@code batch.reports.threads} threads. A summary report is written by a
+ * {@link SalesReportSummaryWriter}.
  */
 @Configuration
 public class SalesReportWriter {
 
+    private static final Logger logger = LoggerFactory.getLogger(SalesReportWriter.class);
+
+    /** Header line of the report, also used by the SQL export mode of Step 2. */
+    public static final String HEADER = "productId,productName,price";
+
+    static final String BYTE_WRITER = "byte";
+    static final String GZIP = "gzip";
+
+    @Value("${batch.output.file:file:sales_report.csv}")
+    private Resource outputFile;
+
+    @Value("${batch.step2.writer:line}")
+    private String writerType = "line";
+
+    @Value("${batch.output.compression:none}")
+    private String compression = "none";
+
+    @Value("${batch.output.compression.level:6}")
+    private int compressionLevel = 6;
+
+    @Value("${batch.output.sync:false}")
+    private boolean sync;
+
+    @Value("${batch.reports:}")
+    private String reports = "";
+
+    @Value("${batch.reports.threads:4}")
+    private int reportThreads = 4;
+
     /**
      * Creates a FlatFileItemWriter for writing SalesReport DTOs to CSV file.
      * 
-     * @return FlatFileItemWriter<SalesReport> configured to write sales report data to CSV
+     * @return ItemStreamWriter<SalesReport> configured to write sales report data to CSV
+     * @throws IOException if batch.output.file does not denote a file system path
+     * @throws IllegalArgumentException if the compression level is not between 0 and 9, or a
+     *                                  report definition is malformed
      */
     @Bean
-    public FlatFileItemWriter<SalesReport> salesReportCsvWriter() {
-        // Configure field extractor to extract fields from SalesReport DTO
-        BeanWrapperFieldExtractor<SalesReport> fieldExtractor = new BeanWrapperFieldExtractor<>();
-        fieldExtractor.setNames(new String[]{"productId", "productName", "price"});
+    public ItemStreamWriter<SalesReport> salesReportCsvWriter() throws IOException {
+        List<ReportDefinition> definitions = ReportDefinition.parseAll(reports);
+        if (!definitions.isEmpty()) {
+            return reportWriters(definitions);
+        }
+        if (GZIP.equals(compression) || BYTE_WRITER.equals(writerType) || sync) {
+            if (!GZIP.equals(compression) && !BYTE_WRITER.equals(writerType)) {
+                logger.info("batch.output.sync=true writes the report with the byte writer instead of "
+                        + "batch.step2.writer={}, which cannot force the file to disk", writerType);
+            }
+            return fileWriter("salesReportCsvWriter", outputFile.getFile().toPath());
+        }
 
-        // Configure line aggregator for CSV format
+        // Configure line aggregator for CSV format, extracting the fields with direct getter calls
         DelimitedLineAggregator<SalesReport> lineAggregator = new DelimitedLineAggregator<>();
         lineAggregator.setDelimiter(",");
-        lineAggregator.setFieldExtractor(fieldExtractor);
+        lineAggregator.setFieldExtractor(new SalesReportFieldExtractor(HEADER.split(",")));
 
         return new FlatFileItemWriterBuilder<SalesReport>()
                 .name("salesReportCsvWriter")
-                .resource(new FileSystemResource("sales_report.csv"))
+                .resource(new FileSystemResource(outputFile.getFile()))
                 .lineAggregator(lineAggregator)
-                .headerCallback(writer -> writer.write("productId,productName,price"))
+                .headerCallback(writer -> writer.write(HEADER))
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the writers of the defined reports, each one writing the lines of the products
+     * in its price range, or the totals of its bands for a summary, behind a writer routing
+     * every line to the reports it matches.
+     */
+    private ItemStreamWriter<SalesReport> reportWriters(List<ReportDefinition> definitions) throws IOException {
+        List<ItemStreamWriter<SalesReport>> writers = new ArrayList<>();
+        for (ReportDefinition definition : definitions) {
+            String name = "salesReport." + definition.getName();
+            Path path = ResourceUtils.getFile(definition.getLocation()).toPath();
+            writers.add(definition.isSummary() ? new SalesReportSummaryWriter(name, path, definition.getBands())
+                    : fileWriter(name, path));
+        }
+        Classifier<SalesReport, List<ItemStreamWriter<SalesReport>>> classifier = report -> {
+            List<ItemStreamWriter<SalesReport>> matching = new ArrayList<>(definitions.size());
+            for (int i = 0; i < definitions.size(); i++) {
+                if (definitions.get(i).matches(report.getPrice())) {
+                    matching.add(writers.get(i));
+                }
+            }
+            return matching;
+        };
+        return new RoutingCompositeItemWriter<>(classifier, writers, reportThreads);
+    }
+
+    /**
+     * Creates a byte writer, compressed to the path with {@code .gz} appended if configured so.
+     */
+    private SalesReportFileWriter fileWriter(String name, Path path) {
+        SalesReportFileWriter writer;
+        if (GZIP.equals(compression)) {
+            if (!path.getFileName().toString().endsWith(".gz")) {
+                path = path.resolveSibling(path.getFileName() + ".gz");
+            }
+            writer = SalesReportFileWriter.gzip(name, path, HEADER, compressionLevel);
+        } else {
+            writer = new SalesReportFileWriter(name, path, HEADER);
+        }
+        writer.setSync(sync);
+        return writer;
+    }
+}
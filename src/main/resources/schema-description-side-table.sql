@@ -0,0 +1,11 @@
+-- Description side-table layout, run after schema.sql by the description-side-table profile.
+-- PRODUCTS keeps only the columns that are scanned, and the large descriptions live
+-- in PRODUCT_DESCRIPTIONS, one row per product that has one.
+
+ALTER TABLE PRODUCTS DROP COLUMN IF EXISTS description;
+
+CREATE TABLE IF NOT EXISTS PRODUCT_DESCRIPTIONS (
+    product_id BIGINT PRIMARY KEY,
+    description TEXT NOT NULL,
+    FOREIGN KEY (product_id) REFERENCES PRODUCTS(id) ON DELETE CASCADE
+);
@@ -0,0 +1,7 @@
+-- Drops the ETL tables so that schema.sql recreates them empty.
+-- Runs before schema.sql unless the persistent profile is active.
+
+DROP TABLE IF EXISTS PRODUCT_DESCRIPTIONS;
+DROP TABLE IF EXISTS PRODUCTS;
+DROP TABLE IF EXISTS PRODUCTS_REJECTS;
+DROP TABLE IF EXISTS PRODUCTS_STAGING;
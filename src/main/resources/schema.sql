@@ -1,9 +1,9 @@
 -- Create PRODUCTS table for the ETL pipeline
 -- This table stores product data imported from CSV files
+-- Every statement is idempotent so the script can run against a persistent database;
+-- schema-drop.sql runs first when each start should begin with empty tables
 
-DROP TABLE IF EXISTS PRODUCTS;
-
-CREATE TABLE PRODUCTS (
+CREATE TABLE IF NOT EXISTS PRODUCTS (
     id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description TEXT,
@@ -11,8 +11,34 @@ CREATE TABLE PRODUCTS (
     import_date TIMESTAMP
 );
 
--- Create index on price for efficient filtering in Step 2
-CREATE INDEX idx_products_price ON PRODUCTS(price);
+-- Covering index for the Step 2 report: the price filter is a range scan and
+-- id and name are carried in the index, so the report columns are all in it
+CREATE INDEX IF NOT EXISTS idx_products_price ON PRODUCTS(price, id, name);
 
 -- Create index on import_date for potential time-based queries
-CREATE INDEX idx_products_import_date ON PRODUCTS(import_date);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_products_import_date ON PRODUCTS(import_date);
+
+-- Rows rejected by the H2 bulk load mode of Step 1, with the raw CSV values
+CREATE TABLE IF NOT EXISTS PRODUCTS_REJECTS (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    job_execution_id BIGINT NOT NULL,
+    line_number BIGINT NOT NULL,
+    raw_id VARCHAR(255),
+    raw_name VARCHAR(1000),
+    raw_description TEXT,
+    raw_price VARCHAR(255),
+    reason VARCHAR(100) NOT NULL,
+    skipped BOOLEAN NOT NULL,
+    rejected_at TIMESTAMP NOT NULL
+);
+
+-- Staging table for Step 1 when batch.step1.staging.enabled is set: no key and no
+-- indexes, so inserts are cheap. load_seq keeps the write order so the last duplicate wins.
+CREATE TABLE IF NOT EXISTS PRODUCTS_STAGING (
+    load_seq BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    price DECIMAL(10,2) NOT NULL,
+    import_date TIMESTAMP
+);
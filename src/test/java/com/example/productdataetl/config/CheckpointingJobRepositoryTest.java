@@ -0,0 +1,116 @@
+package com.example.productdataetl.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CheckpointingJobRepository to verify that step executions are written
+ * at start, at checkpoints and at the end only, and that writers can tell which chunk
+ * transactions write the context.
+ */
+class CheckpointingJobRepositoryTest {
+
+    private JobRepository delegate;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JobRepository.class);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+    }
+
+    @Test
+    void shouldWriteEveryNthChunk() {
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 3, 0);
+
+        start(repository);
+        runChunks(repository, 7);
+
+        // open + chunks 3 and 6
+        verify(delegate, times(3)).updateExecutionContext(stepExecution);
+        // start + chunks 3 and 6
+        verify(delegate, times(3)).update(stepExecution);
+    }
+
+    @Test
+    void shouldAlwaysWriteFinalState() {
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 0, 0);
+
+        start(repository);
+        runChunks(repository, 5);
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        repository.updateExecutionContext(stepExecution);
+        repository.update(stepExecution);
+
+        verify(delegate, times(2)).updateExecutionContext(stepExecution);
+        verify(delegate, times(2)).update(stepExecution);
+    }
+
+    @Test
+    void shouldWriteWhenIntervalHasPassed() throws InterruptedException {
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 0, 1);
+
+        start(repository);
+        Thread.sleep(5);
+        runChunks(repository, 1);
+
+        verify(delegate, times(2)).updateExecutionContext(stepExecution);
+        verify(delegate, times(2)).update(stepExecution);
+    }
+
+    @Test
+    void shouldTellWhetherTransactionWritesContext() {
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 2, 0);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        List<Boolean> written = new ArrayList<>();
+
+        start(repository);
+        for (int i = 0; i < 3; i++) {
+            transaction.executeWithoutResult(status -> {
+                runChunks(repository, 1);
+                written.add(CheckpointingJobRepository.isContextWrittenInTransaction());
+            });
+        }
+
+        assertEquals(List.of(false, true, false), written);
+        assertTrue(CheckpointingJobRepository.isContextWrittenInTransaction());
+    }
+
+    @Test
+    void shouldPassJobExecutionUpdatesThrough() {
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 100, 0);
+        JobExecution jobExecution = stepExecution.getJobExecution();
+
+        repository.update(jobExecution);
+        repository.updateExecutionContext(jobExecution);
+
+        verify(delegate).update(jobExecution);
+        verify(delegate).updateExecutionContext(jobExecution);
+    }
+
+    private void start(CheckpointingJobRepository repository) {
+        stepExecution.setStatus(BatchStatus.STARTED);
+        repository.update(stepExecution);
+        repository.updateExecutionContext(stepExecution);
+    }
+
+    private void runChunks(CheckpointingJobRepository repository, int chunks) {
+        for (int i = 0; i < chunks; i++) {
+            repository.updateExecutionContext(stepExecution);
+            repository.update(stepExecution);
+        }
+    }
+}
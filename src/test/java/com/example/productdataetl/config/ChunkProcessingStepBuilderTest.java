@@ -0,0 +1,100 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.processor.ChunkItemProcessor;
+import com.example.productdataetl.processor.ChunkResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ChunkProcessingStepBuilder running a step on an embedded job repository, to verify
+ * that each chunk is processed as a whole while failures are skipped item by item.
+ */
+class ChunkProcessingStepBuilderTest {
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+    private final List<String> written = new ArrayList<>();
+
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+    }
+
+    @Test
+    void shouldProcessWholeChunksAndSkipFailedItems() throws Exception {
+        // Filters multiples of 3 and fails 7
+        ChunkItemProcessor<Integer, String> chunkProcessor = items -> {
+            chunkSizes.add(items.size());
+            ChunkResult<String> result = new ChunkResult<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                int item = items.get(i);
+                if (item == 7) {
+                    result.fail(i, new IllegalArgumentException("bad item " + item));
+                } else if (item % 3 != 0) {
+                    result.set(i, "item-" + item);
+                }
+            }
+            return result;
+        };
+        SimpleStepBuilder<Integer, String> chunkStep = new StepBuilder("chunkProcessing", jobRepository)
+                .<Integer, String>chunk(5, transactionManager)
+                .reader(new ListItemReader<>(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)))
+                .writer(chunk -> written.addAll(chunk.getItems()));
+        Step step = new ChunkProcessingStepBuilder<>(chunkStep, chunkProcessor)
+                .skip(IllegalArgumentException.class)
+                .skipLimit(1)
+                .build();
+
+        StepExecution stepExecution = run(step);
+
+        assertEquals(BatchStatus.COMPLETED, stepExecution.getStatus());
+        assertEquals(List.of("item-1", "item-2", "item-4", "item-5", "item-8", "item-10"), written);
+        assertEquals(3, stepExecution.getFilterCount());
+        assertEquals(1, stepExecution.getProcessSkipCount());
+        // One pass per chunk; the failure rolls the second chunk back and it is processed again
+        // without item 6, already filtered, and item 7 is then skipped
+        assertEquals(List.of(5, 5, 4), chunkSizes);
+    }
+
+    private StepExecution run(Step step) throws Exception {
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository);
+        launcher.afterPropertiesSet();
+        JobExecution execution = launcher.run(new JobBuilder("chunkProcessingJob", jobRepository).start(step).build(),
+                new JobParameters());
+        return execution.getStepExecutions().iterator().next();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.productdataetl.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.repository.dao.DefaultExecutionContextSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompactExecutionContextSerializer to verify round trips, the size of a
+ * typical reader context and compatibility with the default serializer.
+ */
+class CompactExecutionContextSerializerTest {
+
+    private final CompactExecutionContextSerializer serializer = new CompactExecutionContextSerializer(256);
+
+    @Test
+    void shouldRoundTripSupportedTypes() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("string", "Gaming Laptop");
+        context.put("int", -42);
+        context.put("long", Long.MAX_VALUE);
+        context.put("minLong", Long.MIN_VALUE);
+        context.put("double", 12.5);
+        context.put("true", Boolean.TRUE);
+        context.put("false", Boolean.FALSE);
+        context.put("decimal", new BigDecimal("1299.99"));
+        context.put("date", LocalDate.of(2024, 1, 31));
+        context.put("null", null);
+
+        assertEquals(context, roundTrip(context));
+    }
+
+    @Test
+    void shouldBeSmallerThanDefaultSerializerForReaderPosition() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("productCsvItemReader.read.count", 1500);
+        context.put("batch.taskletType", "org.springframework.batch.core.step.item.ChunkOrientedTasklet");
+        context.put("batch.stepType", "org.springframework.batch.core.step.tasklet.TaskletStep");
+
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        serializer.serialize(context, compact);
+        ByteArrayOutputStream standard = new ByteArrayOutputStream();
+        new DefaultExecutionContextSerializer().serialize(context, standard);
+
+        assertTrue(compact.size() < standard.size(),
+                "compact " + compact.size() + " bytes, default " + standard.size() + " bytes");
+    }
+
+    @Test
+    void shouldCompressLargeContexts() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("seen.ids", "1,2,3,4,5,6,7,8,9,10,".repeat(100));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        serializer.serialize(context, out);
+
+        byte[] bytes = Base64.getDecoder().decode(out.toByteArray());
+        assertEquals(CompactExecutionContextSerializer.FLAG_DEFLATED, bytes[2] & CompactExecutionContextSerializer.FLAG_DEFLATED);
+        assertTrue(bytes.length < 500);
+        assertEquals(context, serializer.deserialize(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void shouldReadContextsWrittenByDefaultSerializer() throws IOException {
+        Map<String, Object> context = new HashMap<>();
+        context.put("productDatabaseReader.read.count", 300);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DefaultExecutionContextSerializer().serialize(context, out);
+
+        assertEquals(context, serializer.deserialize(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    void shouldRejectNewerFormatVersion() {
+        byte[] bytes = {(byte) CompactExecutionContextSerializer.HEADER, (byte) (CompactExecutionContextSerializer.VERSION + 1), 0, 0};
+        ByteArrayInputStream in = new ByteArrayInputStream(Base64.getEncoder().encode(bytes));
+
+        IOException exception = assertThrows(IOException.class, () -> serializer.deserialize(in));
+
+        assertTrue(exception.getMessage().contains("version"));
+    }
+
+    private Map<String, Object> roundTrip(Map<String, Object> context) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(context, out);
+        return serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.productdataetl.config;
+
+import com.example.productdataetl.metrics.ConnectionPoolMetrics;
+import com.example.productdataetl.tuning.TuningAdvisor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionPoolConfiguration to verify that the pool is sized from the
+ * Step 1 concurrency unless its size is configured explicitly, and that connections are only
+ * tracked with the persistence metrics.
+ */
+class ConnectionPoolConfigurationTest {
+
+    @Test
+    void shouldSizePoolFromThreadsAndHeadroom() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("batch.thread.pool.size", "4")
+                .withProperty("batch.datasource.pool.headroom", "3");
+
+        assertEquals(7, sizedPool(environment));
+    }
+
+    @Test
+    void shouldUseCoresWithAutoTuning() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("batch.tuning.auto.enabled", "true")
+                .withProperty("batch.thread.pool.size", "1");
+
+        assertEquals(Math.min(Runtime.getRuntime().availableProcessors(), TuningAdvisor.MAX_CONCURRENT_CHUNKS) + 2,
+                sizedPool(environment));
+    }
+
+    @Test
+    void shouldNotSizeForThreadsBeyondConcurrentChunks() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("batch.thread.pool.size", "8");
+
+        assertEquals(TuningAdvisor.MAX_CONCURRENT_CHUNKS + 2, sizedPool(environment));
+    }
+
+    @Test
+    void shouldKeepExplicitPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("batch.thread.pool.size", "4")
+                .withProperty(ConnectionPoolConfiguration.MAXIMUM_POOL_SIZE_PROPERTY, "20");
+
+        assertEquals(20, sizedPool(environment));
+    }
+
+    @Test
+    void shouldLeaveHikariTrackerAloneWhenMetricsAreOff() {
+        contextRunner().run(context -> {
+            assertFalse(context.containsBean("connectionPoolMetrics"));
+            assertNull(context.getBean(HikariDataSource.class).getMetricsTrackerFactory());
+        });
+    }
+
+    @Test
+    void shouldTrackConnectionsWhenMetricsAreOn() {
+        contextRunner().withPropertyValues("batch.metrics.persistence.enabled=true").run(context ->
+                assertSame(context.getBean(ConnectionPoolMetrics.class),
+                        context.getBean(HikariDataSource.class).getMetricsTrackerFactory()));
+    }
+
+    private static ApplicationContextRunner contextRunner() {
+        return new ApplicationContextRunner()
+                .withUserConfiguration(ConnectionPoolConfiguration.class)
+                .withBean(HikariDataSource.class, () -> {
+                    HikariDataSource dataSource = new HikariDataSource();
+                    dataSource.setJdbcUrl("jdbc:h2:mem:connectionPoolConfigurationTest");
+                    return dataSource;
+                });
+    }
+
+    private static int sizedPool(MockEnvironment environment) {
+        ConnectionPoolConfiguration.connectionPoolSizer(environment)
+                .postProcessBeanFactory(new DefaultListableBeanFactory());
+        return environment.getProperty(ConnectionPoolConfiguration.MAXIMUM_POOL_SIZE_PROPERTY, Integer.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.productdataetl.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for ExecutionContextSerializerConfiguration to verify that with
+ * {@code batch.repository.context.serializer=compact} the job repository and explorer write and
+ * read step execution contexts with the CompactExecutionContextSerializer.
+ */
+@SpringBootTest(properties = "batch.repository.context.serializer=compact")
+class ExecutionContextSerializerConfigurationTest {
+
+    private static final String STEP_NAME = "serializerStep";
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldWriteContextsWithCompactSerializer() throws Exception {
+        StepExecution stepExecution = createStepExecution();
+        stepExecution.getExecutionContext().putLong("reader.read.count", 42L);
+        stepExecution.getExecutionContext().putString("writer.file", "sales_report.csv");
+
+        jobRepository.updateExecutionContext(stepExecution);
+
+        byte[] stored = Base64.getDecoder().decode(storedContext(stepExecution));
+        assertEquals(CompactExecutionContextSerializer.HEADER, stored[0] & 0xFF);
+        assertEquals(CompactExecutionContextSerializer.VERSION, stored[1] & 0xFF);
+    }
+
+    @Test
+    void shouldReadBackContextWrittenWithCompactSerializer() throws Exception {
+        StepExecution stepExecution = createStepExecution();
+        jobRepository.updateExecutionContext(stepExecution);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        new CompactExecutionContextSerializer(2048).serialize(
+                Map.of("reader.read.count", 42L, "writer.file", "sales_report.csv"), serialized);
+        jdbcTemplate.update("UPDATE BATCH_STEP_EXECUTION_CONTEXT SET SHORT_CONTEXT = ? WHERE STEP_EXECUTION_ID = ?",
+                serialized.toString(StandardCharsets.UTF_8), stepExecution.getId());
+
+        StepExecution explored = jobExplorer.getStepExecution(stepExecution.getJobExecutionId(), stepExecution.getId());
+        StepExecution last = jobRepository.getLastStepExecution(stepExecution.getJobExecution().getJobInstance(),
+                STEP_NAME);
+
+        assertEquals(42L, explored.getExecutionContext().getLong("reader.read.count"));
+        assertEquals("sales_report.csv", explored.getExecutionContext().getString("writer.file"));
+        assertEquals(42L, last.getExecutionContext().getLong("reader.read.count"));
+        assertEquals("sales_report.csv", last.getExecutionContext().getString("writer.file"));
+    }
+
+    private StepExecution createStepExecution() throws Exception {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString("run.id", UUID.randomUUID().toString())
+                .toJobParameters();
+        JobExecution jobExecution = jobRepository.createJobExecution("serializerJob", parameters);
+        StepExecution stepExecution = jobExecution.createStepExecution(STEP_NAME);
+        jobRepository.add(stepExecution);
+        return stepExecution;
+    }
+
+    private String storedContext(StepExecution stepExecution) {
+        return jdbcTemplate.queryForObject(
+                "SELECT SHORT_CONTEXT FROM BATCH_STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID = ?",
+                String.class, stepExecution.getId());
+    }
+}
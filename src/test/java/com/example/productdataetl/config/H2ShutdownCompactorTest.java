@@ -0,0 +1,48 @@
+package com.example.productdataetl.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for H2ShutdownCompactor to verify that file databases are compacted and
+ * survive reopening, and that in-memory databases are left open.
+ */
+class H2ShutdownCompactorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldCompactFileDatabaseAndKeepData() throws Exception {
+        String url = "jdbc:h2:file:" + directory.resolve("etl").toAbsolutePath() + ";DB_CLOSE_ON_EXIT=FALSE";
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE T (ID INT PRIMARY KEY, PAYLOAD VARCHAR(1000))");
+        jdbcTemplate.update("INSERT INTO T SELECT X, REPEAT('x', 1000) FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.update("DELETE FROM T WHERE ID > 10");
+        long before = Files.size(directory.resolve("etl.mv.db"));
+
+        new H2ShutdownCompactor(jdbcTemplate).destroy();
+
+        assertTrue(Files.size(directory.resolve("etl.mv.db")) < before, "File should shrink after compaction");
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM T", Integer.class));
+    }
+
+    @Test
+    void shouldLeaveInMemoryDatabaseOpen() {
+        String url = "jdbc:h2:mem:compactor-test;DB_CLOSE_DELAY=-1";
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate.execute("CREATE TABLE T (ID INT)");
+
+        new H2ShutdownCompactor(jdbcTemplate).destroy();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM T", Integer.class));
+        jdbcTemplate.execute("DROP TABLE T");
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.productdataetl.listener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkStallWatchdog to verify stall detection against the rolling median
+ * and the content of the dump it writes.
+ */
+class ChunkStallWatchdogTest {
+
+    private static final long ONE_HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path dumpDirectory;
+
+    private ChunkStallWatchdog watchdog;
+    private StepExecution stepExecution;
+
+    @AfterEach
+    void tearDown() {
+        if (watchdog != null) {
+            watchdog.afterStep(stepExecution);
+        }
+    }
+
+    @Test
+    void shouldComputeMedianOfRecentChunks() {
+        watchdog = startWatchdog(false);
+
+        assertEquals(0, watchdog.medianDurationNanos());
+
+        watchdog.recordDuration(30);
+        watchdog.recordDuration(10);
+        watchdog.recordDuration(20);
+
+        assertEquals(20, watchdog.medianDurationNanos());
+    }
+
+    @Test
+    void shouldReportChunkExceedingMultipleOfMedianOnce() throws IOException {
+        watchdog = startWatchdog(false);
+        recordTypicalChunks(TimeUnit.MILLISECONDS.toNanos(10));
+
+        watchdog.beforeChunk(null);
+        long now = System.nanoTime();
+
+        assertEquals(0, watchdog.checkForStalls(now + TimeUnit.MILLISECONDS.toNanos(50)));
+        assertEquals(1, watchdog.checkForStalls(now + TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(0, watchdog.checkForStalls(now + TimeUnit.SECONDS.toNanos(2)));
+
+        List<Path> dumps = listDumps();
+        assertEquals(1, dumps.size());
+        String content = Files.readString(dumps.get(0));
+        assertTrue(content.contains("Stalled chunk in step"));
+        assertTrue(content.contains("--- Connection Pool ---"));
+        assertTrue(content.contains("--- Thread Dump ---"));
+        assertTrue(content.contains(Thread.currentThread().getName()));
+        assertFalse(stepExecution.isTerminateOnly());
+    }
+
+    @Test
+    void shouldNotReportCompletedChunks() throws IOException {
+        watchdog = startWatchdog(false);
+        recordTypicalChunks(TimeUnit.MILLISECONDS.toNanos(10));
+
+        watchdog.beforeChunk(null);
+        watchdog.afterChunk(null);
+
+        assertEquals(0, watchdog.checkForStalls(System.nanoTime() + TimeUnit.SECONDS.toNanos(10)));
+        assertTrue(listDumps().isEmpty());
+    }
+
+    @Test
+    void shouldWriteOneDumpPerWorkerStalledAtOnce() throws Exception {
+        watchdog = startWatchdog(false);
+        recordTypicalChunks(TimeUnit.MILLISECONDS.toNanos(10));
+
+        Thread other = new Thread(() -> watchdog.beforeChunk(null));
+        other.start();
+        other.join();
+        watchdog.beforeChunk(null);
+
+        assertEquals(2, watchdog.checkForStalls(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+        List<String> names = listDumps().stream().map(dump -> dump.getFileName().toString()).sorted()
+                .collect(Collectors.toList());
+        assertEquals(2, names.size());
+        assertTrue(names.stream().anyMatch(name -> name.endsWith("-" + other.getId() + ".txt")), names.toString());
+        assertTrue(names.stream().anyMatch(name -> name.endsWith("-" + Thread.currentThread().getId() + ".txt")),
+                names.toString());
+    }
+
+    @Test
+    void shouldMarkStepForGracefulStopWhenConfigured() {
+        watchdog = startWatchdog(true);
+        recordTypicalChunks(TimeUnit.MILLISECONDS.toNanos(10));
+
+        watchdog.beforeChunk(null);
+
+        assertEquals(1, watchdog.checkForStalls(System.nanoTime() + TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(stepExecution.isTerminateOnly());
+    }
+
+    private ChunkStallWatchdog startWatchdog(boolean stopOnStall) {
+        ChunkStallWatchdog stallWatchdog = new ChunkStallWatchdog(
+                null, dumpDirectory, 10.0, 0, ONE_HOUR_MILLIS, stopOnStall);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stallWatchdog.beforeStep(stepExecution);
+        return stallWatchdog;
+    }
+
+    private void recordTypicalChunks(long durationNanos) {
+        for (int i = 0; i < 5; i++) {
+            watchdog.recordDuration(durationNanos);
+        }
+    }
+
+    private List<Path> listDumps() throws IOException {
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.productdataetl.listener;
+
+import com.example.productdataetl.reader.ProductReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryPlanListener to verify that the report query plan is captured
+ * and checked against the covering index.
+ */
+class QueryPlanListenerTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldReportCoveringIndexUsedByReportQuery() {
+        listener().beforeStep(stepExecution);
+
+        assertEquals("true", stepExecution.getExecutionContext().getString(QueryPlanListener.USES_INDEX_KEY));
+        assertTrue(stepExecution.getExecutionContext().getString(QueryPlanListener.PLAN_KEY)
+                .contains("IDX_PRODUCTS_PRICE"));
+    }
+
+    @Test
+    void shouldReportPlanWithoutIndex() {
+        jdbcTemplate.execute("DROP INDEX idx_products_price");
+
+        listener().beforeStep(stepExecution);
+
+        assertEquals("false", stepExecution.getExecutionContext().getString(QueryPlanListener.USES_INDEX_KEY));
+    }
+
+    @Test
+    void shouldNotFailStepWhenPlanCannotBeCaptured() {
+        QueryPlanListener listener = new QueryPlanListener(jdbcTemplate, "SELECT * FROM MISSING_TABLE", "idx_missing");
+
+        assertDoesNotThrow(() -> listener.beforeStep(stepExecution));
+        assertFalse(stepExecution.getExecutionContext().containsKey(QueryPlanListener.PLAN_KEY));
+    }
+
+    @Test
+    void shouldMatchIndexNameIgnoringCase() {
+        assertTrue(QueryPlanListener.usesIndex("/* PUBLIC.IDX_PRODUCTS_PRICE: PRICE > ?1 */", "idx_products_price"));
+        assertFalse(QueryPlanListener.usesIndex("/* PUBLIC.PRODUCTS.tableScan */", "idx_products_price"));
+    }
+
+    private QueryPlanListener listener() {
+        return new QueryPlanListener(jdbcTemplate, ProductReader.COVERING_REPORT_QUERY, "idx_products_price",
+                new BigDecimal("50"));
+    }
+}
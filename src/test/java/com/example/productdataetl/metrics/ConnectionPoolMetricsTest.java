@@ -0,0 +1,66 @@
+package com.example.productdataetl.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionPoolMetrics to verify acquisition accounting and snapshot arithmetic.
+ */
+class ConnectionPoolMetricsTest {
+
+    @Test
+    void shouldBucketAcquisitionWaitTimes() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(null);
+
+        metrics.recordAcquisition(TimeUnit.MICROSECONDS.toNanos(50));
+        metrics.recordAcquisition(TimeUnit.MICROSECONDS.toNanos(500));
+        metrics.recordAcquisition(TimeUnit.MILLISECONDS.toNanos(50));
+        metrics.recordAcquisition(TimeUnit.SECONDS.toNanos(2));
+
+        ConnectionPoolMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(4, snapshot.getAcquisitions());
+        assertArrayEquals(new long[]{1, 1, 0, 1, 0, 1}, snapshot.getBucketCounts());
+        assertEquals("<100us=1, <1ms=1, <10ms=0, <100ms=1, <1s=0, >=1s=1", snapshot.histogram());
+    }
+
+    @Test
+    void shouldSubtractEarlierSnapshot() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(null);
+        metrics.recordAcquisition(TimeUnit.MILLISECONDS.toNanos(5));
+        ConnectionPoolMetrics.Snapshot before = metrics.snapshot();
+
+        metrics.recordAcquisition(TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.recordAcquisition(TimeUnit.MILLISECONDS.toNanos(4));
+
+        ConnectionPoolMetrics.Snapshot delta = metrics.snapshot().minus(before);
+        assertEquals(2, delta.getAcquisitions());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(6), delta.getAcquireNanos());
+        assertEquals(3000.0, delta.averageAcquireMicros(), 0.001);
+        assertArrayEquals(new long[]{0, 0, 2, 0, 0, 0}, delta.getBucketCounts());
+    }
+
+    @Test
+    void shouldRecordThroughTrackerAndPublishToRegistry() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics(registry);
+
+        IMetricsTracker tracker = metrics.create("testPool", new PoolStats(0) {
+            @Override
+            protected void update() {
+            }
+        });
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        tracker.recordConnectionTimeout();
+
+        ConnectionPoolMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getAcquisitions());
+        assertEquals(1, snapshot.getTimeouts());
+        assertEquals(1, registry.get("hikaricp.connections.acquire").timer().count());
+    }
+}
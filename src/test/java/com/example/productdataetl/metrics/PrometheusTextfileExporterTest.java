@@ -0,0 +1,98 @@
+package com.example.productdataetl.metrics;
+
+import com.example.productdataetl.listener.DetailedStepExecutionListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrometheusTextfileExporter to verify the exposition format and
+ * that the file is replaced without leaving temporary files behind.
+ */
+class PrometheusTextfileExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRenderJobAndStepMetrics() {
+        JobExecution jobExecution = createJobExecution();
+        PrometheusTextfileExporter exporter = new PrometheusTextfileExporter(directory, "etl.prom");
+
+        String text = exporter.render(jobExecution, 64L * 1024 * 1024);
+
+        assertTrue(text.contains("# TYPE product_etl_job_duration_seconds gauge"));
+        assertTrue(text.contains("product_etl_job_duration_seconds{job=\"job\"} 120"));
+        assertTrue(text.contains("product_etl_job_success{job=\"job\",exit_code=\"COMPLETED\"} 1"));
+        assertTrue(text.contains("product_etl_job_heap_peak_bytes{job=\"job\"} 67108864"));
+        String labels = "{job=\"job\",step=\"step\",status=\"COMPLETED\"}";
+        assertTrue(text.contains("product_etl_step_duration_seconds" + labels + " 60"));
+        assertTrue(text.contains("product_etl_step_items_per_second" + labels + " 50"));
+        assertTrue(text.contains("product_etl_step_skip_items" + labels + " 3"));
+        assertTrue(text.contains("product_etl_step_retries" + labels + " 4"));
+        assertTrue(text.contains("product_etl_step_rollbacks" + labels + " 2"));
+        assertTrue(text.contains("product_etl_step_cpu_seconds" + labels + " 1.500000"));
+    }
+
+    @Test
+    void shouldMarkFailedRunAndOmitUnknownHeapPeak() {
+        JobExecution jobExecution = createJobExecution();
+        jobExecution.setStatus(BatchStatus.FAILED);
+        jobExecution.setExitStatus(ExitStatus.FAILED);
+
+        String text = new PrometheusTextfileExporter(directory, "etl.prom").render(jobExecution, -1);
+
+        assertTrue(text.contains("product_etl_job_success{job=\"job\",exit_code=\"FAILED\"} 0"));
+        assertFalse(text.contains("product_etl_job_heap_peak_bytes"));
+    }
+
+    @Test
+    void shouldReplaceFileWithoutLeavingTemporaryFiles() throws IOException {
+        PrometheusTextfileExporter exporter = new PrometheusTextfileExporter(directory, "etl.prom");
+        Files.writeString(directory.resolve("etl.prom"), "stale\n");
+
+        Path file = exporter.export(createJobExecution(), -1);
+
+        assertEquals(directory.resolve("etl.prom"), file);
+        assertTrue(Files.readString(file).startsWith("# HELP product_etl_job_last_run_timestamp_seconds"));
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+            assertEquals(List.of("etl.prom"), names);
+        }
+    }
+
+    private JobExecution createJobExecution() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 2, 0, 0);
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.setStartTime(start);
+        jobExecution.setEndTime(start.plusMinutes(2));
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setExitStatus(ExitStatus.COMPLETED);
+
+        StepExecution stepExecution = jobExecution.createStepExecution("step");
+        stepExecution.setStartTime(start);
+        stepExecution.setEndTime(start.plusMinutes(1));
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        stepExecution.setReadCount(3000);
+        stepExecution.setWriteCount(2997);
+        stepExecution.setReadSkipCount(3);
+        stepExecution.setRollbackCount(2);
+        stepExecution.getExecutionContext().putLong(DetailedStepExecutionListener.RETRY_COUNT_KEY, 4);
+        stepExecution.getExecutionContext().putLong(DetailedStepExecutionListener.CPU_NANOS_KEY, 1_500_000_000L);
+        return jobExecution;
+    }
+}
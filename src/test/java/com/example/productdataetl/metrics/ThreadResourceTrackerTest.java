@@ -0,0 +1,92 @@
+package com.example.productdataetl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ThreadResourceTracker to verify per-chunk CPU and allocation accounting.
+ */
+class ThreadResourceTrackerTest {
+
+    private ThreadResourceTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ThreadResourceTracker();
+        tracker.start();
+    }
+
+    @Test
+    void shouldAccountAllocationsMadeInsideChunk() {
+        List<byte[]> retained = new ArrayList<>();
+
+        tracker.beginChunk();
+        for (int i = 0; i < 16; i++) {
+            retained.add(new byte[64 * 1024]);
+        }
+        tracker.endChunk();
+
+        ResourceUsage usage = tracker.finish();
+        assertEquals(16, retained.size());
+        assertEquals(1, usage.getWorkerThreads());
+        if (usage.getAllocatedBytes() >= 0) {
+            assertTrue(usage.getAllocatedBytes() >= 16 * 64 * 1024L,
+                    "Allocated bytes should include the arrays allocated in the chunk");
+        }
+    }
+
+    @Test
+    void shouldCountEachWorkerThreadOnce() throws InterruptedException {
+        tracker.beginChunk();
+        tracker.endChunk();
+        tracker.beginChunk();
+        tracker.endChunk();
+
+        Thread worker = new Thread(() -> {
+            tracker.beginChunk();
+            tracker.endChunk();
+        });
+        worker.start();
+        worker.join();
+
+        assertEquals(2, tracker.finish().getWorkerThreads());
+    }
+
+    @Test
+    void shouldIgnoreEndChunkWithoutBeginChunk() {
+        tracker.endChunk();
+
+        ResourceUsage usage = tracker.finish();
+        assertEquals(0, usage.getWorkerThreads());
+        assertTrue(usage.getAllocatedBytes() <= 0);
+    }
+
+    @Test
+    void shouldResetCountersOnStart() {
+        tracker.beginChunk();
+        byte[] allocation = new byte[128 * 1024];
+        tracker.endChunk();
+        assertEquals(128 * 1024, allocation.length);
+
+        tracker.start();
+
+        ResourceUsage usage = tracker.finish();
+        assertEquals(0, usage.getWorkerThreads());
+        assertTrue(usage.getAllocatedBytes() <= 0);
+    }
+
+    @Test
+    void shouldComputePerItemFigures() {
+        ResourceUsage usage = new ResourceUsage(2_000_000L, 4096L, 1, 0, 0);
+
+        assertEquals(1024.0, usage.bytesPerItem(4), 0.001);
+        assertEquals(500.0, usage.cpuMicrosPerItem(4), 0.001);
+        assertEquals(-1, usage.bytesPerItem(0));
+        assertEquals(-1, new ResourceUsage(-1, -1, 0, 0, 0).cpuMicrosPerItem(10));
+    }
+}
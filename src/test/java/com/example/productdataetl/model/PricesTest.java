@@ -0,0 +1,58 @@
+package com.example.productdataetl.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Prices to verify that prices parsed to cents match BigDecimal rounded to
+ * the column scale.
+ */
+class PricesTest {
+
+    @Test
+    void shouldParsePlainDecimals() {
+        assertEquals(129999, parse("1299.99"));
+        assertEquals(1250, parse("12.5"));
+        assertEquals(1200, parse("12"));
+        assertEquals(1200, parse("12."));
+        assertEquals(50, parse(".5"));
+        assertEquals(-1000, parse("-10.00"));
+        assertEquals(999, parse("+9.99"));
+    }
+
+    @Test
+    void shouldRoundExtraFractionDigitsLikeBigDecimal() {
+        assertEquals(1235, parse("12.345"));
+        assertEquals(1234, parse("12.3449"));
+        assertEquals(100, parse("1E0"));
+    }
+
+    @Test
+    void shouldParseWithinLargerText() {
+        assertEquals(2999, Prices.parseCents("7,Mouse,29.99", 8, 13));
+    }
+
+    @Test
+    void shouldRejectInvalidPrices() {
+        assertThrows(NumberFormatException.class, () -> parse("cheap"));
+        assertThrows(NumberFormatException.class, () -> parse("-"));
+        assertThrows(NumberFormatException.class, () -> parse("."));
+        assertThrows(NumberFormatException.class, () -> parse("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> parse("99999999999999999999.99"));
+    }
+
+    @Test
+    void shouldConvertToAndFromBigDecimal() {
+        assertEquals(new BigDecimal("1299.99"), Prices.toBigDecimal(129999));
+        assertEquals(new BigDecimal("12.50"), Prices.toBigDecimal(Prices.toCents(new BigDecimal("12.5"))));
+        assertNull(Prices.toBigDecimal(Prices.NO_PRICE));
+        assertEquals(Prices.NO_PRICE, Prices.toCents(null));
+    }
+
+    private static long parse(String price) {
+        return Prices.parseCents(price, 0, price.length());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.productdataetl.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChunkItemProcessorAdapter to verify that prepared chunk results are handed
+ * out per item and that unprepared or retried items are processed on their own.
+ */
+class ChunkItemProcessorAdapterTest {
+
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    /** Doubles even numbers, filters odd ones and fails negative ones. */
+    private final ChunkItemProcessor<Integer, Integer> doubler = items -> {
+        chunkSizes.add(items.size());
+        ChunkResult<Integer> result = new ChunkResult<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int item = items.get(i);
+            if (item < 0) {
+                result.fail(i, new IllegalArgumentException("negative: " + item));
+            } else if (item % 2 == 0) {
+                result.set(i, item * 2);
+            }
+        }
+        return result;
+    };
+
+    private final ChunkItemProcessorAdapter<Integer, Integer> adapter = new ChunkItemProcessorAdapter<>(doubler);
+
+    @Test
+    void shouldHandOutPreparedResults() throws Exception {
+        Integer two = 2;
+        Integer three = 3;
+        Integer four = 4;
+
+        adapter.prepare(List.of(two, three, four));
+
+        assertEquals(4, adapter.process(two));
+        assertNull(adapter.process(three));
+        assertEquals(8, adapter.process(four));
+        assertEquals(List.of(3), chunkSizes);
+    }
+
+    @Test
+    void shouldThrowFailureOnceAndProcessRetryOnItsOwn() {
+        Integer negative = -1;
+        adapter.prepare(List.of(2, negative));
+
+        assertThrows(IllegalArgumentException.class, () -> adapter.process(negative));
+        assertThrows(IllegalArgumentException.class, () -> adapter.process(negative));
+        assertEquals(List.of(2, 1), chunkSizes);
+    }
+
+    @Test
+    void shouldProcessUnpreparedItemsOnTheirOwn() throws Exception {
+        adapter.prepare(List.of(2));
+        adapter.clear();
+
+        assertEquals(12, adapter.process(6));
+        assertEquals(List.of(1, 1), chunkSizes);
+    }
+
+    @Test
+    void shouldFallBackToSingleItemsWhenChunkFails() throws Exception {
+        ChunkItemProcessorAdapter<Integer, Integer> failing = new ChunkItemProcessorAdapter<>(items -> {
+            if (items.size() > 1) {
+                throw new IllegalStateException("chunk too large");
+            }
+            return doubler.processChunk(items);
+        });
+        Integer two = 2;
+
+        failing.prepare(List.of(two, 4));
+
+        assertEquals(4, failing.process(two));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,6 +42,49 @@ class ProductProcessorTest {
         assertTrue(result.getImportDate().isAfter(LocalDateTime.now().minusSeconds(5)));
     }
 
+    @Test
+    void testImportDateSharedWithinChunk() throws Exception {
+        // Given
+        processor.beforeChunk(null);
+
+        // When
+        Product first = processor.process(new Product(1L, "First", null, new BigDecimal("10.00")));
+        Thread.sleep(2);
+        Product second = processor.process(new Product(2L, "Second", null, new BigDecimal("20.00")));
+        processor.afterChunk(null);
+        Thread.sleep(2);
+        Product outside = processor.process(new Product(3L, "Third", null, new BigDecimal("30.00")));
+
+        // Then
+        assertSame(first.getImportDate(), second.getImportDate());
+        assertNotEquals(first.getImportDate(), outside.getImportDate());
+    }
+
+    @Test
+    void testCleaningKeepsStringsWithoutWhitespace() throws Exception {
+        // Given
+        String name = "Keyboard";
+        Product product = new Product(1L, name, "  Mechanical  ", new BigDecimal("89.99"));
+
+        // When
+        Product result = processor.process(product);
+
+        // Then
+        assertSame(name, result.getName());
+        assertEquals("Mechanical", result.getDescription());
+    }
+
+    @Test
+    void testNameValidationMatchesTrim() throws Exception {
+        // Given: trim() removes control characters but keeps Unicode spaces
+        Product controlOnly = new Product(1L, "\u0001", null, new BigDecimal("10.00"));
+        Product emSpace = new Product(2L, "\u2003", null, new BigDecimal("10.00"));
+
+        // When / Then
+        assertNull(processor.process(controlOnly));
+        assertEquals("\u2003", processor.process(emSpace).getName());
+    }
+
     @Test
     void testProcessNullProduct() throws Exception {
         // Given
@@ -234,4 +278,22 @@ class ProductProcessorTest {
         assertTrue(result.getImportDate().isAfter(beforeProcessing.minusSeconds(1)));
         assertTrue(result.getImportDate().isBefore(afterProcessing.plusSeconds(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProcessChunkFiltersInvalidProductsWithOneImportDate() {
+        // Given
+        List<Product> products = List.of(
+                new Product(1L, " Laptop ", "  ", new BigDecimal("999.99")),
+                new Product(2L, "Free", null, BigDecimal.ZERO),
+                new Product(3L, "Mouse", null, new BigDecimal("25.50")));
+
+        // When
+        ChunkResult<Product> result = processor.processChunk(products);
+
+        // Then
+        assertEquals("Laptop", result.getOutput(0).getName());
+        assertNull(result.getOutput(0).getDescription());
+        assertNull(result.getOutput(1));
+        assertSame(result.getOutput(0).getImportDate(), result.getOutput(2).getImportDate());
+    }
+}
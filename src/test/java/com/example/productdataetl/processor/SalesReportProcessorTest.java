@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,4 +141,53 @@ class SalesReportProcessorTest {
         Product productAbove50 = new Product(10L, "Item3", "Description", new BigDecimal("50.01"));
         assertNotNull(processor.process(productAbove50), "Product with price 50.01 should not be filtered out");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testConfiguredPriceThreshold() throws Exception {
+        SalesReportProcessor configured = new SalesReportProcessor(new BigDecimal("100"));
+
+        assertNull(configured.process(new Product(11L, "Item4", "Description", new BigDecimal("75.00"))),
+                "Product below the configured threshold should be filtered out");
+        assertNotNull(configured.process(new Product(12L, "Item5", "Description", new BigDecimal("100.01"))),
+                "Product above the configured threshold should not be filtered out");
+    }
+
+    @Test
+    void testThresholdIsLowestBoundOfReportDefinitions() {
+        SalesReportProcessor reports = new SalesReportProcessor(new BigDecimal("500"),
+                "over200:above:200:a.csv,mid:band:20..50:b.csv,over1000:above:1000:c.csv");
+
+        assertEquals(new BigDecimal("20"), reports.getPriceThreshold());
+        assertEquals(new BigDecimal("500"), new SalesReportProcessor(new BigDecimal("500"), "").getPriceThreshold());
+    }
+
+    @Test
+    void testProcessChunkFiltersByPrice() {
+        // Given
+        List<Product> products = List.of(
+                new Product(1L, "Laptop", null, new BigDecimal("999.99")),
+                new Product(2L, "Keyboard", null, new BigDecimal("50.00")),
+                new Product(3L, "Unknown", null, null),
+                new Product(4L, "Cable", null, new BigDecimal("50.01")));
+
+        // When
+        ChunkResult<SalesReport> result = processor.processChunk(products);
+
+        // Then
+        assertEquals(4, result.size());
+        assertEquals(1L, result.getOutput(0).getProductId());
+        assertNull(result.getOutput(1));
+        assertNull(result.getOutput(2));
+        assertEquals(new BigDecimal("50.01"), result.getOutput(3).getPrice());
+    }
+
+    @Test
+    void testThresholdWithMoreThanTwoDecimals() throws Exception {
+        // Given
+        SalesReportProcessor fractional = new SalesReportProcessor(new BigDecimal("99.995"));
+
+        // Then
+        assertNull(fractional.process(new Product(1L, "A", null, new BigDecimal("99.99"))));
+        assertNotNull(fractional.process(new Product(2L, "B", null, new BigDecimal("100.00"))));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.productdataetl.reader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BgzfInputStream to verify the decompressed contents, whatever the number of
+ * threads, and that reading resumes at a virtual offset.
+ */
+class BgzfInputStreamTest {
+
+    private static final byte[] CONTENTS = contents();
+
+    @Test
+    void shouldDecompressBlocksInOrder() throws IOException {
+        Resource resource = new ByteArrayResource(bgzf(CONTENTS, 1000));
+
+        for (int threads : new int[] {1, 3}) {
+            try (InputStream in = new BgzfInputStream(resource, threads)) {
+                assertArrayEquals(CONTENTS, in.readAllBytes(), threads + " threads");
+            }
+        }
+    }
+
+    @Test
+    void shouldBeReadableAsGzip() throws IOException {
+        byte[] compressed = bgzf(CONTENTS, 1000);
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(CONTENTS, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldResumeAtVirtualOffset() throws IOException {
+        Resource resource = new ByteArrayResource(bgzf(CONTENTS, 1000));
+
+        for (int position : new int[] {0, 1, 999, 1000, 1001, 12345, CONTENTS.length}) {
+            long virtualOffset;
+            try (BgzfInputStream in = new BgzfInputStream(resource, 2)) {
+                // Read past the position, as a reader filling its buffer does
+                in.readNBytes(Math.min(CONTENTS.length, position + 1500));
+                virtualOffset = in.virtualOffset(position);
+            }
+            try (BgzfInputStream in = new BgzfInputStream(resource, 2)) {
+                in.seek(virtualOffset, position);
+
+                assertArrayEquals(Arrays.copyOfRange(CONTENTS, position, CONTENTS.length), in.readAllBytes(),
+                        "position " + position);
+            }
+        }
+    }
+
+    @Test
+    void shouldEncodeBlockOffsetAndOffsetInBlock() throws IOException {
+        byte[] compressed = bgzf(CONTENTS, 1000);
+        int secondBlock = blockSize(compressed, 0);
+
+        try (BgzfInputStream in = new BgzfInputStream(new ByteArrayResource(compressed), 1)) {
+            in.readNBytes(1500);
+
+            assertEquals(10, in.virtualOffset(10));
+            assertEquals((long) secondBlock << 16 | 500, in.virtualOffset(1500));
+        }
+    }
+
+    @Test
+    void shouldRejectCorruptBlock() {
+        byte[] compressed = bgzf(CONTENTS, 1000);
+        // Flip a byte of the first block's CRC
+        compressed[blockSize(compressed, 0) - 8] ^= 1;
+
+        IOException exception = assertThrows(IOException.class,
+                () -> new BgzfInputStream(new ByteArrayResource(compressed), 2).readAllBytes());
+
+        assertTrue(exception.getMessage().contains("offset 0"), exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectPlainGzip() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(CONTENTS);
+        }
+
+        IOException exception = assertThrows(IOException.class,
+                () -> new BgzfInputStream(new ByteArrayResource(gzip.toByteArray()), 2).read());
+
+        assertTrue(exception.getMessage().contains("BGZF"), exception.getMessage());
+    }
+
+    /**
+     * Compresses data as BGZF, in blocks of the given uncompressed size followed by the empty
+     * end-of-file block.
+     */
+    static byte[] bgzf(byte[] data, int blockSize) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int start = 0; start < data.length; start += blockSize) {
+            writeBlock(out, Arrays.copyOfRange(data, start, Math.min(data.length, start + blockSize)));
+        }
+        writeBlock(out, new byte[0]);
+        return out.toByteArray();
+    }
+
+    private static void writeBlock(ByteArrayOutputStream out, byte[] data) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[data.length + 1024];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        int total = 18 + length + 8;
+        out.writeBytes(new byte[] {0x1F, (byte) 0x8B, 8, 4, 0, 0, 0, 0, 0, (byte) 0xFF, 6, 0, 'B', 'C', 2, 0,
+                (byte) (total - 1), (byte) ((total - 1) >> 8)});
+        out.write(buffer, 0, length);
+        writeInt(out, (int) crc.getValue());
+        writeInt(out, data.length);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        for (int i = 0; i < 4; i++) {
+            out.write(value >> (8 * i));
+        }
+    }
+
+    private static int blockSize(byte[] compressed, int offset) {
+        return ((compressed[offset + 16] & 0xFF) | (compressed[offset + 17] & 0xFF) << 8) + 1;
+    }
+
+    private static byte[] contents() {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            text.append(i).append(",Product ").append(random.nextInt(1000)).append(",Café ").append(i % 7).append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
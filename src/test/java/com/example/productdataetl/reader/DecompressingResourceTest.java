@@ -0,0 +1,119 @@
+package com.example.productdataetl.reader;
+
+import com.example.productdataetl.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DecompressingResource to verify that plain, gzip and BGZF files give the same
+ * contents and that only plain files are exposed as files.
+ */
+class DecompressingResourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecognizeFormats() throws IOException {
+        byte[] csv = sampleCsv();
+
+        assertEquals(DecompressingResource.Format.PLAIN, resource("products.csv", csv).format());
+        assertEquals(DecompressingResource.Format.GZIP, resource("products.csv.gz", gzip(csv)).format());
+        assertEquals(DecompressingResource.Format.BGZF,
+                resource("products.csv.bgz", BgzfInputStreamTest.bgzf(csv, 4096)).format());
+    }
+
+    @Test
+    void shouldGiveSameContentsForEveryFormat() throws IOException {
+        byte[] csv = sampleCsv();
+
+        for (DecompressingResource resource : List.of(resource("plain.csv", csv), resource("gzip.csv", gzip(csv)),
+                resource("bgzf.csv", BgzfInputStreamTest.bgzf(csv, 100)))) {
+            try (InputStream in = resource.getInputStream()) {
+                assertArrayEquals(csv, in.readAllBytes(), resource.getFilename());
+            }
+        }
+    }
+
+    @Test
+    void shouldExposeOnlyPlainFilesAsFiles() throws IOException {
+        byte[] csv = sampleCsv();
+
+        assertTrue(resource("plain.csv", csv).isFile());
+        assertEquals(directory.resolve("plain.csv").toFile(), resource("plain.csv", csv).getFile());
+        assertFalse(resource("products.csv.gz", gzip(csv)).isFile());
+        assertThrows(IOException.class, () -> resource("products.csv.gz", gzip(csv)).getFile());
+        assertTrue(new DecompressingResource(new FileSystemResource(directory.resolve("missing.csv")), 2).isFile());
+    }
+
+    @Test
+    void shouldReadGzipProductsWithFlatFileReader() throws Exception {
+        byte[] csv = sampleCsv();
+
+        assertEquals(readAll(new ClassPathResource("products.csv")), readAll(resource("products.csv.gz", gzip(csv))));
+    }
+
+    @Test
+    void shouldReportTruncatedGzipAfterItsContents() throws IOException {
+        byte[] compressed = gzip(sampleCsv());
+        DecompressingResource resource = resource("truncated.csv.gz", Arrays.copyOf(compressed, compressed.length - 20));
+
+        try (InputStream in = resource.getInputStream()) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+    }
+
+    private DecompressingResource resource(String name, byte[] contents) throws IOException {
+        Path file = directory.resolve(name);
+        Files.write(file, contents);
+        return new DecompressingResource(new FileSystemResource(file), 2);
+    }
+
+    private static List<String> readAll(Resource resource) throws Exception {
+        FlatFileItemReader<Product> reader = new FlatFileItemReaderBuilder<Product>()
+                .name("reader")
+                .resource(resource)
+                .linesToSkip(1)
+                .lineMapper(new ProductLineMapper(',', ProductCsvReader.COLUMNS))
+                .build();
+        List<String> products = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        for (Product product = reader.read(); product != null; product = reader.read()) {
+            products.add(product.getId() + "|" + product.getName() + "|" + product.getPrice());
+        }
+        reader.close();
+        return products;
+    }
+
+    private static byte[] sampleCsv() throws IOException {
+        try (InputStream in = new ClassPathResource("products.csv").getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productdataetl.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for the delimiter scanners to verify that the vector scanner finds the same
+ * positions as the scalar one, including when the positions array fills up.
+ */
+class DelimiterScannerTest {
+
+    private final DelimiterScanner scalar = new ScalarDelimiterScanner((byte) ',');
+
+    @Test
+    void shouldFindDelimitersQuotesAndLineFeeds() {
+        byte[] bytes = "1,\"a, b\",x\n2".getBytes(StandardCharsets.UTF_8);
+        int[] positions = new int[16];
+
+        int count = scalar.scan(bytes, 0, bytes.length, positions);
+
+        assertArrayEquals(new int[] {1, 2, 4, 7, 8, 10}, Arrays.copyOf(positions, count));
+    }
+
+    @Test
+    void shouldStopWhenPositionsAreFull() {
+        byte[] bytes = ",,,,,".getBytes(StandardCharsets.UTF_8);
+        int[] positions = new int[3];
+
+        assertEquals(3, scalar.scan(bytes, 1, bytes.length, positions));
+        assertArrayEquals(new int[] {1, 2, 3}, positions);
+    }
+
+    @Test
+    void shouldFallBackOrUseVectorsAsAvailable() {
+        DelimiterScanner scanner = DelimiterScanner.create(';', true);
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(vectorModule ? VectorDelimiterScanner.class : ScalarDelimiterScanner.class, scanner.getClass());
+        assertThrows(IllegalArgumentException.class, () -> DelimiterScanner.create('"', false));
+    }
+
+    @Test
+    void vectorScannerShouldMatchScalarScanner() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "requires --add-modules jdk.incubator.vector");
+        DelimiterScanner vector = new VectorDelimiterScanner((byte) ',');
+        Random random = new Random(42);
+        byte[] alphabet = "ab ,\"\n\r€9".getBytes(StandardCharsets.UTF_8);
+        for (int round = 0; round < 200; round++) {
+            byte[] bytes = new byte[random.nextInt(300)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = alphabet[random.nextInt(alphabet.length)];
+            }
+            int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+            int[] expected = new int[1 + random.nextInt(128)];
+            int[] actual = new int[expected.length];
+
+            int expectedCount = scalar.scan(bytes, from, bytes.length, expected);
+            int actualCount = vector.scan(bytes, from, bytes.length, actual);
+
+            assertEquals(expectedCount, actualCount, "round " + round);
+            assertArrayEquals(Arrays.copyOf(expected, expectedCount), Arrays.copyOf(actual, actualCount),
+                    "round " + round);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.productdataetl.reader;
+
+import com.example.productdataetl.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductByteReader to verify that it reads the same products and reports the
+ * same errors as a FlatFileItemReader with a ProductLineMapper, whatever the buffer size.
+ */
+class ProductByteReaderTest {
+
+    private static final String TRICKY_CSV = "id,name,description,price\r\n"
+            + "1,Gaming Laptop,\"Fast, light\",1299.99\r\n"
+            + "# a comment line\n"
+            + " 2 , \"Mouse \"\"Pro\"\"\" ,  , 29.9 \n"
+            + "3,Café crème,Ünïcödé description €,5\n"
+            + "\n"
+            + "4,Broken,\"unterminated, quote,10\n"
+            + "x5,Bad id,,10\n"
+            + "6,Bad price,,ten\n"
+            + "7,\"Quoted \n"
+            + "8,Last,No line feed,99.99";
+
+    private static final String MULTILINE_CSV = "id,name,description,price\n"
+            + "1,Desk,\"Oak desk,\nwith two drawers\",249.00\r\n"
+            + "2,Lamp,\"Three\r\nline\n\"\"lamp\"\"\",19.5\n"
+            + "x3,Bad,\"spans\nlines\",1\n"
+            + "4,Chair,Plain,45\n"
+            + "5,Open,\"never closed,1\n"
+            + "6,Lost,,2\n";
+
+    @Test
+    void shouldReadSampleFileLikeFlatFileReader() throws Exception {
+        Resource resource = new ClassPathResource("products.csv");
+
+        assertEquals(readAll(lineReader(resource)), readAll(byteReader(resource, 64 * 1024)));
+    }
+
+    @Test
+    void shouldReadTrickyRecordsLikeFlatFileReaderWithAnyBufferSize() throws Exception {
+        Resource resource = new ByteArrayResource(TRICKY_CSV.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = readAll(lineReader(resource));
+
+        for (int bufferSize : new int[] {16, 17, 23, 64, 1024}) {
+            assertEquals(expected, readAll(byteReader(resource, bufferSize)), "buffer size " + bufferSize);
+        }
+        assertTrue(expected.contains("3|Café crème|Ünïcödé description €|5.00"), expected.toString());
+    }
+
+    @Test
+    void shouldEndRecordsAtEveryLineFeedLikeFlatFileReaderByDefault() throws Exception {
+        Resource resource = new ByteArrayResource(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = readAll(lineReader(resource, false));
+
+        for (int bufferSize : new int[] {16, 17, 23, 64, 1024}) {
+            assertEquals(expected, readAll(byteReader(resource, bufferSize, false)), "buffer size " + bufferSize);
+        }
+        assertTrue(expected.get(0).startsWith("error at 2: 1,Desk,\"Oak desk,"), expected.get(0));
+        assertTrue(expected.contains("4|Chair|Plain|45.00"), expected.toString());
+        assertTrue(expected.contains("6|Lost||2.00"), expected.toString());
+    }
+
+    @Test
+    void shouldContinueQuotedFieldsOverLinesLikeFlatFileReaderWhenMultiline() throws Exception {
+        Resource resource = new ByteArrayResource(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = readAll(lineReader(resource, true));
+
+        for (int bufferSize : new int[] {16, 17, 23, 64, 1024}) {
+            assertEquals(expected, readAll(byteReader(resource, bufferSize, true)), "buffer size " + bufferSize);
+        }
+        assertEquals("1|Desk|Oak desk,\nwith two drawers|249.00", expected.get(0));
+        assertEquals("2|Lamp|Three\nline\n\"lamp\"|19.50", expected.get(1));
+        assertTrue(expected.get(2).startsWith("error at 8: x3,Bad,\"spans\nlines\",1"), expected.get(2));
+        assertEquals("4|Chair|Plain|45.00", expected.get(3));
+        assertEquals("error at 11: 5,Open,\"never closed,1\n6,Lost,,2 -> null", expected.get(4));
+        assertEquals(5, expected.size());
+    }
+
+    @Test
+    void shouldResumeAfterItemsAlreadyRead() throws Exception {
+        Resource resource = new ByteArrayResource(TRICKY_CSV.getBytes(StandardCharsets.UTF_8));
+        ExecutionContext context = new ExecutionContext();
+        context.putInt("productByteReader.read.count", 2);
+        ProductByteReader reader = byteReader(resource, 16);
+
+        reader.open(context);
+        Product product = reader.read();
+        reader.close();
+
+        assertEquals(3L, product.getId());
+    }
+
+    @Test
+    void shouldReportLineNumberOfInvalidRecords() throws Exception {
+        ProductByteReader reader = byteReader(new ByteArrayResource(
+                "id,name,description,price\n1,A,,1\nx2,B,,2\n".getBytes(StandardCharsets.UTF_8)), 16);
+        reader.open(new ExecutionContext());
+        reader.read();
+
+        FlatFileParseException exception = assertThrows(FlatFileParseException.class, reader::read);
+
+        assertEquals(3, exception.getLineNumber());
+        assertEquals("x2,B,,2", exception.getInput());
+        reader.close();
+    }
+
+    @Test
+    void shouldResumeBgzfInputAtSavedBlock() throws Exception {
+        StringBuilder csv = new StringBuilder("id,name,description,price\n");
+        for (int i = 1; i <= 3000; i++) {
+            csv.append(i == 2500 ? "x" : "").append(i).append(",Product ").append(i).append(",Café ").append(i % 7)
+                    .append(',').append(i % 100).append(".99\n");
+        }
+        byte[] compressed = BgzfInputStreamTest.bgzf(csv.toString().getBytes(StandardCharsets.UTF_8), 1000);
+        List<String> expected = readAll(lineReader(new ByteArrayResource(csv.toString().getBytes(StandardCharsets.UTF_8))));
+        ExecutionContext context = new ExecutionContext();
+        ProductByteReader reader = byteReader(new DecompressingResource(new ByteArrayResource(compressed), 2), 256);
+        reader.open(context);
+        for (int i = 0; i < 1234; i++) {
+            reader.read();
+        }
+        reader.update(context);
+        reader.close();
+        // Corrupt the first block: a restart at the saved block never decompresses it
+        compressed[20] ^= 0x55;
+
+        List<String> rest = readAll(byteReader(new DecompressingResource(new ByteArrayResource(compressed), 2), 256),
+                context);
+
+        assertTrue(context.containsKey("productByteReader.bgzf.virtual.offset"));
+        assertTrue(context.getLong("productByteReader.bgzf.virtual.offset") >>> 16 > 0);
+        assertEquals(expected.subList(1234, expected.size()), rest);
+        assertTrue(rest.get(2500 - 1235).startsWith("error at 2501: x2500"), rest.get(2500 - 1235));
+    }
+
+    private ProductByteReader byteReader(Resource resource, int bufferSize) {
+        return byteReader(resource, bufferSize, false);
+    }
+
+    private ProductByteReader byteReader(Resource resource, int bufferSize, boolean multiline) {
+        ProductByteReader reader = new ProductByteReader(resource, new ProductLineMapper(',', ProductCsvReader.COLUMNS),
+                DelimiterScanner.create(',', true), 1, bufferSize);
+        reader.setName("productByteReader");
+        reader.setMultiline(multiline);
+        return reader;
+    }
+
+    private ItemStreamReader<Product> lineReader(Resource resource) {
+        return lineReader(resource, false);
+    }
+
+    private ItemStreamReader<Product> lineReader(Resource resource, boolean multiline) {
+        FlatFileItemReaderBuilder<Product> builder = new FlatFileItemReaderBuilder<Product>()
+                .name("productLineReader")
+                .resource(resource)
+                .linesToSkip(1)
+                .lineMapper(new ProductLineMapper(',', ProductCsvReader.COLUMNS));
+        if (multiline) {
+            builder.recordSeparatorPolicy(new QuotedRecordSeparatorPolicy());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return every product, or for a failed record its line number, input and cause
+     */
+    private static List<String> readAll(ItemStreamReader<Product> reader) throws Exception {
+        return readAll(reader, new ExecutionContext());
+    }
+
+    private static List<String> readAll(ItemStreamReader<Product> reader, ExecutionContext context) throws Exception {
+        List<String> records = new ArrayList<>();
+        reader.open(context);
+        while (true) {
+            try {
+                Product product = reader.read();
+                if (product == null) {
+                    break;
+                }
+                records.add(product.getId() + "|" + product.getName() + "|" + product.getDescription()
+                        + "|" + product.getPrice());
+            } catch (FlatFileParseException e) {
+                records.add("error at " + e.getLineNumber() + ": " + e.getInput() + " -> " + e.getCause());
+            }
+        }
+        reader.close();
+        return records;
+    }
+}
@@ -6,7 +6,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
-import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.core.io.ClassPathResource;
 
 import java.math.BigDecimal;
@@ -29,12 +28,7 @@ class ProductCsvReaderTest {
                 .name("testProductCsvItemReader")
                 .resource(new ClassPathResource("products.csv"))
                 .linesToSkip(1) // Skip header line
-                .delimited()
-                .delimiter(",")
-                .names("id", "name", "description", "price")
-                .fieldSetMapper(new BeanWrapperFieldSetMapper<Product>() {{
-                    setTargetType(Product.class);
-                }})
+                .lineMapper(new ProductLineMapper(',', ProductCsvReader.COLUMNS))
                 .build();
 
         executionContext = new ExecutionContext();
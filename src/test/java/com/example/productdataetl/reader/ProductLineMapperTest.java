@@ -0,0 +1,93 @@
+package com.example.productdataetl.reader;
+
+import com.example.productdataetl.exception.InvalidCsvRecordException;
+import com.example.productdataetl.model.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.batch.item.file.transform.IncorrectTokenCountException;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductLineMapper to verify that it maps like BeanWrapperFieldSetMapper
+ * and reports unparseable numbers with their line number.
+ */
+class ProductLineMapperTest {
+
+    private final ProductLineMapper mapper = new ProductLineMapper(',', ProductCsvReader.COLUMNS);
+
+    @Test
+    void shouldMapAllColumns() throws Exception {
+        Product product = mapper.mapLine("1,Gaming Laptop,\"Fast, quiet\",1299.99", 2);
+
+        assertEquals(1L, product.getId());
+        assertEquals("Gaming Laptop", product.getName());
+        assertEquals("Fast, quiet", product.getDescription());
+        assertEquals(new BigDecimal("1299.99"), product.getPrice());
+    }
+
+    @Test
+    void shouldMatchBeanWrapperMapping() throws Exception {
+        DefaultLineMapper<Product> beanWrapper = new DefaultLineMapper<>();
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(",");
+        tokenizer.setNames(ProductCsvReader.COLUMNS);
+        BeanWrapperFieldSetMapper<Product> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+        fieldSetMapper.setTargetType(Product.class);
+        fieldSetMapper.afterPropertiesSet();
+        beanWrapper.setLineTokenizer(tokenizer);
+        beanWrapper.setFieldSetMapper(fieldSetMapper);
+
+        for (String line : new String[]{" 7 , Mug ,  ,9.50", "8,,,", "9,Cable,USB-C, 12.50 ",
+                "10,\"Desk, oak\",\"Says \"\"solid\"\"\",150"}) {
+            Product expected = beanWrapper.mapLine(line, 1);
+            Product actual = mapper.mapLine(line, 1);
+            assertEquals(expected.getId(), actual.getId(), line);
+            assertEquals(expected.getName(), actual.getName(), line);
+            assertEquals(expected.getDescription(), actual.getDescription(), line);
+            assertEquals(expected.getPrice(), actual.getPrice(), line);
+        }
+    }
+
+    @Test
+    void shouldReportInvalidNumbersWithLineNumber() {
+        InvalidCsvRecordException exception = assertThrows(InvalidCsvRecordException.class,
+                () -> mapper.mapLine("abc,Broken,Bad id,1.00", 5));
+
+        assertEquals(5, exception.getLineNumber());
+        assertEquals("abc,Broken,Bad id,1.00", exception.getCsvRecord());
+        assertTrue(exception.getMessage().contains("Invalid id 'abc'"));
+
+        exception = assertThrows(InvalidCsvRecordException.class, () -> mapper.mapLine("2,Mouse,d,cheap", 9));
+        assertEquals(9, exception.getLineNumber());
+    }
+
+    @Test
+    void shouldUnquoteFieldsAndRejectWrongColumnCount() throws Exception {
+        Product product = mapper.mapLine("5, \"Monitor, 27\"\"\" ,\"\",\"399.99\"", 3);
+
+        assertEquals("Monitor, 27\"", product.getName());
+        assertEquals("", product.getDescription());
+        assertEquals(new BigDecimal("399.99"), product.getPrice());
+        assertThrows(IncorrectTokenCountException.class, () -> mapper.mapLine("6,Mug,9.50", 4));
+    }
+
+    @Test
+    void shouldResolveColumnsInAnyOrder() throws Exception {
+        Product product = new ProductLineMapper(';', "price", "id", "name").mapLine("5.00;3;Pen", 1);
+
+        assertEquals(3L, product.getId());
+        assertEquals("Pen", product.getName());
+        assertNull(product.getDescription());
+        assertEquals(new BigDecimal("5.00"), product.getPrice());
+    }
+
+    @Test
+    void shouldRejectUnknownOrDuplicateColumns() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductLineMapper(',', "id", "title"));
+        assertThrows(IllegalArgumentException.class, () -> new ProductLineMapper(',', "id", "id"));
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.productdataetl.reader;
 
 import com.example.productdataetl.model.Product;
+import com.example.productdataetl.processor.SalesReportProcessor;
+import com.example.productdataetl.tuning.BatchTuning;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JpaPagingItemReader;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -28,6 +32,8 @@ class ProductReaderTest {
 
     private ProductReader productReader;
 
+    private final BatchTuning batchTuning = new BatchTuning(10, 100, 1);
+
     @BeforeEach
     void setUp() {
         productReader = new ProductReader();
@@ -37,7 +43,7 @@ class ProductReaderTest {
     @Test
     void testProductDatabaseReaderConfiguration() {
         // When
-        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader();
+        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader(batchTuning);
 
         // Then
         assertNotNull(reader, "Reader should not be null");
@@ -57,7 +63,7 @@ class ProductReaderTest {
     @Test
     void testReaderName() {
         // When
-        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader();
+        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader(batchTuning);
 
         // Then
         assertEquals("productDatabaseReader", reader.getName());
@@ -66,7 +72,7 @@ class ProductReaderTest {
     @Test
     void testPageSize() {
         // When
-        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader();
+        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader(batchTuning);
 
         // Then
         Integer pageSize = (Integer) ReflectionTestUtils.getField(reader, "pageSize");
@@ -76,7 +82,7 @@ class ProductReaderTest {
     @Test
     void testQueryString() {
         // When
-        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader();
+        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader(batchTuning);
 
         // Then
         String queryString = (String) ReflectionTestUtils.getField(reader, "queryString");
@@ -87,11 +93,24 @@ class ProductReaderTest {
     @Test
     void testEntityManagerFactoryInjection() {
         // When
-        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader();
+        JpaPagingItemReader<Product> reader = productReader.productDatabaseReader(batchTuning);
 
         // Then
         EntityManagerFactory injectedFactory = (EntityManagerFactory) ReflectionTestUtils.getField(reader, "entityManagerFactory");
         assertEquals(entityManagerFactory, injectedFactory, 
                 "EntityManagerFactory should be properly injected");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCoveringIndexReaderConfiguration() {
+        // When
+        JdbcCursorItemReader<Product> reader = productReader.productCoveringIndexReader(
+                mock(DataSource.class), batchTuning, new SalesReportProcessor(new BigDecimal("75")));
+
+        // Then
+        assertEquals("productCoveringIndexReader", reader.getName());
+        assertEquals("SELECT id, name, price FROM PRODUCTS WHERE price > ? ORDER BY id", reader.getSql(),
+                "Query should select only the report columns of products above the threshold");
+        assertEquals(100, ReflectionTestUtils.getField(reader, "fetchSize"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.productdataetl.tasklet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for H2BulkLoadTasklet to verify that the ProductProcessor rules are applied
+ * in SQL and that rejected rows are counted and recorded.
+ */
+class H2BulkLoadTaskletTest {
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private StepExecution stepExecution;
+    private StepContribution contribution;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+        contribution = new StepContribution(stepExecution);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldLoadValidRowsAndRecordRejects() throws IOException {
+        Path csv = writeCsv("id,name,description,price",
+                "1, Gaming Laptop ,  ,1299.99",
+                "2,,Nameless,10.00",
+                "3,Mouse,Wireless mouse,-5",
+                "abc,Broken,Bad id,1.00",
+                "4,Keyboard,\"Mechanical, RGB\",89.99",
+                "1,Gaming Laptop,Updated,1199.99");
+
+        execute(csv, 5);
+
+        List<Map<String, Object>> products = jdbcTemplate.queryForList(
+                "SELECT ID, NAME, DESCRIPTION, PRICE, IMPORT_DATE FROM PRODUCTS ORDER BY ID");
+        assertEquals(2, products.size());
+        assertEquals("Gaming Laptop", products.get(0).get("NAME"));
+        assertEquals("Updated", products.get(0).get("DESCRIPTION"));
+        assertEquals(0, new BigDecimal("1199.99").compareTo((BigDecimal) products.get(0).get("PRICE")));
+        assertEquals("Mechanical, RGB", products.get(1).get("DESCRIPTION"));
+        assertNotNull(products.get(1).get("IMPORT_DATE"));
+
+        assertEquals(5, contribution.getReadCount());
+        assertEquals(1, contribution.getReadSkipCount());
+        assertEquals(2, contribution.getFilterCount());
+        assertEquals(3, contribution.getWriteCount());
+
+        List<Map<String, Object>> rejects = jdbcTemplate.queryForList(
+                "SELECT LINE_NUMBER, REASON, SKIPPED FROM PRODUCTS_REJECTS ORDER BY LINE_NUMBER");
+        assertEquals(3, rejects.size());
+        assertEquals("Invalid name", rejects.get(0).get("REASON"));
+        assertEquals("Invalid price", rejects.get(1).get("REASON"));
+        assertEquals("Unparseable id", rejects.get(2).get("REASON"));
+        assertEquals(5L, ((Number) rejects.get(2).get("LINE_NUMBER")).longValue());
+        assertEquals(Boolean.TRUE, rejects.get(2).get("SKIPPED"));
+    }
+
+    @Test
+    void shouldConvertEmptyDescriptionToNull() throws IOException {
+        execute(writeCsv("id,name,description,price", "7,Mug,,9.50"), 5);
+
+        assertNull(jdbcTemplate.queryForObject("SELECT DESCRIPTION FROM PRODUCTS WHERE ID = 7", String.class));
+    }
+
+    @Test
+    void shouldRejectPricesRoundingToZeroCentsLikeChunkStep() throws IOException {
+        execute(writeCsv("id,name,description,price",
+                "1,Sticker,Rounds down,0.004",
+                "2,Pin,Rounds up,0.005",
+                "3,Button,Exponent,4E-3"), 5);
+
+        List<Map<String, Object>> products = jdbcTemplate.queryForList("SELECT ID, PRICE FROM PRODUCTS ORDER BY ID");
+        assertEquals(1, products.size());
+        assertEquals(2L, ((Number) products.get(0).get("ID")).longValue());
+        assertEquals(0, new BigDecimal("0.01").compareTo((BigDecimal) products.get(0).get("PRICE")));
+        assertEquals(List.of("Invalid price", "Invalid price"), jdbcTemplate.queryForList(
+                "SELECT REASON FROM PRODUCTS_REJECTS ORDER BY LINE_NUMBER", String.class));
+        assertEquals(2, contribution.getFilterCount());
+    }
+
+    @Test
+    void shouldRollBackWhenSkipLimitIsExceeded() throws IOException {
+        Path csv = writeCsv("id,name,description,price",
+                "1,Laptop,d,10.00",
+                "x,Bad,d,1.00",
+                "2,Bad price,d,cheap");
+
+        assertThrows(SkipLimitExceededException.class, () -> execute(csv, 1));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS_REJECTS", Integer.class));
+    }
+
+    @Test
+    void shouldRejectUnexpectedHeader() throws IOException {
+        Path csv = writeCsv("id,title,price", "1,Laptop,10.00");
+
+        Exception exception = assertThrows(Exception.class, () -> execute(csv, 5));
+
+        assertTrue(exception.getMessage().contains("Expected header id,name,description,price"));
+    }
+
+    private void execute(Path csv, int skipLimit) {
+        H2BulkLoadTasklet tasklet = new H2BulkLoadTasklet(jdbcTemplate, new FileSystemResource(csv), skipLimit);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                tasklet.execute(contribution, new ChunkContext(new StepContext(stepExecution)));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+    }
+
+    private Path writeCsv(String... lines) throws IOException {
+        Path csv = directory.resolve("products.csv");
+        Files.write(csv, List.of(lines));
+        return csv;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.productdataetl.tasklet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SecondaryIndexTasklet to verify the drop threshold and idempotent rebuild.
+ */
+class SecondaryIndexTaskletTest {
+
+    private static final Resource THREE_ROWS = csv("id,name,description,price\n1,A,a,1\n2,B,b,2\n3,C,c,3\n");
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldDropIndexesForLargeLoadAndRebuildThem() throws Exception {
+        execute(SecondaryIndexTasklet.drop(jdbcTemplate, THREE_ROWS, 3, 0.5));
+
+        assertEquals("true", stepExecution.getExecutionContext().getString(SecondaryIndexTasklet.INDEXES_DEFERRED_KEY));
+        assertTrue(secondaryIndexes().isEmpty());
+
+        execute(SecondaryIndexTasklet.rebuild(jdbcTemplate));
+        execute(SecondaryIndexTasklet.rebuild(jdbcTemplate));
+
+        assertEquals(List.of("IDX_PRODUCTS_IMPORT_DATE", "IDX_PRODUCTS_PRICE"), secondaryIndexes());
+    }
+
+    @Test
+    void shouldKeepIndexesBelowMinimumRows() throws Exception {
+        execute(SecondaryIndexTasklet.drop(jdbcTemplate, THREE_ROWS, 4, 0.5));
+
+        assertEquals("false", stepExecution.getExecutionContext().getString(SecondaryIndexTasklet.INDEXES_DEFERRED_KEY));
+        assertEquals(2, secondaryIndexes().size());
+    }
+
+    @Test
+    void shouldKeepIndexesWhenLoadIsSmallComparedToTable() throws Exception {
+        for (int id = 1; id <= 7; id++) {
+            jdbcTemplate.update("INSERT INTO PRODUCTS (ID, NAME, PRICE) VALUES (?, 'P', 1)", id);
+        }
+
+        execute(SecondaryIndexTasklet.drop(jdbcTemplate, THREE_ROWS, 1, 0.5));
+
+        assertEquals(2, secondaryIndexes().size());
+    }
+
+    @Test
+    void shouldCountDataLinesWithAndWithoutTrailingLineBreak() throws Exception {
+        assertEquals(3, SecondaryIndexTasklet.countDataLines(THREE_ROWS));
+        assertEquals(2, SecondaryIndexTasklet.countDataLines(csv("header\na\nb")));
+        assertEquals(0, SecondaryIndexTasklet.countDataLines(csv("")));
+    }
+
+    private void execute(SecondaryIndexTasklet tasklet) throws Exception {
+        tasklet.execute(new StepContribution(stepExecution), new ChunkContext(new StepContext(stepExecution)));
+    }
+
+    private List<String> secondaryIndexes() {
+        return jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES"
+                + " WHERE TABLE_NAME = 'PRODUCTS' AND INDEX_NAME LIKE 'IDX_%' ORDER BY INDEX_NAME", String.class);
+    }
+
+    private static Resource csv(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.productdataetl.tasklet;
+
+import com.example.productdataetl.dto.SalesReport;
+import com.example.productdataetl.model.Product;
+import com.example.productdataetl.processor.SalesReportProcessor;
+import com.example.productdataetl.writer.SalesReportWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SqlReportExportTasklet to verify that both export strategies produce
+ * the same bytes as the chunk-oriented writer.
+ */
+class SqlReportExportTaskletTest {
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        insert(3, "Monitor, 27\"", "399.99");
+        insert(1, "Gaming Laptop", "1299.99");
+        insert(2, "Mouse", "29.99");
+        insert(4, "Webcam", "75.00");
+        insert(5, "Cable", "50.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldMatchChunkWriterOutputWithCsvWrite() throws Exception {
+        Path output = directory.resolve("csvwrite.csv");
+        StepContribution contribution = export(output, true);
+
+        assertArrayEquals(Files.readAllBytes(writeWithChunkWriter()), Files.readAllBytes(output));
+        assertEquals(5, contribution.getReadCount());
+        assertEquals(2, contribution.getFilterCount());
+        assertEquals(3, contribution.getWriteCount());
+    }
+
+    @Test
+    void shouldMatchChunkWriterOutputWithJdbcStreaming() throws Exception {
+        Path output = directory.resolve("streamed.csv");
+        StepContribution contribution = export(output, false);
+
+        assertArrayEquals(Files.readAllBytes(writeWithChunkWriter()), Files.readAllBytes(output));
+        assertEquals(3, contribution.getWriteCount());
+    }
+
+    @Test
+    void shouldWriteHeaderOnlyWhenNothingQualifies() throws Exception {
+        jdbcTemplate.update("DELETE FROM PRODUCTS");
+        Path output = directory.resolve("empty.csv");
+
+        export(output, true);
+
+        assertEquals(SalesReportWriter.HEADER + System.lineSeparator(), Files.readString(output));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count(), "No temporary file should be left behind");
+        }
+    }
+
+    private StepContribution export(Path output, boolean useCsvWrite) throws Exception {
+        StepContribution contribution = new StepContribution(stepExecution);
+        new SqlReportExportTasklet(jdbcTemplate, output, new BigDecimal("50"), useCsvWrite)
+                .execute(contribution, new ChunkContext(new StepContext(stepExecution)));
+        return contribution;
+    }
+
+    private Path writeWithChunkWriter() throws Exception {
+        Path expected = directory.resolve("expected.csv");
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(expected));
+        ItemStreamWriter<SalesReport> writer = config.salesReportCsvWriter();
+
+        SalesReportProcessor processor = new SalesReportProcessor();
+        List<SalesReport> reports = new ArrayList<>();
+        for (Product product : jdbcTemplate.query("SELECT ID, NAME, PRICE FROM PRODUCTS ORDER BY ID",
+                (rs, rowNum) -> new Product(rs.getLong(1), rs.getString(2), null, rs.getBigDecimal(3)))) {
+            SalesReport report = processor.process(product);
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(reports));
+        writer.close();
+        return expected;
+    }
+
+    private void insert(long id, String name, String price) {
+        jdbcTemplate.update("INSERT INTO PRODUCTS (ID, NAME, PRICE) VALUES (?, ?, ?)", id, name, new BigDecimal(price));
+    }
+}
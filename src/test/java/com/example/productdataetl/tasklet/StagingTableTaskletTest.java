@@ -0,0 +1,98 @@
+package com.example.productdataetl.tasklet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StagingTableTasklet to verify that staged rows are published to PRODUCTS
+ * with the last duplicate winning, and that preparing clears the staging table.
+ */
+class StagingTableTaskletTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldPublishStagedRowsWithLastDuplicateWinning() throws Exception {
+        jdbcTemplate.update("INSERT INTO PRODUCTS (ID, NAME, PRICE) VALUES (1, 'Old laptop', 999.99)");
+        jdbcTemplate.update("INSERT INTO PRODUCTS (ID, NAME, PRICE) VALUES (9, 'Untouched', 5.00)");
+        stage(1, "Laptop", "1299.99");
+        stage(2, "Mouse", "29.99");
+        stage(2, "Wireless mouse", "39.99");
+
+        StepContribution contribution = execute(StagingTableTasklet.publish(jdbcTemplate, true));
+
+        List<Map<String, Object>> products = jdbcTemplate.queryForList("SELECT ID, NAME, PRICE FROM PRODUCTS ORDER BY ID");
+        assertEquals(3, products.size());
+        assertEquals("Laptop", products.get(0).get("NAME"));
+        assertEquals("Wireless mouse", products.get(1).get("NAME"));
+        assertEquals(0, new BigDecimal("39.99").compareTo((BigDecimal) products.get(1).get("PRICE")));
+        assertEquals("Untouched", products.get(2).get("NAME"));
+        assertEquals(3, contribution.getReadCount());
+        assertEquals(1, contribution.getFilterCount());
+        assertEquals(2, contribution.getWriteCount());
+    }
+
+    @Test
+    void shouldBeIdempotentWhenPublishedAgain() throws Exception {
+        stage(1, "Laptop", "1299.99");
+
+        execute(StagingTableTasklet.publish(jdbcTemplate, false));
+        execute(StagingTableTasklet.publish(jdbcTemplate, false));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS", Integer.class));
+    }
+
+    @Test
+    void shouldClearStagingTableWhenPreparing() throws Exception {
+        stage(1, "Laptop", "1299.99");
+
+        execute(StagingTableTasklet.prepare(jdbcTemplate));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS_STAGING", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS", Integer.class));
+    }
+
+    private StepContribution execute(StagingTableTasklet tasklet) throws Exception {
+        StepContribution contribution = new StepContribution(stepExecution);
+        tasklet.execute(contribution, new ChunkContext(new StepContext(stepExecution)));
+        return contribution;
+    }
+
+    private void stage(long id, String name, String price) {
+        jdbcTemplate.update("INSERT INTO PRODUCTS_STAGING (ID, NAME, PRICE) VALUES (?, ?, ?)", id, name, new BigDecimal(price));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productdataetl.tuning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConnectionPoolSizing to verify the pool size required by the step concurrency.
+ */
+class ConnectionPoolSizingTest {
+
+    @Test
+    void shouldAddHeadroomToWorkerThreads() {
+        assertEquals(6, ConnectionPoolSizing.requiredPoolSize(4, 2));
+        assertEquals(1, ConnectionPoolSizing.requiredPoolSize(0, -1));
+    }
+
+    @Test
+    void shouldAcceptLargeEnoughPool() {
+        assertDoesNotThrow(() -> ConnectionPoolSizing.check(4, 2, 6));
+        assertDoesNotThrow(() -> ConnectionPoolSizing.check(4, 2, 20));
+    }
+
+    @Test
+    void shouldRejectPoolSmallerThanWorkersPlusHeadroom() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> ConnectionPoolSizing.check(8, 2, 5));
+
+        assertTrue(exception.getMessage().contains("8 worker threads"));
+        assertTrue(exception.getMessage().contains("at least 10"));
+        assertTrue(exception.getMessage().contains("spring.datasource.hikari.maximum-pool-size"));
+    }
+}
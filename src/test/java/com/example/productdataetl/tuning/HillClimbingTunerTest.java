@@ -0,0 +1,64 @@
+package com.example.productdataetl.tuning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HillClimbingTuner to verify exploration of neighbouring settings
+ * and convergence on the fastest measured settings.
+ */
+class HillClimbingTunerTest {
+
+    private final HillClimbingTuner tuner = new HillClimbingTuner(4);
+    private final BatchTuning baseline = new BatchTuning(100, 400, 2);
+
+    @Test
+    void shouldStartFromBaselineWithoutHistory() {
+        assertEquals(baseline, tuner.next(baseline, Map.of()));
+    }
+
+    @Test
+    void shouldTryFirstUnmeasuredNeighbourOfBest() {
+        Map<BatchTuning, Double> history = new HashMap<>();
+        history.put(baseline, 1000.0);
+        history.put(new BatchTuning(200, 400, 2), 900.0);
+
+        assertEquals(new BatchTuning(50, 400, 2), tuner.next(baseline, history));
+    }
+
+    @Test
+    void shouldMoveToFasterSettings() {
+        Map<BatchTuning, Double> history = new HashMap<>();
+        history.put(baseline, 1000.0);
+        history.put(new BatchTuning(200, 400, 2), 1500.0);
+
+        assertEquals(new BatchTuning(400, 400, 2), tuner.next(baseline, history));
+    }
+
+    @Test
+    void shouldKeepBestOnceAllNeighboursAreSlower() {
+        Map<BatchTuning, Double> history = new HashMap<>();
+        history.put(baseline, 1000.0);
+        for (BatchTuning neighbour : tuner.neighbours(baseline)) {
+            history.put(neighbour, 500.0);
+        }
+
+        assertEquals(baseline, tuner.next(baseline, history));
+    }
+
+    @Test
+    void shouldKeepNeighboursWithinBounds() {
+        List<BatchTuning> neighbours = tuner.neighbours(new BatchTuning(TuningAdvisor.MIN_CHUNK_SIZE, 100, 4));
+
+        assertTrue(neighbours.stream().allMatch(tuning ->
+                tuning.getChunkSize() >= TuningAdvisor.MIN_CHUNK_SIZE
+                        && tuning.getPageSize() >= TuningAdvisor.MIN_PAGE_SIZE
+                        && tuning.getThreads() <= 4));
+        assertEquals(3, neighbours.size());
+    }
+}
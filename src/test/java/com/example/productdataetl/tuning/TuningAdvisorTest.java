@@ -0,0 +1,65 @@
+package com.example.productdataetl.tuning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TuningAdvisor to verify the settings derived from the available resources.
+ */
+class TuningAdvisorTest {
+
+    private static final long GIGABYTE = 1024L * 1024 * 1024;
+
+    @Test
+    void shouldUseSingleThreadAndMinimumSizesForSmallInput() {
+        TuningAdvisor advisor = new TuningAdvisor(8, GIGABYTE, 10);
+
+        BatchTuning tuning = advisor.advise(2_000);
+
+        assertEquals(new BatchTuning(TuningAdvisor.MIN_CHUNK_SIZE, TuningAdvisor.MIN_PAGE_SIZE, 1), tuning);
+    }
+
+    @Test
+    void shouldScaleThreadsAndChunkSizeWithInput() {
+        TuningAdvisor advisor = new TuningAdvisor(8, 4 * GIGABYTE, 10);
+
+        BatchTuning tuning = advisor.advise(12L * 1024 * 1024);
+
+        assertEquals(3, tuning.getThreads());
+        assertTrue(tuning.getChunkSize() > TuningAdvisor.MIN_CHUNK_SIZE);
+        assertEquals(tuning.getChunkSize() * 4, tuning.getPageSize());
+    }
+
+    @Test
+    void shouldLeaveOneConnectionForJobRepository() {
+        TuningAdvisor advisor = new TuningAdvisor(16, 4 * GIGABYTE, 5);
+
+        assertEquals(4, advisor.maxThreads());
+        assertEquals(4, advisor.advise(GIGABYTE).getThreads());
+    }
+
+    @Test
+    void shouldNotExceedConcurrentChunksOfStep() {
+        TuningAdvisor advisor = new TuningAdvisor(16, 4 * GIGABYTE, 20);
+
+        assertEquals(TuningAdvisor.MAX_CONCURRENT_CHUNKS, advisor.maxThreads());
+        assertEquals(TuningAdvisor.MAX_CONCURRENT_CHUNKS, advisor.advise(GIGABYTE).getThreads());
+    }
+
+    @Test
+    void shouldLeaveReservedConnectionsFree() {
+        TuningAdvisor advisor = new TuningAdvisor(16, 4 * GIGABYTE, 5, 2);
+
+        assertEquals(3, advisor.maxThreads());
+    }
+
+    @Test
+    void shouldBoundChunkSizeByHeap() {
+        TuningAdvisor smallHeap = new TuningAdvisor(1, 64L * 1024 * 1024, 10);
+        TuningAdvisor largeHeap = new TuningAdvisor(1, 8 * GIGABYTE, 10);
+
+        long input = 2 * GIGABYTE;
+        assertTrue(smallHeap.advise(input).getChunkSize() < largeHeap.advise(input).getChunkSize());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.productdataetl.tuning;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TuningStore to verify that measurements are persisted per feed and averaged.
+ */
+class TuningStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReturnEmptyHistoryWhenFileIsMissing() {
+        TuningStore store = new TuningStore(directory.resolve("missing.properties"));
+
+        assertTrue(store.history("products").isEmpty());
+    }
+
+    @Test
+    void shouldAverageRepeatedMeasurementsPerFeed() throws IOException {
+        Path file = directory.resolve("tuning").resolve("batch-tuning.properties");
+        TuningStore store = new TuningStore(file);
+        BatchTuning tuning = new BatchTuning(100, 400, 2);
+
+        store.record("products", tuning, 1000.0);
+        store.record("products", tuning, 2000.0);
+        store.record("orders", tuning, 50.0);
+
+        Map<BatchTuning, Double> history = new TuningStore(file).history("products");
+        assertEquals(1, history.size());
+        assertEquals(1500.0, history.get(tuning), 0.001);
+        assertEquals(50.0, store.history("orders").get(tuning), 0.001);
+    }
+
+    @Test
+    void shouldIgnoreMalformedEntries() throws IOException {
+        Path file = directory.resolve("batch-tuning.properties");
+        Files.writeString(file, "products.garbage.throughput=12\nproducts.c10-p100-t1.throughput=34\n");
+
+        Map<BatchTuning, Double> history = new TuningStore(file).history("products");
+
+        assertEquals(Map.of(new BatchTuning(10, 100, 1), 34.0), history);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductDescriptionWriter against the description side-table schema.
+ */
+class ProductDescriptionWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ProductDescriptionWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .addScript("schema-description-side-table.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        writer = new ProductDescriptionWriter(jdbcTemplate);
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO PRODUCTS (ID, NAME, PRICE) VALUES (?, 'Product', 10)", id);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldStoreOnlyNonNullDescriptions() {
+        writer.write(new Chunk<>(product(1, "Gaming laptop"), product(2, null), product(3, "Mouse")));
+
+        assertEquals(List.of(1L, 3L), jdbcTemplate.queryForList(
+                "SELECT PRODUCT_ID FROM PRODUCT_DESCRIPTIONS ORDER BY PRODUCT_ID", Long.class));
+    }
+
+    @Test
+    void shouldReplacePreviousDescription() {
+        writer.write(new Chunk<>(product(1, "Old"), product(2, "Old")));
+
+        writer.write(new Chunk<>(product(1, "New"), product(2, null)));
+
+        assertEquals("New", jdbcTemplate.queryForObject(
+                "SELECT DESCRIPTION FROM PRODUCT_DESCRIPTIONS WHERE PRODUCT_ID = 1", String.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM PRODUCT_DESCRIPTIONS WHERE PRODUCT_ID = 2", Integer.class));
+    }
+
+    @Test
+    void shouldRemoveDescriptionColumnFromProducts() {
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS"
+                + " WHERE TABLE_NAME = 'PRODUCTS' AND COLUMN_NAME = 'DESCRIPTION'", Integer.class));
+    }
+
+    private static Product product(long id, String description) {
+        return new Product(id, "Product", description, new BigDecimal("10"));
+    }
+}
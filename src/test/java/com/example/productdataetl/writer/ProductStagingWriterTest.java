@@ -0,0 +1,71 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProductStagingWriter against the staging table of the schema.
+ */
+class ProductStagingWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ProductStagingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        writer = new ProductStagingWriter(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void shouldAppendChunksInOrder() {
+        LocalDateTime importDate = LocalDateTime.of(2024, 1, 31, 12, 0);
+        Product laptop = new Product(1L, "Laptop", "Gaming laptop", new BigDecimal("1299.99"));
+        laptop.setImportDate(importDate);
+
+        writer.write(new Chunk<>(laptop, new Product(2L, "Mouse", null, new BigDecimal("25.5"))));
+        writer.write(new Chunk<>(new Product(1L, "Laptop", "Newer", new BigDecimal("1199.00"))));
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PRODUCTS_STAGING", Integer.class));
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+                "SELECT * FROM PRODUCTS_STAGING ORDER BY LOAD_SEQ LIMIT 1");
+        assertEquals(1L, first.get("ID"));
+        assertEquals("Gaming laptop", first.get("DESCRIPTION"));
+        assertEquals(new BigDecimal("1299.99"), first.get("PRICE"));
+        assertNotNull(first.get("IMPORT_DATE"));
+        assertEquals(new BigDecimal("25.50"), jdbcTemplate.queryForObject(
+                "SELECT PRICE FROM PRODUCTS_STAGING WHERE ID = 2", BigDecimal.class));
+    }
+
+    @Test
+    void shouldFailChunkWithMissingRequiredValue() {
+        Chunk<Product> chunk = new Chunk<>(new Product(3L, "Cable", null, null));
+
+        assertThrows(DataIntegrityViolationException.class, () -> writer.write(chunk));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productdataetl.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportDefinition to verify the parsing of report definitions, summaries among
+ * them, and the price ranges they match.
+ */
+class ReportDefinitionTest {
+
+    @Test
+    void shouldParseThresholdsAndBands() {
+        List<ReportDefinition> reports = ReportDefinition.parseAll(
+                "over50:above:50:over_50.csv, mid:band:50..200:file:reports/mid.csv,top:band:1000..:top.csv");
+
+        assertEquals(3, reports.size());
+        assertEquals("over50", reports.get(0).getName());
+        assertEquals(new BigDecimal("50"), reports.get(0).getLowerBound());
+        assertNull(reports.get(0).getUpperBound());
+        assertEquals("over_50.csv", reports.get(0).getLocation());
+        assertEquals(new BigDecimal("200"), reports.get(1).getUpperBound());
+        assertEquals("file:reports/mid.csv", reports.get(1).getLocation());
+        assertNull(reports.get(2).getUpperBound());
+        assertEquals(new BigDecimal("50"), ReportDefinition.lowestBound(reports));
+    }
+
+    @Test
+    void shouldParseSummaryBandsSeparatedByCommas() {
+        List<ReportDefinition> reports = ReportDefinition.parseAll(
+                "over50:above:50:over_50.csv,totals:summary:50..200, 200..1000,1000..:file:reports/totals.csv,"
+                        + "mid:band:100..200:mid.csv");
+
+        assertEquals(3, reports.size());
+        ReportDefinition summary = reports.get(1);
+        assertTrue(summary.isSummary());
+        assertFalse(reports.get(0).isSummary());
+        assertEquals("file:reports/totals.csv", summary.getLocation());
+        assertEquals(List.of("50..200", "200..1000", "1000.."), summary.getBands().stream().map(Object::toString).toList());
+        assertEquals(new BigDecimal("50"), summary.getLowerBound());
+        assertNull(summary.getUpperBound());
+        assertTrue(summary.matches(new BigDecimal("5000")));
+        assertFalse(summary.matches(new BigDecimal("50")));
+        assertEquals("mid", reports.get(2).getName());
+    }
+
+    @Test
+    void shouldParseNoDefinitions() {
+        assertTrue(ReportDefinition.parseAll("").isEmpty());
+        assertTrue(ReportDefinition.parseAll("  ").isEmpty());
+    }
+
+    @Test
+    void shouldMatchPricesAboveLowerBoundUpToUpperBound() {
+        ReportDefinition band = ReportDefinition.parse("mid:band:50..200:mid.csv");
+
+        assertFalse(band.matches(new BigDecimal("50.00")));
+        assertTrue(band.matches(new BigDecimal("50.01")));
+        assertTrue(band.matches(new BigDecimal("200.00")));
+        assertFalse(band.matches(new BigDecimal("200.01")));
+        assertFalse(band.matches(null));
+    }
+
+    @Test
+    void shouldRejectMalformedDefinitions() {
+        for (String definition : new String[] {"over50:above:50", "over50:below:50:out.csv",
+                "over50:above:fifty:out.csv", "mid:band:50-200:mid.csv", "mid:band:200..50:mid.csv",
+                ":above:50:out.csv", "sum:summary:50-200:sum.csv", "sum:summary:50..200,300..100:sum.csv"}) {
+            assertThrows(IllegalArgumentException.class, () -> ReportDefinition.parse(definition), definition);
+        }
+    }
+
+    @Test
+    void shouldNotContinueDefinitionsOtherThanSummaryWithoutPath() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportDefinition.parseAll("mid:band:50..200:mid.csv,200..1000:high.csv"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReportDefinition.parseAll("sum:summary:50..200:sum.csv,200..1000:high.csv"));
+    }
+
+    @Test
+    void shouldRejectDuplicateNames() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ReportDefinition.parseAll("a:above:50:a.csv,a:above:200:b.csv"));
+
+        assertTrue(exception.getMessage().contains("twice"), exception.getMessage());
+    }
+}
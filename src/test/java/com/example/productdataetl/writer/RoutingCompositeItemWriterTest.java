@@ -0,0 +1,241 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.dto.SalesReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RoutingCompositeItemWriter, on its own and behind the report definitions of
+ * SalesReportWriter, to verify the routing, the concurrent writes, rollback and restart, and
+ * the step events passed on.
+ */
+class RoutingCompositeItemWriterTest {
+
+    private static final String SEPARATOR = System.lineSeparator();
+
+    @TempDir
+    Path directory;
+
+    private final TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+
+    @Test
+    void shouldRouteItemsToEveryMatchingWriter() {
+        RecordingWriter even = new RecordingWriter();
+        RecordingWriter small = new RecordingWriter();
+        RoutingCompositeItemWriter<Integer> writer = new RoutingCompositeItemWriter<>(item -> {
+            List<ItemStreamWriter<Integer>> writers = new ArrayList<>();
+            if (item % 2 == 0) {
+                writers.add(even);
+            }
+            if (item < 3) {
+                writers.add(small);
+            }
+            return writers;
+        }, List.of(even, small), 2);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        commit(writer, context, Chunk.of(1, 2, 3, 4, 5));
+        writer.close();
+
+        assertEquals(List.of(2, 4), even.items);
+        assertEquals(List.of(1, 2), small.items);
+        assertTrue(even.threads.stream().allMatch(name -> name.startsWith("report-writer-")), even.threads.toString());
+        assertTrue(even.closed && small.closed);
+    }
+
+    @Test
+    void shouldHoldItemsUntilContextIsSavedAndDropThemOnRollback() {
+        RecordingWriter all = new RecordingWriter();
+        RoutingCompositeItemWriter<Integer> writer = new RoutingCompositeItemWriter<>(item -> List.of(all),
+                List.of(all), 1);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        transaction.executeWithoutResult(status -> {
+            write(writer, Chunk.of(1, 2));
+            assertTrue(all.items.isEmpty(), "Items must not be written before the context is saved");
+            status.setRollbackOnly();
+        });
+        commit(writer, context, Chunk.of(3));
+        writer.close();
+
+        assertEquals(List.of(3), all.items);
+        assertEquals(1, context.getInt("updates"));
+    }
+
+    @Test
+    void shouldCallWritersListeningToStep() {
+        RecordingWriter all = new RecordingWriter();
+        RoutingCompositeItemWriter<Integer> writer = new RoutingCompositeItemWriter<>(item -> List.of(all),
+                List.of(all), 1);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        writer.beforeStep(stepExecution);
+        writer.afterStep(stepExecution);
+
+        assertEquals(List.of("beforeStep", "afterStep"), all.stepEvents);
+    }
+
+    @Test
+    void shouldFailWhenReportCannotBeWritten() {
+        RecordingWriter failing = new RecordingWriter();
+        failing.failure = new IOException("Disk full");
+        RoutingCompositeItemWriter<Integer> writer = new RoutingCompositeItemWriter<>(item -> List.of(failing),
+                List.of(failing), 2);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        ItemStreamException exception = assertThrows(ItemStreamException.class,
+                () -> commit(writer, context, Chunk.of(1)));
+
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    @Test
+    void shouldWriteDefinedReportsInOnePass() throws Exception {
+        ItemStreamWriter<SalesReport> writer = reportWriter();
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        commit(writer, context, Chunk.of(report(1, "10.00"), report(2, "60.00"), report(3, "250.00")));
+        commit(writer, context, Chunk.of(report(4, null), report(5, "1500.00"), report(6, "200.00")));
+        writer.close();
+
+        assertEquals(lines(report(2, "60.00"), report(3, "250.00"), report(5, "1500.00"), report(6, "200.00")),
+                Files.readString(directory.resolve("over_50.csv")));
+        assertEquals(lines(report(5, "1500.00")), Files.readString(directory.resolve("over_1000.csv")));
+        assertEquals(lines(report(2, "60.00"), report(6, "200.00")), Files.readString(directory.resolve("mid.csv")));
+        assertEquals(SalesReportSummaryWriter.HEADER + SEPARATOR + "50..200,2,60.00,200.00,260.00" + SEPARATOR
+                        + "200..,2,250.00,1500.00,1750.00" + SEPARATOR,
+                Files.readString(directory.resolve("totals.csv")));
+    }
+
+    @Test
+    void shouldResumeEveryReportOnRestart() throws Exception {
+        ItemStreamWriter<SalesReport> writer = reportWriter();
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+        commit(writer, context, Chunk.of(report(1, "60.00"), report(2, "1500.00")));
+        // Written after the last saved context, as by a run that failed before its next commit
+        writer.write(Chunk.of(report(3, "70.00"), report(4, "2000.00")));
+        writer.close();
+
+        ItemStreamWriter<SalesReport> restarted = reportWriter();
+        restarted.open(context);
+        commit(restarted, context, Chunk.of(report(5, "80.00")));
+        restarted.close();
+
+        assertEquals(lines(report(1, "60.00"), report(2, "1500.00"), report(5, "80.00")),
+                Files.readString(directory.resolve("over_50.csv")));
+        assertEquals(lines(report(2, "1500.00")), Files.readString(directory.resolve("over_1000.csv")));
+        assertEquals(lines(report(1, "60.00"), report(5, "80.00")), Files.readString(directory.resolve("mid.csv")));
+        assertEquals(SalesReportSummaryWriter.HEADER + SEPARATOR + "50..200,2,60.00,80.00,140.00" + SEPARATOR
+                        + "200..,1,1500.00,1500.00,1500.00" + SEPARATOR,
+                Files.readString(directory.resolve("totals.csv")));
+    }
+
+    private ItemStreamWriter<SalesReport> reportWriter() throws Exception {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(directory.resolve("unused.csv")));
+        ReflectionTestUtils.setField(config, "reports", "over50:above:50:" + directory.resolve("over_50.csv")
+                + ",over1000:above:1000:" + directory.resolve("over_1000.csv")
+                + ",mid:band:50..200:" + directory.resolve("mid.csv")
+                + ",totals:summary:50..200,200..:" + directory.resolve("totals.csv"));
+        ItemStreamWriter<SalesReport> writer = config.salesReportCsvWriter();
+        assertInstanceOf(RoutingCompositeItemWriter.class, writer);
+        return writer;
+    }
+
+    private <T> void commit(ItemStreamWriter<T> writer, ExecutionContext context, Chunk<T> chunk) {
+        transaction.executeWithoutResult(status -> {
+            write(writer, chunk);
+            writer.update(context);
+        });
+    }
+
+    private static <T> void write(ItemStreamWriter<T> writer, Chunk<T> chunk) {
+        try {
+            writer.write(chunk);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SalesReport report(long id, String price) {
+        return new SalesReport(id, "Product " + id, price == null ? null : new BigDecimal(price));
+    }
+
+    private static String lines(SalesReport... reports) {
+        StringBuilder lines = new StringBuilder(SalesReportWriter.HEADER).append(SEPARATOR);
+        for (SalesReport report : reports) {
+            lines.append(report.getProductId()).append(",Product ").append(report.getProductId()).append(',')
+                    .append(report.getPrice()).append(SEPARATOR);
+        }
+        return lines.toString();
+    }
+
+    /**
+     * Writer recording the items it is given and the threads writing them.
+     */
+    private static final class RecordingWriter implements ItemStreamWriter<Integer>, StepExecutionListener {
+
+        private final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> stepEvents = new ArrayList<>();
+        private Exception failure;
+        private boolean closed;
+
+        @Override
+        public void write(Chunk<? extends Integer> chunk) throws Exception {
+            if (failure != null) {
+                throw failure;
+            }
+            items.addAll(chunk.getItems());
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) {
+            executionContext.putInt("updates", executionContext.getInt("updates", 0) + 1);
+        }
+
+        @Override
+        public void beforeStep(StepExecution stepExecution) {
+            stepEvents.add("beforeStep");
+        }
+
+        @Override
+        public ExitStatus afterStep(StepExecution stepExecution) {
+            stepEvents.add("afterStep");
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.dto.SalesReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.file.transform.BeanWrapperFieldExtractor;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesReportFieldExtractor to verify that it extracts the same values
+ * as BeanWrapperFieldExtractor.
+ */
+class SalesReportFieldExtractorTest {
+
+    @Test
+    void shouldMatchBeanWrapperExtractor() throws Exception {
+        String[] names = SalesReportWriter.HEADER.split(",");
+        BeanWrapperFieldExtractor<SalesReport> beanWrapper = new BeanWrapperFieldExtractor<>();
+        beanWrapper.setNames(names);
+        beanWrapper.afterPropertiesSet();
+        SalesReport report = new SalesReport(1L, "Gaming Laptop", new BigDecimal("1299.99"));
+
+        assertArrayEquals(beanWrapper.extract(report), new SalesReportFieldExtractor(names).extract(report));
+    }
+
+    @Test
+    void shouldFollowColumnOrderAndKeepNulls() {
+        SalesReport report = new SalesReport(2L, null, new BigDecimal("29.99"));
+
+        Object[] values = new SalesReportFieldExtractor("price", "productName", "productId").extract(report);
+
+        assertArrayEquals(new Object[]{new BigDecimal("29.99"), null, 2L}, values);
+    }
+
+    @Test
+    void shouldRejectUnknownColumn() {
+        assertThrows(IllegalArgumentException.class, () -> new SalesReportFieldExtractor("productId", "total"));
+    }
+}
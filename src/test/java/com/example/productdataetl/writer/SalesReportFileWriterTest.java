@@ -0,0 +1,426 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.config.CheckpointingJobRepository;
+import com.example.productdataetl.dto.SalesReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.WriteFailedException;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SalesReportFileWriter, checking its output against the FlatFileItemWriter of
+ * SalesReportWriter, its transaction handling and restart, plain and compressed, and forcing
+ * the file to disk.
+ */
+class SalesReportFileWriterTest {
+
+    private static final String SEPARATOR = System.lineSeparator();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldWriteSameBytesAsFlatFileItemWriter() throws Exception {
+        List<SalesReport> reports = List.of(
+                new SalesReport(1L, "Gaming Laptop", new BigDecimal("1299.99")),
+                new SalesReport(2L, "Café crème machine", new BigDecimal("89.50")),
+                new SalesReport(3L, "日本語 keyboard 🎮", new BigDecimal("120.00")),
+                new SalesReport(-4L, null, null),
+                new SalesReport(Long.MIN_VALUE, "", new BigDecimal("0.05")),
+                new SalesReport(Long.MAX_VALUE, "Max", new BigDecimal("-12345678901234567890.12")),
+                new SalesReport(null, "Plain \"quoted\", name", new BigDecimal("1E+3")));
+        Path expected = directory.resolve("expected.csv");
+        Path actual = directory.resolve("actual.csv");
+
+        write(lineWriter(expected), reports);
+        write(new SalesReportFileWriter("salesReportCsvWriter", actual, SalesReportWriter.HEADER), reports);
+
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual));
+    }
+
+    @Test
+    void shouldBeCreatedForByteWriterType() throws Exception {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(directory.resolve("report.csv")));
+        ReflectionTestUtils.setField(config, "writerType", SalesReportWriter.BYTE_WRITER);
+
+        assertInstanceOf(SalesReportFileWriter.class, config.salesReportCsvWriter());
+    }
+
+    @Test
+    void shouldDropLinesOfRolledBackChunk() throws Exception {
+        Path output = directory.resolve("report.csv");
+        SalesReportFileWriter writer = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        writer.open(new ExecutionContext());
+
+        transaction.executeWithoutResult(status -> writeChunk(writer, report(1)));
+        transaction.executeWithoutResult(status -> {
+            writeChunk(writer, report(2));
+            assertEquals(SalesReportWriter.HEADER + SEPARATOR + line(1), readString(output),
+                    "Lines must not be written before the commit");
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> writeChunk(writer, report(3)));
+        writer.close();
+
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR + line(1) + line(3), Files.readString(output));
+    }
+
+    @Test
+    void shouldTruncateToSavedPositionOnRestart() throws Exception {
+        Path output = directory.resolve("report.csv");
+        ExecutionContext context = new ExecutionContext();
+        SalesReportFileWriter writer = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        writer.open(context);
+        writer.write(Chunk.of(report(1), report(2)));
+        writer.update(context);
+        // Written after the last saved position, as by a run that failed before its next commit
+        writer.write(Chunk.of(report(3)));
+        writer.close();
+
+        SalesReportFileWriter restarted = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        restarted.open(context);
+        restarted.write(Chunk.of(report(4)));
+        restarted.close();
+
+        assertTrue(context.containsKey("writer.current.count"));
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR + line(1) + line(2) + line(4), Files.readString(output));
+    }
+
+    @Test
+    void shouldCompressSameBytesInOneMemberPerCommit() throws Exception {
+        Path expected = directory.resolve("expected.csv");
+        Path actual = directory.resolve("actual.csv.gz");
+        SalesReportFileWriter plain = new SalesReportFileWriter("writer", expected, SalesReportWriter.HEADER);
+        SalesReportFileWriter gzip = SalesReportFileWriter.gzip("writer", actual, SalesReportWriter.HEADER, 6);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+
+        for (SalesReportFileWriter writer : List.of(plain, gzip)) {
+            ExecutionContext context = new ExecutionContext();
+            writer.open(context);
+            // Chunks large enough to be handed over to the compressor in several slices
+            for (int start = 0; start < 6000; start += 2000) {
+                int first = start;
+                transaction.executeWithoutResult(status -> {
+                    writeChunk(writer, reports(first, first + 2000));
+                    writer.update(context);
+                });
+            }
+            writer.close();
+        }
+
+        assertArrayEquals(Files.readAllBytes(expected), gunzip(actual));
+        assertEquals(4, members(actual), "One member for the header and one per commit");
+    }
+
+    @Test
+    void shouldDropCompressedLinesOfRolledBackChunk() throws Exception {
+        Path output = directory.resolve("report.csv.gz");
+        SalesReportFileWriter writer = SalesReportFileWriter.gzip("writer", output, SalesReportWriter.HEADER, 1);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        writer.open(new ExecutionContext());
+
+        transaction.executeWithoutResult(status -> writeChunk(writer, reports(1, 3000)));
+        transaction.executeWithoutResult(status -> {
+            writeChunk(writer, reports(3000, 6000));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> writeChunk(writer, report(7)));
+        writer.close();
+
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR + lines(1, 3000) + line(7),
+                new String(gunzip(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldFailChunkWhenDeflatingFails() throws Exception {
+        Path output = directory.resolve("report.csv.gz");
+        SalesReportFileWriter writer = SalesReportFileWriter.gzip("writer", output, SalesReportWriter.HEADER, 1);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        writer.open(new ExecutionContext());
+        GzipMemberCompressor opened = (GzipMemberCompressor) ReflectionTestUtils.getField(writer, "compressor");
+        opened.close();
+        // Fails on the first slice handed over, deflated on the compressor thread
+        ReflectionTestUtils.setField(writer, "compressor", new GzipMemberCompressor(new Deflater(1, true) {
+            private boolean failed;
+
+            @Override
+            public int deflate(byte[] output, int offset, int length) {
+                if (!failed) {
+                    failed = true;
+                    throw new IllegalStateException("Deflate failed");
+                }
+                return super.deflate(output, offset, length);
+            }
+        }, "test-gzip"));
+
+        WriteFailedException failure = assertThrows(WriteFailedException.class,
+                () -> transaction.executeWithoutResult(status -> writeChunk(writer, reports(1, 3000))));
+        transaction.executeWithoutResult(status -> writeChunk(writer, report(7)));
+        writer.close();
+
+        assertEquals("Deflate failed", failure.getCause().getCause().getMessage());
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR + line(7),
+                new String(gunzip(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldTruncateCompressedFileToMemberBoundaryOnRestart() throws Exception {
+        Path output = directory.resolve("report.csv.gz");
+        ExecutionContext context = new ExecutionContext();
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        SalesReportFileWriter writer = SalesReportFileWriter.gzip("writer", output, SalesReportWriter.HEADER, 9);
+        writer.open(context);
+        transaction.executeWithoutResult(status -> {
+            writeChunk(writer, reports(1, 2500));
+            writer.update(context);
+        });
+        // Written after the last saved position, as by a run that failed before its next commit
+        writer.write(new Chunk<>(reports(2500, 5000)));
+        writer.close();
+
+        SalesReportFileWriter restarted = SalesReportFileWriter.gzip("writer", output, SalesReportWriter.HEADER, 9);
+        restarted.open(context);
+        restarted.write(Chunk.of(report(9)));
+        restarted.close();
+
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR + lines(1, 2500) + line(9),
+                new String(gunzip(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldBeCreatedForGzipCompression() throws Exception {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(directory.resolve("report.csv")));
+        ReflectionTestUtils.setField(config, "compression", SalesReportWriter.GZIP);
+        ItemStreamWriter<SalesReport> writer = config.salesReportCsvWriter();
+
+        writer.open(new ExecutionContext());
+        writer.close();
+
+        assertInstanceOf(SalesReportFileWriter.class, writer);
+        assertEquals(SalesReportWriter.HEADER + SEPARATOR,
+                new String(gunzip(directory.resolve("report.csv.gz")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRejectInvalidCompressionLevel() {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(directory.resolve("report.csv")));
+        ReflectionTestUtils.setField(config, "compression", SalesReportWriter.GZIP);
+        ReflectionTestUtils.setField(config, "compressionLevel", 10);
+
+        assertThrows(IllegalArgumentException.class, config::salesReportCsvWriter);
+    }
+
+    @Test
+    void shouldForceEveryCommitWithDefaultRepository() {
+        Path output = directory.resolve("report.csv");
+        SalesReportFileWriter writer = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        writer.setSync(true);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+        assertEquals((long) (SalesReportWriter.HEADER + SEPARATOR).length(), syncedPosition(writer));
+
+        for (int id = 1; id <= 3; id++) {
+            SalesReport report = report(id);
+            transaction.executeWithoutResult(status -> {
+                writeChunk(writer, report);
+                writer.update(context);
+            });
+            assertEquals(context.getLong("writer.current.count"), syncedPosition(writer));
+        }
+        writer.close();
+    }
+
+    @Test
+    void shouldForceOnlyCommitsWritingContextWithCheckpointingRepository() {
+        Path output = directory.resolve("report.csv");
+        SalesReportFileWriter writer = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        writer.setSync(true);
+        JobRepository delegate = mock(JobRepository.class);
+        CheckpointingJobRepository repository = new CheckpointingJobRepository(delegate, 3, 0);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        ExecutionContext context = stepExecution.getExecutionContext();
+        List<Long> persisted = new ArrayList<>();
+        doAnswer(invocation -> persisted.add(context.getLong("writer.current.count", 0)))
+                .when(delegate).updateExecutionContext(stepExecution);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        writer.open(context);
+        long headerEnd = (SalesReportWriter.HEADER + SEPARATOR).length();
+        stepExecution.setStatus(BatchStatus.STARTED);
+        repository.update(stepExecution);
+        repository.updateExecutionContext(stepExecution);
+        List<Long> synced = new ArrayList<>();
+
+        for (int id = 1; id <= 4; id++) {
+            SalesReport report = report(id);
+            transaction.executeWithoutResult(status -> {
+                writeChunk(writer, report);
+                writer.update(context);
+                repository.updateExecutionContext(stepExecution);
+                repository.update(stepExecution);
+            });
+            synced.add(syncedPosition(writer));
+            assertTrue(persisted.get(persisted.size() - 1) <= syncedPosition(writer), "Saved position not on disk");
+        }
+
+        // Only the third commit writes the context, so it alone forces the file
+        assertEquals(List.of(0L, persisted.get(1)), persisted);
+        assertEquals(List.of(headerEnd, headerEnd, persisted.get(1), persisted.get(1)), synced);
+        writer.afterStep(stepExecution);
+        assertEquals(context.getLong("writer.current.count"), syncedPosition(writer));
+        writer.close();
+    }
+
+    @Test
+    void shouldSuggestSyncWhenLinesAreLostOnRestart() throws Exception {
+        Path output = directory.resolve("report.csv");
+        SalesReportFileWriter writer = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+        transaction.executeWithoutResult(status -> {
+            writeChunk(writer, List.of(report(1), report(2)));
+            writer.update(context);
+        });
+        writer.close();
+        // A machine failure loses the bytes not forced to disk
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            channel.truncate(context.getLong("writer.current.count") - 1);
+        }
+
+        SalesReportFileWriter restarted = new SalesReportFileWriter("writer", output, SalesReportWriter.HEADER);
+        ItemStreamException exception = assertThrows(ItemStreamException.class, () -> restarted.open(context));
+
+        assertTrue(exception.getMessage().contains("batch.output.sync"), exception.getMessage());
+    }
+
+    @Test
+    void shouldBeCreatedWhenSyncIsConfigured() throws Exception {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(directory.resolve("report.csv")));
+        ReflectionTestUtils.setField(config, "sync", true);
+
+        assertInstanceOf(SalesReportFileWriter.class, config.salesReportCsvWriter());
+    }
+
+    private ItemStreamWriter<SalesReport> lineWriter(Path output) throws Exception {
+        SalesReportWriter config = new SalesReportWriter();
+        ReflectionTestUtils.setField(config, "outputFile", new FileSystemResource(output));
+        return config.salesReportCsvWriter();
+    }
+
+    private static void write(ItemStreamWriter<SalesReport> writer, List<SalesReport> reports) throws Exception {
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(reports.subList(0, 2)));
+        writer.write(new Chunk<>(reports.subList(2, reports.size())));
+        writer.close();
+    }
+
+    private static long syncedPosition(SalesReportFileWriter writer) {
+        return (Long) ReflectionTestUtils.getField(writer, "syncedPosition");
+    }
+
+    private static void writeChunk(SalesReportFileWriter writer, SalesReport report) {
+        writeChunk(writer, List.of(report));
+    }
+
+    private static void writeChunk(SalesReportFileWriter writer, List<SalesReport> reports) {
+        try {
+            writer.write(new Chunk<>(reports));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readString(Path path) {
+        try {
+            return Files.readString(path);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gunzip(Path path) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Counts the gzip members of a file by decompressing them one at a time.
+     */
+    private static int members(Path path) throws Exception {
+        byte[] compressed = Files.readAllBytes(path);
+        int members = 0;
+        int offset = 0;
+        while (offset < compressed.length) {
+            // Fixed header written by the compressor, then raw deflate data and the trailer
+            Inflater inflater = new Inflater(true);
+            inflater.setInput(compressed, offset + 10, compressed.length - offset - 10);
+            byte[] scratch = new byte[64 * 1024];
+            while (!inflater.finished()) {
+                inflater.inflate(scratch);
+            }
+            offset += 10 + (int) inflater.getBytesRead() + 8;
+            inflater.end();
+            members++;
+        }
+        return members;
+    }
+
+    private static List<SalesReport> reports(int from, int to) {
+        List<SalesReport> reports = new ArrayList<>();
+        for (int id = from; id < to; id++) {
+            reports.add(report(id));
+        }
+        return reports;
+    }
+
+    private static String lines(int from, int to) {
+        StringBuilder lines = new StringBuilder();
+        for (int id = from; id < to; id++) {
+            lines.append(line(id));
+        }
+        return lines.toString();
+    }
+
+    private static SalesReport report(long id) {
+        return new SalesReport(id, "Product " + id, new BigDecimal(id + "0.00"));
+    }
+
+    private static String line(long id) {
+        return id + ",Product " + id + "," + id + "0.00" + SEPARATOR;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.productdataetl.writer;
+
+import com.example.productdataetl.dto.SalesReport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SalesReportSummaryWriter to verify the totals of each band, rollback and
+ * restart.
+ */
+class SalesReportSummaryWriterTest {
+
+    private static final String SEPARATOR = System.lineSeparator();
+
+    @TempDir
+    Path directory;
+
+    private final TransactionTemplate transaction = new TransactionTemplate(new ResourcelessTransactionManager());
+
+    @Test
+    void shouldWriteCountMinMaxAndSumPerBand() throws Exception {
+        Path output = directory.resolve("summary.csv");
+        SalesReportSummaryWriter writer = writer(output);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        commit(writer, context, Chunk.of(report("60.00"), report("150.50"), report("200.00"), report(null)));
+        commit(writer, context, Chunk.of(report("1500.00"), report("10.00")));
+        writer.close();
+
+        assertEquals(SalesReportSummaryWriter.HEADER + SEPARATOR
+                        + "50..200,3,60.00,200.00,410.50" + SEPARATOR
+                        + "200..1000,0,,,0" + SEPARATOR
+                        + "1000..,1,1500.00,1500.00,1500.00" + SEPARATOR,
+                Files.readString(output));
+    }
+
+    @Test
+    void shouldDropItemsOfRolledBackChunk() throws Exception {
+        Path output = directory.resolve("summary.csv");
+        SalesReportSummaryWriter writer = writer(output);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        transaction.executeWithoutResult(status -> {
+            writer.write(Chunk.of(report("100.00")));
+            writer.update(context);
+            status.setRollbackOnly();
+        });
+        commit(writer, context, Chunk.of(report("300.00")));
+        writer.close();
+
+        assertEquals(SalesReportSummaryWriter.HEADER + SEPARATOR
+                        + "50..200,0,,,0" + SEPARATOR
+                        + "200..1000,1,300.00,300.00,300.00" + SEPARATOR
+                        + "1000..,0,,,0" + SEPARATOR,
+                Files.readString(output));
+    }
+
+    @Test
+    void shouldResumeFromSavedTotalsOnRestart() throws Exception {
+        Path output = directory.resolve("summary.csv");
+        SalesReportSummaryWriter writer = writer(output);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+        commit(writer, context, Chunk.of(report("60.00"), report("250.00")));
+        // Written after the last saved context, as by a run that failed before its next commit
+        writer.write(Chunk.of(report("70.00")));
+        writer.close();
+
+        SalesReportSummaryWriter restarted = writer(output);
+        restarted.open(context);
+        commit(restarted, context, Chunk.of(report("80.00")));
+        restarted.close();
+
+        assertEquals(SalesReportSummaryWriter.HEADER + SEPARATOR
+                        + "50..200,2,60.00,80.00,140.00" + SEPARATOR
+                        + "200..1000,1,250.00,250.00,250.00" + SEPARATOR
+                        + "1000..,0,,,0" + SEPARATOR,
+                Files.readString(output));
+    }
+
+    private static SalesReportSummaryWriter writer(Path output) {
+        return new SalesReportSummaryWriter("summary", output,
+                ReportDefinition.parse("summary:summary:50..200,200..1000,1000..:unused.csv").getBands());
+    }
+
+    private void commit(SalesReportSummaryWriter writer, ExecutionContext context, Chunk<SalesReport> chunk) {
+        transaction.executeWithoutResult(status -> {
+            writer.write(chunk);
+            writer.update(context);
+        });
+    }
+
+    private static SalesReport report(String price) {
+        return new SalesReport(1L, "Product", price == null ? null : new BigDecimal(price));
+    }
+}